@@ -0,0 +1,117 @@
+package com.coolSchool.coolSchool.ai;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache of AI responses, keyed by a digest of everything the response depends on (see key).
+ * Entries expire after the TTL and the least used ones are evicted above max-size.
+ * <p>
+ * Concurrent requests for the same key share one upstream call (single-flight): the first caller calls the API,
+ * the others wait for its result. A failed call is not cached, the next request calls the API again.
+ * ai.cache.requests counts the requests by result: hit (answered from the cache), shared (joined a call in flight)
+ * and miss (called the API), so hit + shared are the upstream calls saved.
+ */
+@Component
+public class AIResponseCache {
+
+    private final AsyncCache<String, String> responses;
+    private final Counter hitCounter;
+    private final Counter sharedCounter;
+    private final Counter missCounter;
+
+    @Autowired
+    public AIResponseCache(MeterRegistry meterRegistry,
+                           @Value("${openai.cache.ttl:1h}") Duration ttl,
+                           @Value("${openai.cache.max-size:10000}") long maxSize) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .buildAsync();
+        this.hitCounter = requestsCounter(meterRegistry, "hit");
+        this.sharedCounter = requestsCounter(meterRegistry, "shared");
+        this.missCounter = requestsCounter(meterRegistry, "miss");
+        Gauge.builder("ai.cache.size", responses, cache -> cache.synchronous().estimatedSize())
+                .description("AI responses in the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached response or calls the API with the loader, on the caller's thread.
+     * Exceptions of the loader are passed to every caller waiting for the same key.
+     */
+    public String get(String key, Supplier<String> loader) {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> existing = responses.asMap().putIfAbsent(key, call);
+        if (existing != null) {
+            (existing.isDone() ? hitCounter : sharedCounter).increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+        }
+
+        missCounter.increment();
+        try {
+            String response = loader.get();
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Removes the entry, so the next request tries again
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(String key) {
+        responses.synchronous().invalidate(key);
+    }
+
+    /**
+     * Digest of the parts of a request. Every part which changes the response has to be included,
+     * e.g. the version of the prompt template and the set of categories offered to the model.
+     */
+    public static String key(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                // Separator, so ("ab", "c") and ("a", "bc") differ
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Content normalized for the cache key: case, leading and trailing whitespace and runs of whitespace are ignored.
+     */
+    public static String normalize(String content) {
+        return content == null ? "" : content.strip().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private static Counter requestsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.cache.requests")
+                .tag("result", result)
+                .description("Requests for AI responses by the result of the cache lookup")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,210 @@
+package com.coolSchool.coolSchool.ai;
+
+import com.coolSchool.coolSchool.exceptions.AI.AIStreamingBusyException;
+import com.coolSchool.coolSchool.exceptions.AI.ErrorProcessingAIResponseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams AI generated text to the client as server-sent events, one event per token as the OpenAI API produces it.
+ * The request thread returns at once with the emitter; a worker of a bounded pool reads the upstream stream line by line
+ * and relays every token, so the body is never buffered and the first token reaches the client after milliseconds.
+ * <p>
+ * At most max-concurrent streams run at a time (keep it below openai.client.max-concurrent-requests,
+ * the streams share the connections of the AI client); a further one is rejected with AIStreamingBusyException (429).
+ * When the client goes away or the stream times out, the upstream call is cancelled.
+ * A failure after the stream started is sent as an event named error with the message.
+ */
+@Slf4j
+@Component
+public class AITextStreamer implements DisposableBean {
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE = "[DONE]";
+
+    private final CloseableHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MessageSource messageSource;
+    @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}")
+    private String openAIEndpoint = "https://api.openai.com/v1/chat/completions";
+    private final String apiKey;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+    private final Timer firstTokenTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public AITextStreamer(@Qualifier("aiHttpClient") CloseableHttpClient httpClient,
+                          ObjectMapper objectMapper,
+                          MessageSource messageSource,
+                          MeterRegistry meterRegistry,
+                          @Value("${openai.api.key}") String apiKey,
+                          @Value("${openai.stream.max-concurrent:10}") int maxConcurrent,
+                          @Value("${openai.stream.timeout:2m}") Duration timeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.messageSource = messageSource;
+        this.apiKey = apiKey;
+        this.timeout = timeout;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ai-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.firstTokenTimer = Timer.builder("ai.stream.first-token")
+                .description("Time from the start of a stream to its first token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ai.stream.rejected")
+                .description("AI streams rejected because max-concurrent streams were running")
+                .register(meterRegistry);
+        Gauge.builder("ai.stream.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("AI streams running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts streaming the completion of the prompt. The emitter is returned before the first token.
+     *
+     * @throws AIStreamingBusyException If max-concurrent streams are running.
+     */
+    public SseEmitter stream(String prompt) {
+        HttpPost request = buildRequest(prompt);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicBoolean finished = new AtomicBoolean();
+        // Cancelling a finished call would close its connection instead of returning it to the pool
+        Runnable cancel = () -> {
+            if (finished.compareAndSet(false, true)) {
+                request.cancel();
+            }
+        };
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+        emitter.onCompletion(cancel);
+
+        // The worker has no request, so the locale of the error message is taken here
+        Locale locale = LocaleContextHolder.getLocale();
+        try {
+            executor.execute(() -> relay(request, emitter, finished, locale));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new AIStreamingBusyException(messageSource);
+        }
+        return emitter;
+    }
+
+    private void relay(HttpPost request, SseEmitter emitter, AtomicBoolean finished, Locale locale) {
+        long start = System.nanoTime();
+        try {
+            httpClient.execute(request, response -> {
+                if (response.getCode() != 200) {
+                    throw new IOException("OpenAI API answered " + response.getCode());
+                }
+
+                BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8));
+                boolean firstToken = true;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // Events are "data: {chunk}" lines separated by blank lines, the last one is "data: [DONE]"
+                    if (!line.startsWith(DATA_PREFIX)) {
+                        continue;
+                    }
+                    String data = line.substring(DATA_PREFIX.length()).trim();
+                    if (DONE.equals(data)) {
+                        break;
+                    }
+
+                    String token = objectMapper.readTree(data).path("choices").path(0).path("delta").path("content").asText("");
+                    if (token.isEmpty()) {
+                        continue;
+                    }
+                    if (firstToken) {
+                        firstTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        firstToken = false;
+                    }
+                    // Throws when the client went away, which ends the call
+                    emitter.send(SseEmitter.event().data(token));
+                }
+                return null;
+            });
+            finished.set(true);
+            emitter.complete();
+        } catch (IOException | RuntimeException e) {
+            if (finished.getAndSet(true)) {
+                // Cancelled: the client went away or the stream timed out
+                return;
+            }
+            log.warn("AI stream failed: {}", e.getMessage());
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("error")
+                        .data(messageSource.getMessage("error.processing.AI.response.exception", null, locale)));
+            } catch (IOException | IllegalStateException sendException) {
+                // The client is gone as well
+            }
+            emitter.complete();
+        }
+    }
+
+    private HttpPost buildRequest(String prompt) {
+        ObjectNode rootNode = objectMapper.createObjectNode();
+        rootNode.put("model", "gpt-3.5-turbo");
+        rootNode.put("stream", true);
+        rootNode.putArray("messages").addObject()
+                .put("role", "user")
+                .put("content", prompt);
+
+        HttpPost request = new HttpPost(openAIEndpoint);
+        request.setHeader("Authorization", "Bearer " + apiKey);
+        request.setHeader("Accept", "text/event-stream");
+        try {
+            request.setEntity(new StringEntity(objectMapper.writeValueAsString(rootNode), ContentType.APPLICATION_JSON));
+        } catch (JsonProcessingException e) {
+            throw new ErrorProcessingAIResponseException(messageSource);
+        }
+        return request;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
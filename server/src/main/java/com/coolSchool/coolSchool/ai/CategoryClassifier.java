@@ -0,0 +1,209 @@
+package com.coolSchool.coolSchool.ai;
+
+import com.coolSchool.coolSchool.repositories.BlogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Multinomial naive Bayes classifier of blog content into categories, trained in memory from the enabled blogs.
+ * It is trained once the application has started and learns every blog enabled afterwards,
+ * so the category of most drafts is recommended locally instead of by the OpenAI API.
+ * <p>
+ * A prediction is returned only when the model has seen min-documents blogs and the posterior probability
+ * of the best category is at least min-confidence; otherwise the caller falls back to the API.
+ * ai.classifier.predictions counts the requests by result (confident or unsure).
+ */
+@Slf4j
+@Component
+public class CategoryClassifier {
+
+    private static final int BATCH_SIZE = 500;
+    // Letters and digits of any script, so Bulgarian content is split into words too
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BlogRepository blogRepository;
+    private final double minConfidence;
+    private final int minDocuments;
+    private final Counter confidentCounter;
+    private final Counter unsureCounter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private final Map<Long, CategoryStats> categories = new HashMap<>();
+    private final Set<String> vocabulary = new HashSet<>();
+    private int documents = 0;
+
+    @Autowired
+    public CategoryClassifier(BlogRepository blogRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${category-classifier.min-confidence:0.8}") double minConfidence,
+                              @Value("${category-classifier.min-documents:50}") int minDocuments) {
+        this.blogRepository = blogRepository;
+        this.minConfidence = minConfidence;
+        this.minDocuments = minDocuments;
+        this.confidentCounter = predictionsCounter(meterRegistry, "confident");
+        this.unsureCounter = predictionsCounter(meterRegistry, "unsure");
+    }
+
+    /**
+     * Reads the enabled blogs in keyset batches and learns them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void train() {
+        try {
+            long lastId = 0;
+            int trained = 0;
+            List<BlogRepository.BlogText> blogs;
+            do {
+                blogs = blogRepository.findNextEnabledTextBatch(lastId, PageRequest.of(0, BATCH_SIZE));
+                for (BlogRepository.BlogText blog : blogs) {
+                    learn(blog.getCategoryId(), blog.getContent());
+                    lastId = blog.getId();
+                    trained++;
+                }
+            } while (blogs.size() == BATCH_SIZE);
+            log.info("Category classifier trained with {} blogs", trained);
+        } catch (RuntimeException e) {
+            // Recommendations fall back to the API until the blogs enabled from now on are learned
+            log.warn("Training of the category classifier failed: {}", e.getMessage());
+        }
+    }
+
+    public void learn(Long categoryId, String content) {
+        if (categoryId == null || content == null) {
+            return;
+        }
+
+        Map<String, Integer> termCounts = termCounts(content);
+        lock.writeLock().lock();
+        try {
+            CategoryStats stats = categories.computeIfAbsent(categoryId, id -> new CategoryStats());
+            stats.documents++;
+            termCounts.forEach((term, count) -> {
+                stats.termCounts.merge(term, count, Integer::sum);
+                stats.terms += count;
+                vocabulary.add(term);
+            });
+            documents++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most probable of the given categories, if the model is confident enough.
+     */
+    public Optional<Prediction> classify(String content, Collection<Long> categoryIds) {
+        Optional<Prediction> prediction = predict(content, categoryIds)
+                .filter(p -> p.confidence() >= minConfidence);
+        (prediction.isPresent() ? confidentCounter : unsureCounter).increment();
+        return prediction;
+    }
+
+    private Optional<Prediction> predict(String content, Collection<Long> categoryIds) {
+        if (content == null) {
+            return Optional.empty();
+        }
+
+        Map<String, Integer> termCounts = termCounts(content);
+        lock.readLock().lock();
+        try {
+            if (documents < minDocuments) {
+                return Optional.empty();
+            }
+
+            List<Long> candidates = new ArrayList<>(categoryIds.size());
+            List<Double> logPosteriors = new ArrayList<>(categoryIds.size());
+            double vocabularySize = vocabulary.size();
+            for (Long categoryId : categoryIds) {
+                CategoryStats stats = categories.get(categoryId);
+                if (stats == null) {
+                    continue;
+                }
+
+                // log P(category) + sum of log P(term | category) with Laplace smoothing
+                double logPosterior = Math.log((double) stats.documents / documents);
+                double denominator = Math.log(stats.terms + vocabularySize);
+                for (Map.Entry<String, Integer> term : termCounts.entrySet()) {
+                    int countInCategory = stats.termCounts.getOrDefault(term.getKey(), 0);
+                    logPosterior += term.getValue() * (Math.log(countInCategory + 1) - denominator);
+                }
+                candidates.add(categoryId);
+                logPosteriors.add(logPosterior);
+            }
+            if (candidates.size() < 2) {
+                // Nothing to choose from
+                return Optional.empty();
+            }
+
+            int best = 0;
+            for (int i = 1; i < logPosteriors.size(); i++) {
+                if (logPosteriors.get(i) > logPosteriors.get(best)) {
+                    best = i;
+                }
+            }
+            // Normalized probability of the best category (log-sum-exp)
+            double sum = 0;
+            for (double logPosterior : logPosteriors) {
+                sum += Math.exp(logPosterior - logPosteriors.get(best));
+            }
+            return Optional.of(new Prediction(candidates.get(best), 1 / sum));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> termCounts(String content) {
+        Map<String, Integer> termCounts = new HashMap<>();
+        for (String term : NON_WORD.split(content.toLowerCase(Locale.ROOT))) {
+            if (term.length() > 1) {
+                termCounts.merge(term, 1, Integer::sum);
+            }
+        }
+        return termCounts;
+    }
+
+    public record Prediction(Long categoryId, double confidence) {
+    }
+
+    private static class CategoryStats {
+        private final Map<String, Integer> termCounts = new HashMap<>();
+        private int documents;
+        private long terms;
+    }
+
+    private static Counter predictionsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.classifier.predictions")
+                .tag("result", result)
+                .description("Category predictions of the local classifier by confidence")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.coolSchool.coolSchool.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * HTTP client of the OpenAI API used by AIAssistanceServiceImpl.
+ * Connections are pooled and kept alive, so a call does not open a new TLS connection.
+ * The pool size is the limit of concurrent calls: a call which does not get a connection within acquire-timeout fails,
+ * as does a call which connects or answers slower than the timeouts, instead of holding the request thread.
+ * The duration of the calls is published as the histogram ai.client.requests.
+ */
+@Configuration
+public class AIClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient aiHttpClient(MeterRegistry meterRegistry,
+                                            @Value("${openai.client.max-concurrent-requests:20}") int maxConcurrentRequests,
+                                            @Value("${openai.client.connect-timeout:2s}") Duration connectTimeout,
+                                            @Value("${openai.client.response-timeout:30s}") Duration responseTimeout,
+                                            @Value("${openai.client.acquire-timeout:1s}") Duration acquireTimeout,
+                                            @Value("${openai.client.keep-alive:60s}") Duration keepAlive) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConcurrentRequests)
+                .setMaxConnPerRoute(maxConcurrentRequests)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+
+        registerPoolGauge(meterRegistry, connectionManager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, "pending", PoolStats::getPending);
+
+        TimeValue keepAliveTime = TimeValue.ofMilliseconds(keepAlive.toMillis());
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAliveTime)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveTime)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate aiRestTemplate(CloseableHttpClient aiHttpClient, MeterRegistry meterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(aiHttpClient));
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String status = "IO_ERROR";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = String.valueOf(response.getStatusCode().value());
+                return response;
+            } finally {
+                // status stays IO_ERROR when the call failed without a response (e.g. a timeout)
+                sample.stop(Timer.builder("ai.client.requests")
+                        .tag("status", status)
+                        .description("Duration of the calls to the OpenAI API")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+        });
+        return restTemplate;
+    }
+
+    private static void registerPoolGauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager connectionManager,
+                                          String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("ai.client.connections", connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("state", state)
+                .description("Connections of the OpenAI client pool")
+                .register(meterRegistry);
+    }
+}
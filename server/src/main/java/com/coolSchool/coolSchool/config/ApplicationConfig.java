@@ -1,12 +1,17 @@
 package com.coolSchool.coolSchool.config;
 
 import com.coolSchool.coolSchool.exceptions.user.UserNotFoundException;
+import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.repositories.UserRepository;
+import com.coolSchool.coolSchool.security.BoundedPasswordEncoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,14 +20,16 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
 
 /**
  * Configuration class for defining beans related to application setup, such as ModelMapper, ObjectMapper,
- * UserDetailsService, AuthenticationProvider, AuthenticationManager, PasswordEncoder, and RestTemplate.
+ * UserDetailsService, AuthenticationProvider, AuthenticationManager and PasswordEncoder.
+ * The RestTemplate of the OpenAI API is configured by AIClientConfig.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -41,8 +48,15 @@ public class ApplicationConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
 
+        // The associations are lazy: the entities still serialized by the API (files, resources) are written
+        // with their associations as before. Without open-in-view the services load those in their transaction
+        Hibernate6Module hibernateModule = new Hibernate6Module()
+                .enable(Hibernate6Module.Feature.FORCE_LAZY_LOADING)
+                .disable(Hibernate6Module.Feature.USE_TRANSIENT_ANNOTATION);
+
         objectMapper
                 .registerModule(new JavaTimeModule())
+                .registerModule(hibernateModule)
                 .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
 
         return objectMapper;
@@ -54,11 +68,24 @@ public class ApplicationConfig {
                 .orElseThrow(() -> new UserNotFoundException("email", messageSource));
     }
 
+    /**
+     * Stores the rehashed password when DaoAuthenticationProvider upgrades a hash with a lower cost on login.
+     */
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            User user = (User) userDetails;
+            user.setPassword(newPassword);
+            return repository.save(user);
+        };
+    }
+
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 
@@ -67,14 +94,18 @@ public class ApplicationConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt on its own bounded thread pool, see BoundedPasswordEncoder.
+     * threads 0 means one thread per CPU core.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${spring.security.password-hashing.bcrypt-strength:10}") int strength,
+                                           @Value("${spring.security.password-hashing.threads:0}") int threads,
+                                           @Value("${spring.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${spring.security.password-hashing.max-wait:5s}") Duration maxWait) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, maxWait, meterRegistry, messageSource);
     }
 
 }
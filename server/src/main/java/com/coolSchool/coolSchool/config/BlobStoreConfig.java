@@ -0,0 +1,83 @@
+package com.coolSchool.coolSchool.config;
+
+import com.coolSchool.coolSchool.storage.BlobStore;
+import com.coolSchool.coolSchool.storage.LocalBlobStore;
+import com.coolSchool.coolSchool.storage.S3BlobStore;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Configuration class for the storage backend of uploaded files.
+ * storage.backend=local keeps the files in the upload directory of the node (default),
+ * storage.backend=s3 keeps them in an S3-compatible object store shared by all nodes.
+ */
+@Data
+@Configuration
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "storage")
+public class BlobStoreConfig {
+    private String backend = "local";
+    // How long a presigned download URL stays valid
+    private Duration presignedUrlValidity = Duration.ofMinutes(10);
+    private S3 s3 = new S3();
+
+    @Bean
+    @ConditionalOnProperty(prefix = "storage", name = "backend", havingValue = "local", matchIfMissing = true)
+    public BlobStore localBlobStore(@Value("${upload.directory}") String uploadDirectory) {
+        return new LocalBlobStore(uploadDirectory);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "storage", name = "backend", havingValue = "s3")
+    public BlobStore s3BlobStore() {
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()));
+        S3Configuration serviceConfiguration = S3Configuration.builder()
+                .pathStyleAccessEnabled(s3.isPathStyleAccess())
+                .build();
+
+        S3Client s3Client = S3Client.builder()
+                .endpointOverride(URI.create(s3.getEndpoint()))
+                .region(Region.of(s3.getRegion()))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration)
+                .build();
+        S3Presigner presigner = S3Presigner.builder()
+                .endpointOverride(URI.create(s3.getEndpoint()))
+                .region(Region.of(s3.getRegion()))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration)
+                .build();
+
+        return new S3BlobStore(s3Client, presigner, s3.getBucket(), s3.getMultipartThreshold(), s3.getPartSize(), s3.getUploadConcurrency());
+    }
+
+    @Data
+    public static class S3 {
+        private String endpoint;
+        private String region = "us-east-1";
+        private String bucket;
+        private String accessKey;
+        private String secretKey;
+        // MinIO and most S3-compatible stores need path-style URLs (http://host/bucket/key)
+        private boolean pathStyleAccess = true;
+        // Files bigger than this are uploaded in parts
+        private long multipartThreshold = 16L * 1024 * 1024;
+        // S3 requires at least 5 MB for every part except the last one
+        private int partSize = 8 * 1024 * 1024;
+        private int uploadConcurrency = 4;
+    }
+}
@@ -0,0 +1,33 @@
+package com.coolSchool.coolSchool.config;
+
+import com.coolSchool.coolSchool.storage.HotFileCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the in-memory cache of small, frequently served files.
+ * Hit, miss and eviction counts are published as "cache.*" metrics with the tag cache=files.hot
+ */
+@Data
+@Configuration
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "upload.cache")
+public class FileCacheConfig {
+    private boolean enabled = true;
+    // Total byte budget of the cache
+    private long maxBytes = 64L * 1024 * 1024;
+    // Files bigger than this are always read from the disk
+    private long maxEntryBytes = 256L * 1024;
+
+    @Bean
+    public HotFileCache hotFileCache(MeterRegistry meterRegistry) {
+        HotFileCache hotFileCache = new HotFileCache(enabled, maxBytes, maxEntryBytes);
+        CaffeineCacheMetrics.monitor(meterRegistry, hotFileCache.getNativeCache(), "files.hot");
+        return hotFileCache;
+    }
+}
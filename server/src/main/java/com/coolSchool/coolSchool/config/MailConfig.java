@@ -21,17 +21,34 @@ public class MailConfig {
     @Value("${spring.security.mail.password}")
     private String password;
 
+    // Overridable to deliver to a local SMTP server (e.g. GreenMail) during development
+    @Value("${email.smtp.host:smtp.gmail.com}")
+    private String host;
+
+    @Value("${email.smtp.port:587}")
+    private int port;
+
+    @Value("${email.smtp.starttls:true}")
+    private boolean starttls;
+
+    @Value("${email.smtp.timeout-ms:8000}")
+    private int timeout;
+
     @Bean
     public JavaMailSender javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
+        mailSender.setHost(host);
+        mailSender.setPort(port);
         mailSender.setUsername(email);
         mailSender.setPassword(password);
 
         Properties properties = new Properties();
-        properties.put("mail.smtp.auth", true);
-        properties.put("mail.smtp.starttls.enable", true);
+        properties.put("mail.smtp.auth", !email.isEmpty());
+        properties.put("mail.smtp.starttls.enable", starttls);
+        // Only EmailOutboxWorker talks to the SMTP server, a slow server delays the outbox and not the requests
+        properties.put("mail.smtp.connectiontimeout", timeout);
+        properties.put("mail.smtp.timeout", timeout);
+        properties.put("mail.smtp.writetimeout", timeout);
         mailSender.setJavaMailProperties(properties);
 
         return mailSender;
@@ -1,34 +1,95 @@
 package com.coolSchool.coolSchool.config;
 
 import com.coolSchool.coolSchool.exceptions.rateLimiting.RateLimitExceededException;
+import com.coolSchool.coolSchool.interfaces.RateLimited;
+import com.coolSchool.coolSchool.security.PrincipalCache;
+import com.coolSchool.coolSchool.security.TokenBucketRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Enforces @RateLimited with a token bucket per annotated method and per user or IP address.
+ * Every response of a rate limited endpoint carries the RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset
+ * headers (seconds), a rejected request also Retry-After.
+ */
 @Aspect
 @Component
 public class RateLimitAspect {
 
-    private final int MAX_REQUESTS_PER_MINUTE = 10; // maximum requests per minute
     private final MessageSource messageSource;
-    private final ConcurrentHashMap<String, AtomicInteger> requestCounters = new ConcurrentHashMap<>();
+    private final long maxBucketsPerEndpoint;
+    // One limiter per annotated method, their number is fixed
+    private final Map<Method, TokenBucketRateLimiter> limiters = new ConcurrentHashMap<>();
 
-    public RateLimitAspect(MessageSource messageSource) {
+    public RateLimitAspect(MessageSource messageSource,
+                           @Value("${rate-limit.max-buckets-per-endpoint:100000}") long maxBucketsPerEndpoint) {
         this.messageSource = messageSource;
+        this.maxBucketsPerEndpoint = maxBucketsPerEndpoint;
     }
 
-    @Before("@annotation(com.coolSchool.coolSchool.interfaces.RateLimited)")
-    public void enforceRateLimit() {
-        String key = String.valueOf(System.currentTimeMillis() / 60000); // 60000 is 1 minute
-        AtomicInteger counter = requestCounters.computeIfAbsent(key, k -> new AtomicInteger(0));
+    @Before("@annotation(rateLimited)")
+    public void enforceRateLimit(JoinPoint joinPoint, RateLimited rateLimited) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        TokenBucketRateLimiter limiter = limiters.computeIfAbsent(method, m -> new TokenBucketRateLimiter(
+                rateLimited.limit(), Duration.ofSeconds(rateLimited.periodSeconds()), maxBucketsPerEndpoint));
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            // Not called within a web request, nobody to limit
+            return;
+        }
+
+        TokenBucketRateLimiter.Decision decision = limiter.tryAcquire(resolveKey(rateLimited.scope(), servletAttributes.getRequest()));
+
+        HttpServletResponse response = servletAttributes.getResponse();
+        if (response != null) {
+            response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+            response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+            response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(decision.resetNanos())));
+            if (!decision.allowed()) {
+                response.setHeader("Retry-After", String.valueOf(toSeconds(decision.retryAfterNanos())));
+            }
+        }
 
-        if (counter.incrementAndGet() > MAX_REQUESTS_PER_MINUTE) {
+        if (!decision.allowed()) {
             throw new RateLimitExceededException(messageSource);
         }
     }
+
+    private String resolveKey(RateLimited.Scope scope, HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (scope == RateLimited.Scope.USER && authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            if (authentication.getPrincipal() instanceof PrincipalCache.CachedUser user) {
+                return "user:" + user.id();
+            }
+            return "user:" + authentication.getName();
+        }
+        // The client address, not the proxy's (see server.forward-headers-strategy)
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static long toSeconds(long nanos) {
+        // Rounded up, a client waiting the advertised time must not be rejected again
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
 }
@@ -0,0 +1,62 @@
+package com.coolSchool.coolSchool.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Configuration class for the Hibernate second-level and query cache of the reference data
+ * (categories, courses and course subsections), kept in memory by Caffeine through its JCache provider.
+ * Every region holds at most max-size entries, which expire ttl after they were written;
+ * the ttl also bounds how long a change made on another application instance is seen stale here.
+ * Hit and miss counts are published as "hibernate.second.level.cache.*" and "hibernate.cache.query.*" metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // The regions of the @Cache annotated entities
+    private static final List<String> ENTITY_REGIONS = List.of("categories", "courses", "course_subsections");
+
+    @Bean
+    public CacheManager hibernateCacheManager(@Value("${second-level-cache.max-size:10000}") long maxSize,
+                                              @Value("${second-level-cache.ttl:10m}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : ENTITY_REGIONS) {
+            createIfAbsent(cacheManager, region, boundedRegion(maxSize, ttl));
+        }
+        createIfAbsent(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, boundedRegion(maxSize, ttl));
+        // The last update of every table must outlive the cached query results of it, so these are never evicted
+        createIfAbsent(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> boundedRegion(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+
+    // The caching provider shares its cache manager within the class loader, e.g. between the contexts of the tests
+    private static void createIfAbsent(CacheManager cacheManager, String region, CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(region) == null) {
+            cacheManager.createCache(region, configuration);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.coolSchool.coolSchool.exceptions.handlers.JwtAuthenticationEntryPoint
 import com.coolSchool.coolSchool.security.OAuth2LoginSuccessHandler;
 import com.coolSchool.coolSchool.services.impl.security.CustomOAuth2UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
@@ -54,6 +55,8 @@ public class SecurityConfiguration {
                 })
                 // Configure authorization rules for various endpoints
                 .authorizeHttpRequests()
+                // The request of a streamed response (e.g. the AI text) was authorized before it went async
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(
                         "/api/v1/files/upload",
                         "/api/v1/files/**",
@@ -77,6 +80,9 @@ public class SecurityConfiguration {
 
                 .requestMatchers(GET, "/api/v1/comments/**").permitAll()
 
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAnyRole(ADMIN.name())
+
                 .requestMatchers(GET, "/api/v1/categories/**").permitAll()
                 .requestMatchers(POST, "/api/v1/categories/**").hasAnyRole(ADMIN.name())
                 .requestMatchers(PUT, "/api/v1/categories/**").hasAnyRole(ADMIN.name())
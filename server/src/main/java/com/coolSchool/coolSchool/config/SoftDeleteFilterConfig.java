@@ -0,0 +1,34 @@
+package com.coolSchool.coolSchool.config;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Configuration class which enables the "deletedFilter" (see the package of the entities) on every EntityManager,
+ * so the queries of the soft-deletable entities never return the deleted rows, even where a repository method
+ * does not say DeletedFalse. Loads by id are not filtered by Hibernate, use the findByIdAndDeletedFalse finders for them.
+ * Native queries are not filtered either, which is what SoftDeleteArchiver relies on.
+ */
+@Configuration
+public class SoftDeleteFilterConfig {
+
+    public static final String DELETED_FILTER = "deletedFilter";
+
+    // Static, the post processor has to be registered before the entity manager factory is created
+    @Bean
+    public static BeanPostProcessor deletedFilterEnabler() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactoryBean) {
+                    entityManagerFactoryBean.setEntityManagerInitializer(entityManager ->
+                            entityManager.unwrap(Session.class).enableFilter(DELETED_FILTER));
+                }
+                return bean;
+            }
+        };
+    }
+}
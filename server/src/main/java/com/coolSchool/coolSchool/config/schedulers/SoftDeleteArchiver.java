@@ -0,0 +1,128 @@
+package com.coolSchool.coolSchool.config.schedulers;
+
+import com.coolSchool.coolSchool.repositories.BlogRepository;
+import com.coolSchool.coolSchool.repositories.CommentRepository;
+import com.coolSchool.coolSchool.repositories.MessageRepository;
+import com.coolSchool.coolSchool.repositories.ReviewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Moves the rows soft-deleted more than retention ago from the blogs, comments, reviews and messages tables
+ * to their history tables, so the hot tables only hold the live rows and the recently deleted ones.
+ * The rows are read in keyset batches of ids; each batch is copied and deleted (likes first) in one short transaction.
+ * An archived blog takes all its comments with it. A run stops after max-batches per table; the rest goes with the next run.
+ * The other soft-deletable tables are referenced by quiz attempts, answers or enrollments and stay as they are.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "archival", name = "enabled", havingValue = "true")
+public class SoftDeleteArchiver {
+
+    private final List<ArchivedTable> tables;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public SoftDeleteArchiver(BlogRepository blogRepository,
+                              CommentRepository commentRepository,
+                              ReviewRepository reviewRepository,
+                              MessageRepository messageRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${archival.retention:180d}") Duration retention,
+                              @Value("${archival.batch-size:500}") int batchSize,
+                              @Value("${archival.max-batches:100}") int maxBatches) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.tables = List.of(
+                new ArchivedTable("comments", commentRepository::findArchivableIds, ids -> {
+                    commentRepository.copyToHistory(ids);
+                    commentRepository.deleteLikesByIds(ids);
+                    return commentRepository.deleteArchived(ids);
+                }, archivedRowsCounter(meterRegistry, "comments")),
+                new ArchivedTable("blogs", blogRepository::findArchivableIds, ids -> {
+                    commentRepository.copyToHistoryByBlogIds(ids);
+                    commentRepository.deleteLikesByBlogIds(ids);
+                    commentRepository.deleteByBlogIds(ids);
+                    blogRepository.copyToHistory(ids);
+                    blogRepository.deleteLikesByIds(ids);
+                    return blogRepository.deleteArchived(ids);
+                }, archivedRowsCounter(meterRegistry, "blogs")),
+                new ArchivedTable("reviews", reviewRepository::findArchivableIds, ids -> {
+                    reviewRepository.copyToHistory(ids);
+                    return reviewRepository.deleteArchived(ids);
+                }, archivedRowsCounter(meterRegistry, "reviews")),
+                new ArchivedTable("messages", messageRepository::findArchivableIds, ids -> {
+                    messageRepository.copyToHistory(ids);
+                    return messageRepository.deleteArchived(ids);
+                }, archivedRowsCounter(meterRegistry, "messages")));
+    }
+
+    @Scheduled(cron = "${archival.cron:0 0 4 * * *}")
+    public void archiveDeletedRows() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        for (ArchivedTable table : tables) {
+            int archived = archive(table, threshold);
+            if (archived > 0) {
+                log.info("Archived {} rows of {}", archived, table.name());
+            }
+        }
+    }
+
+    private int archive(ArchivedTable table, LocalDateTime threshold) {
+        long afterId = 0;
+        int archived = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = table.finder().findArchivableIds(threshold, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer deleted = transactionTemplate.execute(status -> table.archiver().applyAsInt(ids));
+            if (deleted != null) {
+                table.counter().increment(deleted);
+                archived += deleted;
+            }
+            afterId = ids.get(ids.size() - 1);
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    @FunctionalInterface
+    private interface ArchivableIdFinder {
+        List<Long> findArchivableIds(LocalDateTime threshold, Long afterId, Pageable pageable);
+    }
+
+    private record ArchivedTable(String name, ArchivableIdFinder finder, ToIntFunction<List<Long>> archiver, Counter counter) {
+    }
+
+    private static Counter archivedRowsCounter(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("archival.archived")
+                .tag("table", table)
+                .description("Soft-deleted rows moved to the history table")
+                .register(meterRegistry);
+    }
+}
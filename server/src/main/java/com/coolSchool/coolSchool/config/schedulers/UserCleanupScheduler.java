@@ -1,19 +1,34 @@
 package com.coolSchool.coolSchool.config.schedulers;
 
-import com.coolSchool.coolSchool.models.entity.Token;
-import com.coolSchool.coolSchool.models.entity.User;
-import com.coolSchool.coolSchool.models.entity.VerificationToken;
 import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.repositories.TokenRevocationRepository;
 import com.coolSchool.coolSchool.repositories.UserRepository;
 import com.coolSchool.coolSchool.repositories.VerificationTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Deletes the users who did not confirm their email within 24 hours.
+ * The users are read in keyset batches of ids; each batch is removed with three bulk DELETE statements,
+ * child tables first (verification tokens, tokens, then the users), in one short transaction.
+ * The tokens are written to the token_revocations log first, so ActiveTokenIndex of every instance drops them.
+ * The pause between batches leaves room for the regular traffic after a wave of spam registrations.
+ */
+@Slf4j
 @ComponentScan
 @Component
 @EnableScheduling
@@ -21,30 +36,109 @@ public class UserCleanupScheduler {
 
     private final UserRepository userRepository;
     private final TokenRepository tokenRepository;
+    private final TokenRevocationRepository tokenRevocationRepository;
     private final VerificationTokenRepository verificationTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pause;
+    private final Counter deletedUsersCounter;
+    private final Counter deletedTokensCounter;
+    private final Counter deletedVerificationTokensCounter;
+    private final Timer durationTimer;
 
-    public UserCleanupScheduler(UserRepository userRepository, TokenRepository tokenRepository, VerificationTokenRepository verificationTokenRepository) {
+    public UserCleanupScheduler(UserRepository userRepository,
+                                TokenRepository tokenRepository,
+                                TokenRevocationRepository tokenRevocationRepository,
+                                VerificationTokenRepository verificationTokenRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${user.cleanup.batch-size:500}") int batchSize,
+                                @Value("${user.cleanup.pause:200ms}") Duration pause) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
+        this.tokenRevocationRepository = tokenRevocationRepository;
         this.verificationTokenRepository = verificationTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.deletedUsersCounter = deletedRowsCounter(meterRegistry, "_users");
+        this.deletedTokensCounter = deletedRowsCounter(meterRegistry, "tokens");
+        this.deletedVerificationTokensCounter = deletedRowsCounter(meterRegistry, "verification_tokens");
+        this.durationTimer = Timer.builder("users.cleanup.duration")
+                .description("Duration of a cleanup of the unconfirmed users")
+                .register(meterRegistry);
     }
 
     @Scheduled(cron = "0 00 0 * * *") // Run every 24 hours
     public void deleteUnconfirmedUsers() {
+        durationTimer.record(this::deleteUnconfirmedUsersInBatches);
+    }
+
+    private void deleteUnconfirmedUsersInBatches() {
         LocalDateTime thresholdDateTime = LocalDateTime.now().minusHours(24);
+        long afterId = 0;
+        int deletedUsers = 0;
+        List<Long> userIds;
 
-        // Retrieve unconfirmed users created before the threshold date time
-        List<User> unconfirmedUsers = userRepository.findByEnabledFalseAndCreatedAtBefore(thresholdDateTime);
+        do {
+            userIds = userRepository.findUnconfirmedIds(thresholdDateTime, afterId, PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
 
-        for (User user : unconfirmedUsers) {
-            List<VerificationToken> userVerificationTokens = verificationTokenRepository.findByUserAndCreatedAtBefore(user, thresholdDateTime);
-            verificationTokenRepository.deleteAll(userVerificationTokens);
+            deletedUsers += deleteBatch(userIds);
+            afterId = userIds.get(userIds.size() - 1);
 
-            List<Token> userTokens = tokenRepository.findAllByUser(user);
-            tokenRepository.deleteAll(userTokens);
-            userRepository.deleteAll(unconfirmedUsers);
+            if (userIds.size() == batchSize && !pause()) {
+                break;
+            }
+        } while (userIds.size() == batchSize);
+
+        if (deletedUsers > 0) {
+            log.info("Deleted {} unconfirmed users", deletedUsers);
         }
     }
-}
 
+    private int deleteBatch(List<Long> userIds) {
+        BatchResult result = transactionTemplate.execute(status -> {
+            // The bulk DELETE bypasses ActiveTokenIndex, the tokens are revoked through the log instead
+            tokenRevocationRepository.insertForTokensOfUsers(userIds, LocalDateTime.now());
+            return new BatchResult(
+                    verificationTokenRepository.deleteAllByUserIds(userIds),
+                    tokenRepository.deleteAllByUserIds(userIds),
+                    userRepository.deleteUnconfirmedByIds(userIds));
+        });
+        if (result == null) {
+            return 0;
+        }
+
+        deletedVerificationTokensCounter.increment(result.verificationTokens());
+        deletedTokensCounter.increment(result.tokens());
+        deletedUsersCounter.increment(result.users());
+        return result.users();
+    }
 
+    // Returns false when the thread was interrupted (application shutdown)
+    private boolean pause() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record BatchResult(int verificationTokens, int tokens, int users) {
+    }
+
+    private static Counter deletedRowsCounter(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("users.cleanup.deleted")
+                .tag("table", table)
+                .description("Rows deleted by the cleanup of the unconfirmed users")
+                .register(meterRegistry);
+    }
+}
@@ -131,8 +131,9 @@ public class AuthenticationController {
     @GetMapping("/me") // Retrieves current user information.
     public ResponseEntity<AuthenticationResponse> getMe(HttpServletRequest request, HttpServletResponse response) {
         String jwtToken = CookieHelper.readCookie(AUTH_COOKIE_KEY_JWT, request.getCookies()).orElse(null);
+        String refreshToken = CookieHelper.readCookie(AUTH_COOKIE_KEY_REFRESH, request.getCookies()).orElse(null);
 
-        AuthenticationResponse authenticationResponse = authenticationService.me(jwtToken);
+        AuthenticationResponse authenticationResponse = authenticationService.me(jwtToken, refreshToken);
         authenticationService.attachAuthCookies(authenticationResponse, response::addCookie);
 
         return ResponseEntity.ok(authenticationResponse);
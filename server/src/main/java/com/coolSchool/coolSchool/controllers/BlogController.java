@@ -1,5 +1,6 @@
 package com.coolSchool.coolSchool.controllers;
 
+import com.coolSchool.coolSchool.ai.AITextStreamer;
 import com.coolSchool.coolSchool.exceptions.answer.filters.JwtAuthenticationFilter;
 import com.coolSchool.coolSchool.interfaces.RateLimited;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
@@ -9,13 +10,14 @@ import com.coolSchool.coolSchool.models.dto.response.BlogResponseDTO;
 import com.coolSchool.coolSchool.services.AIAssistanceService;
 import com.coolSchool.coolSchool.services.BlogService;
 import com.coolSchool.coolSchool.services.CategoryService;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 
@@ -27,12 +29,14 @@ public class BlogController {
     private final CategoryService categoryService;
     private final AIAssistanceService aiAssistanceService;
     private final MessageSource messageSource;
+    private final AITextStreamer aiTextStreamer;
 
-    public BlogController(BlogService blogService, CategoryService categoryService, AIAssistanceService aiAssistanceService, MessageSource messageSource) {
+    public BlogController(BlogService blogService, CategoryService categoryService, AIAssistanceService aiAssistanceService, MessageSource messageSource, AITextStreamer aiTextStreamer) {
         this.blogService = blogService;
         this.categoryService = categoryService;
         this.aiAssistanceService = aiAssistanceService;
         this.messageSource = messageSource;
+        this.aiTextStreamer = aiTextStreamer;
     }
 
 
@@ -69,16 +73,21 @@ public class BlogController {
         return ResponseEntity.ok(extractedContent);
     }
 
+    // Streams the AI generated text for blog content as server-sent events, token by token as it is generated
+    @RateLimited
+    @PostMapping(value = "/generate/AI/text/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAIBlogContent(@RequestBody Map<String, String> requestBody) {
+        return aiTextStreamer.stream(requestBody.get("content"));
+    }
+
     // Uses AI assistance to analyze the content and suggest a category for the blog.
     @RateLimited
     @PostMapping("/recommend-category/AI")
-    public ResponseEntity<CategoryDTO> recommendCategoryForBlog(@RequestBody Map<String, String> requestBody) throws JsonProcessingException {
+    public ResponseEntity<CategoryDTO> recommendCategoryForBlog(@RequestBody Map<String, String> requestBody) {
         String content = requestBody.get("blogContent");
         List<CategoryDTO> allCategories = categoryService.getAllCategories();
 
-        String prompt = aiAssistanceService.buildPrompt(content, allCategories);
-        String aiResponse = aiAssistanceService.analyzeContent(prompt);
-        CategoryDTO recommendedCategory = aiAssistanceService.matchCategory(aiResponse, allCategories);
+        CategoryDTO recommendedCategory = aiAssistanceService.recommendCategory(content, allCategories);
 
         return ResponseEntity.ok(recommendedCategory);
     }
@@ -3,13 +3,20 @@ package com.coolSchool.coolSchool.controllers;
 import com.coolSchool.coolSchool.interfaces.RateLimited;
 import com.coolSchool.coolSchool.models.entity.File;
 import com.coolSchool.coolSchool.services.FileService;
+import com.coolSchool.coolSchool.storage.ByteBufferResource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Optional;
 
 // Controller class for handling file-related operations.
 @RestController
@@ -30,10 +37,23 @@ public class FileController {
     }
 
     @GetMapping("/{filename}") // Endpoint for retrieving a file by its filename.
-    public ResponseEntity<byte[]> getFile(@PathVariable String filename) throws IOException {
-        byte[] fileBytes = fileService.getFileBytes(filename);
+    public ResponseEntity<Resource> getFile(@PathVariable String filename) throws IOException {
+        ByteBuffer content = fileService.getFileContent(filename);
         MediaType mediaType = fileService.getMediaTypeForFile(filename);
-        return ResponseEntity.ok().contentType(mediaType).body(fileBytes);
+        return ResponseEntity.ok().contentType(mediaType).body(new ByteBufferResource(content));
+    }
+
+    // Endpoint for downloading big files. Redirects to the object store when it can serve the file directly,
+    // otherwise streams the file without loading it in memory.
+    @GetMapping("/download/{filename}")
+    public ResponseEntity<InputStreamResource> downloadFile(@PathVariable String filename) {
+        Optional<String> presignedUrl = fileService.getPresignedUrl(filename);
+        if (presignedUrl.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(presignedUrl.get())).build();
+        }
+
+        MediaType mediaType = fileService.getMediaTypeForFile(filename);
+        return ResponseEntity.ok().contentType(mediaType).body(new InputStreamResource(fileService.openFileStream(filename)));
     }
 }
 
@@ -5,9 +5,9 @@ import com.coolSchool.coolSchool.models.dto.request.ResourceRequestDTO;
 import com.coolSchool.coolSchool.models.dto.response.ResourceResponseDTO;
 import com.coolSchool.coolSchool.services.ResourceService;
 import jakarta.validation.Valid;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -35,6 +35,17 @@ public class ResourceController {
         return ResponseEntity.ok(resourceService.getBySubsection(id));
     }
 
+    // Endpoint for downloading all materials of a subsection as one ZIP archive
+    @GetMapping("/subsection/{id}/archive")
+    public ResponseEntity<StreamingResponseBody> downloadSubsectionArchive(@PathVariable(name = "id") Long id) {
+        StreamingResponseBody archive = resourceService.getSubsectionArchive(id);
+        ContentDisposition contentDisposition = ContentDisposition.attachment().filename("subsection-" + id + ".zip").build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(archive);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ResourceResponseDTO> getResourceById(@PathVariable(name = "id") Long id) {
         return ResponseEntity.ok(resourceService.getResourceById(id));
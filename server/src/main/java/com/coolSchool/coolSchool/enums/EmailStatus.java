@@ -0,0 +1,7 @@
+package com.coolSchool.coolSchool.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
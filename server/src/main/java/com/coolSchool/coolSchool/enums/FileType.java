@@ -12,30 +12,36 @@ import java.util.Map;
  * downloads, and processing based on their types.
  */
 public enum FileType {
-    PDF("pdf", MediaType.APPLICATION_PDF),
-    JPEG("jpg", MediaType.IMAGE_JPEG),
-    JPG("jpeg", MediaType.IMAGE_JPEG),
-    PNG("png", MediaType.IMAGE_PNG),
-    XLSX("xlsx", MediaType.valueOf("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")),
-    XLS("xls", MediaType.valueOf("application/vnd.ms-excel")),
-    DOC("doc", MediaType.valueOf("application/msword")),
-    PPTX("pptx", MediaType.valueOf("application/vnd.openxmlformats-officedocument.presentationml.presentation")),
-    DOCX("docx", MediaType.valueOf("application/msword"));
+    PDF("pdf", MediaType.APPLICATION_PDF, true),
+    JPEG("jpg", MediaType.IMAGE_JPEG, true),
+    JPG("jpeg", MediaType.IMAGE_JPEG, true),
+    PNG("png", MediaType.IMAGE_PNG, true),
+    XLSX("xlsx", MediaType.valueOf("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), true),
+    XLS("xls", MediaType.valueOf("application/vnd.ms-excel"), false),
+    DOC("doc", MediaType.valueOf("application/msword"), false),
+    PPTX("pptx", MediaType.valueOf("application/vnd.openxmlformats-officedocument.presentationml.presentation"), true),
+    DOCX("docx", MediaType.valueOf("application/msword"), true);
 
     private static final Map<String, MediaType> FILE_TYPE_MEDIA_TYPE_MAP = new HashMap<>();
+    private static final Map<String, Boolean> FILE_TYPE_COMPRESSED_MAP = new HashMap<>();
 
     static {
         for (FileType fileType : values()) {
             FILE_TYPE_MEDIA_TYPE_MAP.put(fileType.extension, fileType.mediaType);
+            FILE_TYPE_COMPRESSED_MAP.put(fileType.extension, fileType.compressed);
         }
     }
 
     private final String extension;
     private final MediaType mediaType;
+    // The content is already compressed (PDF streams, JPEG/PNG images, Office Open XML zip containers),
+    // compressing it again costs CPU and saves almost nothing
+    private final boolean compressed;
 
-    FileType(String extension, MediaType mediaType) {
+    FileType(String extension, MediaType mediaType, boolean compressed) {
         this.extension = extension;
         this.mediaType = mediaType;
+        this.compressed = compressed;
     }
 
     public static MediaType getMediaTypeForExtension(String extension) {
@@ -45,4 +51,8 @@ public enum FileType {
     public static boolean isSupportedExtension(String extension) {
         return FILE_TYPE_MEDIA_TYPE_MAP.containsKey(extension.toLowerCase());
     }
+
+    public static boolean isCompressedExtension(String extension) {
+        return FILE_TYPE_COMPRESSED_MAP.getOrDefault(extension.toLowerCase(), false);
+    }
 }
@@ -0,0 +1,9 @@
+package com.coolSchool.coolSchool.enums;
+
+// How issued JWTs are revoked, set with spring.security.jwt.revocation-mode
+public enum TokenRevocationMode {
+    // Every issued token is stored in the tokens table, revoking deletes the rows
+    TABLE,
+    // Tokens carry the token_version of the user, revoking increments the version and nothing is stored
+    VERSION
+}
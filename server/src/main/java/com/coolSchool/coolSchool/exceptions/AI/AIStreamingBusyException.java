@@ -0,0 +1,16 @@
+package com.coolSchool.coolSchool.exceptions.AI;
+
+import com.coolSchool.coolSchool.exceptions.common.TooManyRequestsException;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+/**
+ * It indicates that the maximum number of AI text streams is running,
+ * so the request is rejected at once instead of waiting for a stream to end.
+ * Sets the appropriate message using MessageSource (the messages are in src/main/resources/messages).
+ */
+public class AIStreamingBusyException extends TooManyRequestsException {
+    public AIStreamingBusyException(MessageSource messageSource) {
+        super(messageSource.getMessage("ai.streaming.busy", null, LocaleContextHolder.getLocale()));
+    }
+}
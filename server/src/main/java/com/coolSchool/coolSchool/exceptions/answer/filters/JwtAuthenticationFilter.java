@@ -1,16 +1,19 @@
 package com.coolSchool.coolSchool.exceptions.answer.filters;
 
-import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
-import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.mappers.UserMapper;
+import com.coolSchool.coolSchool.models.entity.User;
+import com.coolSchool.coolSchool.security.PrincipalCache;
 import com.coolSchool.coolSchool.services.JwtService;
+import com.coolSchool.coolSchool.services.TokenService;
 import com.coolSchool.coolSchool.services.UserService;
 import com.coolSchool.coolSchool.utils.CookieHelper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,8 +39,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     public static final String userKey = "user";
     private final JwtService jwtService;
     private final UserService userService;
-    private final ModelMapper modelMapper;
-    private final TokenRepository tokenRepository;
+    private final UserMapper userMapper;
+    private final TokenService tokenService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -62,17 +66,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String userEmail = jwtService.extractUsername(jwt);
+        // Parse and verify the token only once per request
+        final Claims claims;
+        try {
+            claims = jwtService.verifyToken(jwt);
+        } catch (JwtException e) {
+            // Expired or tampered token - continue as an anonymous user
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.findByEmail(userEmail);
+            // Loaded and mapped only when the user is not in the principal cache
+            PrincipalCache.AuthenticatedPrincipal principal = principalCache.get(userEmail, email -> {
+                User user = userService.findByEmail(email);
+                return PrincipalCache.AuthenticatedPrincipal.of(user, userMapper.toPublicUserDTO(user));
+            });
+            UserDetails userDetails = principal.user();
 
-            // Check if token is valid and not revoked or expired
-            boolean isTokenValid = tokenRepository.findByToken(jwt)
-                    .map(t -> !t.isExpired() && !t.isRevoked())
-                    .orElse(false);
+            // Check if token is not revoked, answered from memory
+            boolean isTokenValid = tokenService.isTokenActive(jwt, claims, principal.user().tokenVersion());
 
-            if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
+            if (jwtService.isTokenValid(claims, userDetails) && isTokenValid) {
 
                 // Set user authentication in security context
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -89,7 +106,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             // Set user details in request attribute
-            request.setAttribute(userKey, modelMapper.map(userDetails, PublicUserDTO.class));
+            request.setAttribute(userKey, principal.publicUser());
         }
 
         filterChain.doFilter(request, response);
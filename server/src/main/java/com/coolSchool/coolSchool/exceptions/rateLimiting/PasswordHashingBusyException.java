@@ -0,0 +1,16 @@
+package com.coolSchool.coolSchool.exceptions.rateLimiting;
+
+import com.coolSchool.coolSchool.exceptions.common.TooManyRequestsException;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+/**
+ * It indicates that all password hashing threads are busy and their queue is full (e.g. a login storm),
+ * so the request is rejected at once instead of waiting.
+ * Sets the appropriate message using MessageSource (the messages are in src/main/resources/messages).
+ */
+public class PasswordHashingBusyException extends TooManyRequestsException {
+    public PasswordHashingBusyException(MessageSource messageSource) {
+        super(messageSource.getMessage("password.hashing.busy", null, LocaleContextHolder.getLocale()));
+    }
+}
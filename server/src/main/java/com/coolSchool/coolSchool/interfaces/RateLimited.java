@@ -7,8 +7,23 @@ import java.lang.annotation.Target;
 
 /**
  * Annotation used to mark methods that are rate-limited.
+ * Every user (or IP address) gets its own bucket of {@link #limit()} requests per {@link #periodSeconds()}
+ * for each annotated method. See RateLimitAspect.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RateLimited {
+    // Requests allowed at once, the bucket refills completely within the period
+    int limit() default 10;
+
+    int periodSeconds() default 60;
+
+    Scope scope() default Scope.USER;
+
+    enum Scope {
+        // Per authenticated user, anonymous requests are limited per IP address
+        USER,
+        // Per IP address, also for authenticated users
+        IP
+    }
 }
@@ -0,0 +1,292 @@
+package com.coolSchool.coolSchool.mail;
+
+import com.coolSchool.coolSchool.enums.EmailStatus;
+import com.coolSchool.coolSchool.models.entity.OutboxEmail;
+import com.coolSchool.coolSchool.repositories.OutboxEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the emails of the outbox table.
+ * <p>
+ * A worker claims a batch of due emails with SELECT ... FOR UPDATE SKIP LOCKED and moves their next attempt
+ * past a lease, so other workers and application instances skip them while they are sent.
+ * The batch is sent with one JavaMailSender call, which sends all messages over a single SMTP connection.
+ * Sent emails are marked with one UPDATE; failed ones are retried with an exponential backoff
+ * and marked FAILED after max-attempts. An email of a worker that died is sent again when the lease ends.
+ * <p>
+ * Workers are started by EmailServiceImpl after a commit and by the poll, never more than the configured number.
+ */
+@Slf4j
+@Component
+public class EmailOutboxWorker implements DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public EmailOutboxWorker(OutboxEmailRepository outboxEmailRepository,
+                             JavaMailSender mailSender,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${email.outbox.workers:2}") int workers,
+                             @Value("${email.outbox.batch-size:50}") int batchSize,
+                             @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${email.outbox.initial-backoff:30s}") Duration initialBackoff,
+                             @Value("${email.outbox.max-backoff:1h}") Duration maxBackoff,
+                             @Value("${email.outbox.lease:5m}") Duration lease,
+                             @Value("${email.outbox.retention:7d}") Duration retention) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.retention = retention;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sentCounter = Counter.builder("email.outbox.sent")
+                .description("Emails delivered to the SMTP server")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("email.outbox.retried")
+                .description("Failed deliveries scheduled for another attempt")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed")
+                .description("Emails given up after the last attempt")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("email.outbox.batch")
+                .description("Duration of the delivery of a batch of emails")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Picks up the retries and the emails missed by a wake-up (e.g. written while all workers were finishing).
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-delay-ms:10000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Starts a worker unless all of them are running already. Returns immediately.
+     */
+    public void wakeUp() {
+        int active;
+        do {
+            active = activeWorkers.get();
+            if (active >= workers) {
+                return;
+            }
+        } while (!activeWorkers.compareAndSet(active, active + 1));
+
+        try {
+            executor.execute(() -> {
+                try {
+                    deliverAll();
+                } finally {
+                    activeWorkers.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the emails stay in the outbox
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    private void deliverAll() {
+        try {
+            while (deliverNextBatch() == batchSize && !Thread.currentThread().isInterrupted()) {
+                // Continue with the next batch
+            }
+        } catch (RuntimeException e) {
+            // The database is not available, the next poll tries again
+            log.warn("Delivery of the email outbox failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims and sends one batch of due emails. Returns the number of claimed emails.
+     */
+    public int deliverNextBatch() {
+        List<OutboxEmail> emails = claimBatch();
+        if (emails.isEmpty()) {
+            return 0;
+        }
+
+        batchTimer.record(() -> {
+            Map<OutboxEmail, Exception> failures = send(emails);
+            complete(emails, failures);
+        });
+        return emails.size();
+    }
+
+    private List<OutboxEmail> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> emails = transactionTemplate.execute(status -> {
+            List<OutboxEmail> due = outboxEmailRepository.findDueForUpdate(now, batchSize);
+            due.forEach(email -> email.setNextAttemptAt(now.plus(lease)));
+            return outboxEmailRepository.saveAll(due);
+        });
+        return emails == null ? Collections.emptyList() : emails;
+    }
+
+    // Returns the emails which could not be delivered with the reason
+    private Map<OutboxEmail, Exception> send(List<OutboxEmail> emails) {
+        Map<OutboxEmail, Exception> failures = new IdentityHashMap<>();
+        // In the order of the batch, MimeMessage keeps the identity equals
+        Map<MimeMessage, OutboxEmail> emailsByMessage = new LinkedHashMap<>();
+        for (OutboxEmail email : emails) {
+            try {
+                emailsByMessage.put(createMessage(email), email);
+            } catch (MessagingException e) {
+                failures.put(email, e);
+            }
+        }
+        if (emailsByMessage.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(emailsByMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                // The connection failed, nothing was sent
+                emailsByMessage.values().forEach(email -> failures.put(email, e));
+            } else {
+                e.getFailedMessages().forEach((message, exception) -> {
+                    OutboxEmail email = emailsByMessage.get(message);
+                    if (email != null) {
+                        failures.put(email, exception);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            emailsByMessage.values().forEach(email -> failures.put(email, e));
+        }
+        return failures;
+    }
+
+    private MimeMessage createMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        return message;
+    }
+
+    private void complete(List<OutboxEmail> emails, Map<OutboxEmail, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(emails.size());
+        List<OutboxEmail> failed = new ArrayList<>(failures.size());
+        for (OutboxEmail email : emails) {
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                sentIds.add(email.getId());
+            } else {
+                scheduleRetry(email, failure, now);
+                failed.add(email);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxEmailRepository.markSent(sentIds, now);
+            }
+            if (!failed.isEmpty()) {
+                outboxEmailRepository.saveAll(failed);
+            }
+        });
+        sentCounter.increment(sentIds.size());
+    }
+
+    private void scheduleRetry(OutboxEmail email, Exception failure, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(String.valueOf(failure.getMessage())));
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            failedCounter.increment();
+            log.warn("Giving up the email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(), attempts, failure.getMessage());
+            return;
+        }
+
+        email.setNextAttemptAt(now.plus(backoff(attempts)));
+        retriedCounter.increment();
+    }
+
+    // initial-backoff doubled after every failed attempt, at most max-backoff
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void deleteSentEmails() {
+        int deleted = outboxEmailRepository.deleteSentBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} sent emails from the outbox", deleted);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
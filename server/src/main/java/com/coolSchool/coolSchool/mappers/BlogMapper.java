@@ -0,0 +1,14 @@
+package com.coolSchool.coolSchool.mappers;
+
+import com.coolSchool.coolSchool.models.dto.response.BlogResponseDTO;
+import com.coolSchool.coolSchool.models.entity.Blog;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class, uses = {UserMapper.class, CategoryMapper.class})
+public interface BlogMapper {
+
+    @Mapping(target = "owner", source = "ownerId")
+    @Mapping(target = "category", source = "categoryId")
+    BlogResponseDTO toResponseDTO(Blog blog);
+}
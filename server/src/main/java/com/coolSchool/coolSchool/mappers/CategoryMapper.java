@@ -0,0 +1,11 @@
+package com.coolSchool.coolSchool.mappers;
+
+import com.coolSchool.coolSchool.models.dto.common.CategoryDTO;
+import com.coolSchool.coolSchool.models.entity.Category;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface CategoryMapper {
+
+    CategoryDTO toCategoryDTO(Category category);
+}
@@ -0,0 +1,11 @@
+package com.coolSchool.coolSchool.mappers;
+
+import com.coolSchool.coolSchool.models.dto.response.CommentResponseDTO;
+import com.coolSchool.coolSchool.models.entity.Comment;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class, uses = {UserMapper.class, BlogMapper.class})
+public interface CommentMapper {
+
+    CommentResponseDTO toResponseDTO(Comment comment);
+}
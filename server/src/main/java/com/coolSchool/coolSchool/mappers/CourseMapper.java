@@ -0,0 +1,11 @@
+package com.coolSchool.coolSchool.mappers;
+
+import com.coolSchool.coolSchool.models.dto.response.CourseResponseDTO;
+import com.coolSchool.coolSchool.models.entity.Course;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class, uses = {UserMapper.class, CategoryMapper.class})
+public interface CourseMapper {
+
+    CourseResponseDTO toResponseDTO(Course course);
+}
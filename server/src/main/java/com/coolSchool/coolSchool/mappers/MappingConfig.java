@@ -0,0 +1,18 @@
+package com.coolSchool.coolSchool.mappers;
+
+import org.mapstruct.Builder;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+
+/**
+ * Settings shared by the mappers. MapStruct generates their implementations at compile time as plain getter and setter
+ * calls, so the entities are mapped to the response DTOs without the reflection and the matching of ModelMapper.
+ * The mappers are Spring beans, the mappers they use are passed to their constructor.
+ * The DTOs are filled through their setters, the Lombok builder of PublicUserDTO is not used.
+ */
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        builder = @Builder(disableBuilder = true))
+public interface MappingConfig {
+}
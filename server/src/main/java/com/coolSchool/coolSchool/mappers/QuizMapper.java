@@ -0,0 +1,26 @@
+package com.coolSchool.coolSchool.mappers;
+
+import com.coolSchool.coolSchool.models.dto.common.QuizAttemptDTO;
+import com.coolSchool.coolSchool.models.dto.common.QuizDTO;
+import com.coolSchool.coolSchool.models.dto.common.UserAnswerDTO;
+import com.coolSchool.coolSchool.models.entity.Quiz;
+import com.coolSchool.coolSchool.models.entity.QuizAttempt;
+import com.coolSchool.coolSchool.models.entity.UserAnswer;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface QuizMapper {
+
+    // The course is set by the callers which need it
+    @Mapping(target = "subsectionId", source = "subsection.id")
+    @Mapping(target = "courseId", ignore = true)
+    QuizDTO toQuizDTO(Quiz quiz);
+
+    QuizAttemptDTO toQuizAttemptDTO(QuizAttempt quizAttempt);
+
+    // The selected answer has never been part of the attempt returned by the API
+    @Mapping(target = "questionId", source = "question.id")
+    @Mapping(target = "selectedOptionId", ignore = true)
+    UserAnswerDTO toUserAnswerDTO(UserAnswer userAnswer);
+}
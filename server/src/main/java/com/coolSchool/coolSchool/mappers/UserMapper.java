@@ -0,0 +1,17 @@
+package com.coolSchool.coolSchool.mappers;
+
+import com.coolSchool.coolSchool.models.dto.auth.AdminUserDTO;
+import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
+import com.coolSchool.coolSchool.models.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Named;
+
+@Mapper(config = MappingConfig.class)
+public interface UserMapper {
+
+    PublicUserDTO toPublicUserDTO(User user);
+
+    // Named, so the other mappers do not pick it for their PublicUserDTO properties
+    @Named("toAdminUserDTO")
+    AdminUserDTO toAdminUserDTO(User user);
+}
@@ -5,21 +5,24 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 
 @Entity
 @Data
 @NoArgsConstructor
 @Table(name = "answers")
+@Filter(name = "deletedFilter")
 public class Answer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "answers")
+    @TableGenerator(name = "answers", table = "id_generators", pkColumnValue = "answers", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The text of the answer should not be null!")
     @NotBlank(message = "The text of the answer should not be blank!")
     private String text;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "question_id")
     @NotNull(message = "The question not be null!")
     private Question questionId;
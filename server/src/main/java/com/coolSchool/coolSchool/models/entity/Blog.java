@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -14,9 +15,17 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Table(name = "blogs")
+@Filter(name = "deletedFilter")
+// What BlogResponseDTO reads, the likers are batch fetched
+@NamedEntityGraph(name = "Blog.response", attributeNodes = {
+        @NamedAttributeNode("ownerId"),
+        @NamedAttributeNode("picture"),
+        @NamedAttributeNode("categoryId")
+})
 public class Blog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "blogs")
+    @TableGenerator(name = "blogs", table = "id_generators", pkColumnValue = "blogs", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The title of the blog should not be null!")
@@ -37,13 +46,13 @@ public class Blog {
     private LocalDateTime created_at;
     @ManyToMany
     private Set<User> liked_users;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "file_id")
     private File picture;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User ownerId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     @NotNull(message = "The category of the blog should not be null!")
     private Category categoryId;
@@ -51,4 +60,13 @@ public class Blog {
     private Integer commentCount;
     @Column(name = "is_deleted", nullable = false)
     private boolean deleted;
+    // When the row was soft-deleted, SoftDeleteArchiver moves it to the history table after archival.retention
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    @PreUpdate
+    void stampDeletedAt() {
+        deletedAt = deleted ? (deletedAt == null ? LocalDateTime.now() : deletedAt) : null;
+    }
 }
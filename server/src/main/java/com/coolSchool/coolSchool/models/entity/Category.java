@@ -4,14 +4,21 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 
 @Entity
 @Data
 @NoArgsConstructor
 @Table(name = "categories")
+@Filter(name = "deletedFilter")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "categories")
+    @TableGenerator(name = "categories", table = "id_generators", pkColumnValue = "categories", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(unique = true)
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -14,9 +15,20 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Table(name = "comments")
+@Filter(name = "deletedFilter", condition = "deleted = false")
+// What CommentResponseDTO reads, including the BlogResponseDTO of the blog
+@NamedEntityGraph(name = "Comment.response", attributeNodes = {
+        @NamedAttributeNode("ownerId"),
+        @NamedAttributeNode(value = "blogId", subgraph = "blog")
+}, subgraphs = @NamedSubgraph(name = "blog", attributeNodes = {
+        @NamedAttributeNode("ownerId"),
+        @NamedAttributeNode("picture"),
+        @NamedAttributeNode("categoryId")
+}))
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "comments")
+    @TableGenerator(name = "comments", table = "id_generators", pkColumnValue = "comments", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The content of the comment should not be null!")
@@ -25,14 +37,23 @@ public class Comment {
     private String comment;
     @Column(name = "created_at")
     private LocalDateTime created_at;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User ownerId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "blog_id")
     @NotNull(message = "The blog of the comment should not be null!")
     private Blog blogId;
     @ManyToMany
     private Set<User> liked_users;
     private boolean deleted;
+    // When the row was soft-deleted, SoftDeleteArchiver moves it to the history table after archival.retention
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    @PreUpdate
+    void stampDeletedAt() {
+        deletedAt = deleted ? (deletedAt == null ? LocalDateTime.now() : deletedAt) : null;
+    }
 }
@@ -5,6 +5,9 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 
@@ -12,9 +15,19 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Table(name = "courses")
+@Filter(name = "deletedFilter")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
+// What CourseResponseDTO reads
+@NamedEntityGraph(name = "Course.response", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("picture"),
+        @NamedAttributeNode("category")
+})
 public class Course {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "courses")
+    @TableGenerator(name = "courses", table = "id_generators", pkColumnValue = "courses", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The name of the course should not be null!")
@@ -28,14 +41,14 @@ public class Course {
     @Size(min = 150, message = "The eligibility must be at least 150 symbols!")
     @Column(columnDefinition = "MEDIUMTEXT")
     private String eligibility;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @NotNull(message = "The trainer of the course should not be null!")
     private User user;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "file_id")
     private File picture;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     @NotNull(message = "The category of the class should not be null!")
     private Category category;
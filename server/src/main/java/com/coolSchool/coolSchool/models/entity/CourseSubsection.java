@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
 
 import java.util.Set;
 
@@ -11,9 +14,13 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Table(name = "course_subsections")
+@Filter(name = "deletedFilter")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course_subsections")
 public class CourseSubsection {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "course_subsections")
+    @TableGenerator(name = "course_subsections", table = "id_generators", pkColumnValue = "course_subsections", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The title of the courseSubsection should not be null!")
@@ -22,7 +29,7 @@ public class CourseSubsection {
     private String description;
     @OneToMany
     private Set<Resource> resources;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     @NotNull(message = "The course of the courseSubsection should not be null!")
     private Course course;
@@ -5,13 +5,16 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Data
 @NoArgsConstructor
 @Table(name = "files")
 public class File {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "files")
+    @TableGenerator(name = "files", table = "id_generators", pkColumnValue = "files", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The name of the file should not be null!")
@@ -22,4 +25,6 @@ public class File {
     private String type;
     @Column(name = "is_deleted", nullable = false)
     private boolean deleted;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
 }
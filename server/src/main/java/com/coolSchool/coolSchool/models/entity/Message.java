@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDateTime;
 
@@ -12,16 +13,18 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Table(name = "messages")
+@Filter(name = "deletedFilter")
 public class Message {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "messages")
+    @TableGenerator(name = "messages", table = "id_generators", pkColumnValue = "messages", allocationSize = 50)
     @Column(name = "id")
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @NotNull(message = "The sender of the quiz should not be null!")
     private User sender;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receiver_id")
     @NotNull(message = "The receiver of the quiz should not be null!")
     private User receiver;
@@ -32,4 +35,13 @@ public class Message {
     private String content;
     @Column(name = "is_deleted", nullable = false)
     private boolean deleted;
+    // When the row was soft-deleted, SoftDeleteArchiver moves it to the history table after archival.retention
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    @PreUpdate
+    void stampDeletedAt() {
+        deletedAt = deleted ? (deletedAt == null ? LocalDateTime.now() : deletedAt) : null;
+    }
 }
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 
@@ -12,9 +13,11 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @Table(name = "questions")
+@Filter(name = "deletedFilter")
 public class Question {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "questions")
+    @TableGenerator(name = "questions", table = "id_generators", pkColumnValue = "questions", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The marks of the question should not be null!")
@@ -22,7 +25,7 @@ public class Question {
     @NotBlank(message = "The description of the question should not be blank!")
     @NotNull(message = "The description of the question should not be null!")
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quiz_id")
     @NotNull(message = "The quiz of the question should not be null!")
     private Quiz quiz;
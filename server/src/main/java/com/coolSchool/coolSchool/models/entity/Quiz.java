@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,9 +16,11 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Table(name = "quizzes")
+@Filter(name = "deletedFilter")
 public class Quiz {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "quizzes")
+    @TableGenerator(name = "quizzes", table = "id_generators", pkColumnValue = "quizzes", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -32,7 +35,7 @@ public class Quiz {
 
     private LocalDateTime endTime;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subsection_id")
     @NotNull(message = "The subsection of the quiz should not be null!")
     private CourseSubsection subsection;
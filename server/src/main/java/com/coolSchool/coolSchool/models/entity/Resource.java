@@ -4,23 +4,28 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 @Entity
 @Data
 @NoArgsConstructor
 @Table(name = "resources")
+@Filter(name = "deletedFilter")
+// What the subsection archive and the JSON of the resources read after the persistence context is gone
+@NamedEntityGraph(name = "Resource.file", attributeNodes = @NamedAttributeNode("file"))
 public class Resource {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "resources")
+    @TableGenerator(name = "resources", table = "id_generators", pkColumnValue = "resources", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @NotNull(message = "The name of the resource should not be null!")
     private String name;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "file_id")
     @NotNull(message = "The file of the resource should not be null!")
     private File file;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subsection_id")
     @NotNull(message = "The subsection of the resource should not be null!")
     private CourseSubsection subsection;
@@ -4,21 +4,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Data
 @NoArgsConstructor
 @Table(name = "reviews")
+@Filter(name = "deletedFilter")
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reviews")
+    @TableGenerator(name = "reviews", table = "id_generators", pkColumnValue = "reviews", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @NotNull(message = "The user of the review should not be null!")
     private User user;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     @NotNull(message = "The course of the review should not be null!")
     private Course course;
@@ -31,4 +36,13 @@ public class Review {
     private String text;
     @Column(name = "is_deleted", nullable = false)
     private boolean deleted;
+    // When the row was soft-deleted, SoftDeleteArchiver moves it to the history table after archival.retention
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    @PreUpdate
+    void stampDeletedAt() {
+        deletedAt = deleted ? (deletedAt == null ? LocalDateTime.now() : deletedAt) : null;
+    }
 }
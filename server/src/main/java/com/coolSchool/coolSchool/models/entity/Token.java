@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,11 +17,16 @@ import lombok.NoArgsConstructor;
 @Table(name = "tokens")
 public class Token {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "tokens")
+    @TableGenerator(name = "tokens", table = "id_generators", pkColumnValue = "tokens", allocationSize = 50)
     public Long id;
 
-    @Column(unique = true)
-    public String token;
+    // SHA-256 of the JWT (see TokenDigest), the token itself is not stored
+    @Column(name = "token_hash", nullable = false, length = 64)
+    public String tokenHash;
+
+    @Column(name = "expires_at", nullable = false)
+    public LocalDateTime expiresAt;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "token_type", nullable = false)
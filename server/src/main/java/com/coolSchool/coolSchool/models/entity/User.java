@@ -9,7 +9,9 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -26,7 +28,8 @@ import java.util.Collection;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "_users")
+    @TableGenerator(name = "_users", table = "id_generators", pkColumnValue = "_users", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "The name should not be null!")
@@ -57,8 +60,11 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
-    @ManyToOne
+    // Left out of equals and hashCode, so hashing a user (e.g. in the likers of a blog) does not load the picture
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "file_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private File profilePic;
 
     @NotNull
@@ -74,6 +80,10 @@ public class User implements UserDetails {
     private boolean enabled;
     private LocalDateTime createdAt;
 
+    // Embedded in the issued JWTs, incrementing it revokes all tokens of the user (revocation-mode: version)
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return role.getAuthorities();
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
 
 import java.math.BigDecimal;
 
@@ -11,16 +12,18 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @Table(name = "users_courses")
+@Filter(name = "deletedFilter")
 public class UserCourse {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_courses")
+    @TableGenerator(name = "users_courses", table = "id_generators", pkColumnValue = "users_courses", allocationSize = 50)
     @Column(name = "id")
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @NotNull(message = "The user of the userCourse should not be null!")
     private User user;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     @NotNull(message = "The user of the course should not be null!")
     private Course course;
@@ -0,0 +1,8 @@
+/**
+ * The soft-deleted rows are hidden from every query of the entities annotated with @Filter(name = "deletedFilter"),
+ * it is enabled on every EntityManager by SoftDeleteFilterConfig. Loads by id (find, lazy associations) are not filtered.
+ */
+@FilterDef(name = "deletedFilter", defaultCondition = "is_deleted = false")
+package com.coolSchool.coolSchool.models.entity;
+
+import org.hibernate.annotations.FilterDef;
@@ -1,36 +1,66 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.Blog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 
 @Repository
 public interface BlogRepository extends JpaRepository<Blog, Long> {
+    // The columns copied to blogs_history, which adds archived_at
+    String ARCHIVED_COLUMNS = "id, title, content, summary, created_at, file_id, user_id, category_id, is_deleted, is_enabled, comment_count, deleted_at";
+
+    // The owner, picture and category of the blogs returned by the API are read with them (see Blog.response)
+    @Override
+    @EntityGraph("Blog.response")
+    List<Blog> findAll();
+
+    // A query rather than EntityManager.find, which loads the blog and each association of the graph on its own
+    @Override
+    @EntityGraph("Blog.response")
+    @Query("SELECT b FROM Blog b WHERE b.id = :id")
+    Optional<Blog> findById(@Param("id") Long id);
+
+    @EntityGraph("Blog.response")
+    Optional<Blog> findByIdAndDeletedFalse(Long id);
+
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b WHERE b.deleted = false AND b.isEnabled = true")
     List<Blog> findByDeletedFalseAndIsEnabledTrue();
 
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b WHERE b.id = :id AND b.deleted = false AND b.isEnabled = true")
     Optional<Blog> findByIdAndDeletedFalseIsEnabledTrue(Long id);
 
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b WHERE b.deleted = false AND b.isEnabled = true ORDER BY b.created_at DESC")
     List<Blog> findAllByNewestFirst();
 
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b WHERE b.deleted = false AND b.isEnabled = true ORDER BY SIZE(b.liked_users) DESC LIMIT 3")
     List<Blog> findAllByMostLiked();
 
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b WHERE LOWER(b.title) LIKE %:keyword% AND b.deleted = false AND b.isEnabled = true")
     List<Blog> searchByTitleContainingIgnoreCase(@Param("keyword") String keyword);
 
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b JOIN b.categoryId c " +
             "WHERE c.name LIKE %:categoryName% " + "AND b.deleted = false AND b.isEnabled = true")
     List<Blog> findByCategoryIdName(String categoryName);
 
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b " +
             "JOIN b.categoryId c " +
             "WHERE lower(b.title) like lower(concat('%', :titleKeyword, '%')) " +
@@ -39,6 +69,7 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
             "AND b.isEnabled = true")
     List<Blog> searchBlogsByKeywordInTitleAndCategory(String titleKeyword, String categoryKeyword);
 
+    @EntityGraph("Blog.response")
     @Query("SELECT b FROM Blog b " +
             "JOIN b.categoryId c " +
             "WHERE lower(b.title) like lower(concat('%', :titleKeyword, '%')) " +
@@ -46,4 +77,39 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
             "AND b.deleted = false " +
             "AND b.isEnabled = true")
     List<Blog> searchBlogsByKeywordInTitleOrCategory(String titleKeyword, String categoryKeyword);
-}
\ No newline at end of file
+
+    /**
+     * Text of the enabled blogs with an id greater than afterId, ordered by id, for the category classifier.
+     */
+    @Query("SELECT b.id AS id, b.categoryId.id AS categoryId, b.content AS content FROM Blog b " +
+            "WHERE b.id > :afterId AND b.deleted = false AND b.isEnabled = true ORDER BY b.id")
+    List<BlogText> findNextEnabledTextBatch(@Param("afterId") long afterId, Pageable pageable);
+
+    interface BlogText {
+        Long getId();
+
+        Long getCategoryId();
+
+        String getContent();
+    }
+
+    // Rows soft-deleted before the threshold, in id order, for SoftDeleteArchiver. Native, so the deleted filter does not apply
+    @Query(value = "SELECT id FROM blogs WHERE is_deleted = TRUE AND deleted_at < :threshold AND id > :afterId ORDER BY id", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("threshold") LocalDateTime threshold, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO blogs_history (" + ARCHIVED_COLUMNS + ", archived_at) " +
+            "SELECT " + ARCHIVED_COLUMNS + ", CURRENT_TIMESTAMP FROM blogs WHERE id IN (:ids)", nativeQuery = true)
+    int copyToHistory(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM blogs WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM blogs_liked_users WHERE blog_id IN (:ids)", nativeQuery = true)
+    int deleteLikesByIds(@Param("ids") Collection<Long> ids);
+}
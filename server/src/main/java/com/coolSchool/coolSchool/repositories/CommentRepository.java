@@ -1,26 +1,78 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    // The columns copied to comments_history, which adds archived_at
+    String ARCHIVED_COLUMNS = "id, comment, created_at, user_id, blog_id, deleted, deleted_at";
+
+    @EntityGraph("Comment.response")
     List<Comment> findByDeletedFalse();
 
+    @EntityGraph("Comment.response")
     @Query("SELECT c FROM Comment c WHERE c.blogId.id = :id AND c.deleted = false ORDER BY c.created_at DESC")
     List<Comment> findCommentsByBlogAndNotDeleted(Long id);
 
+    @EntityGraph("Comment.response")
     Optional<Comment> findByIdAndDeletedFalse(Long id);
 
 
+    @EntityGraph("Comment.response")
     @Query("SELECT b FROM Comment b WHERE b.deleted = false ORDER BY b.created_at DESC")
     List<Comment> findAllByNewestFirst();
 
+    @EntityGraph("Comment.response")
     @Query("SELECT b FROM Comment b WHERE b.deleted = false ORDER BY SIZE(b.liked_users) DESC")
     List<Comment> findAllByMostLiked();
+
+    // Rows soft-deleted before the threshold, in id order, for SoftDeleteArchiver. Native, so the deleted filter does not apply
+    @Query(value = "SELECT id FROM comments WHERE deleted = TRUE AND deleted_at < :threshold AND id > :afterId ORDER BY id", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("threshold") LocalDateTime threshold, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO comments_history (" + ARCHIVED_COLUMNS + ", archived_at) " +
+            "SELECT " + ARCHIVED_COLUMNS + ", CURRENT_TIMESTAMP FROM comments WHERE id IN (:ids)", nativeQuery = true)
+    int copyToHistory(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM comments_liked_users WHERE comment_id IN (:ids)", nativeQuery = true)
+    int deleteLikesByIds(@Param("ids") Collection<Long> ids);
+
+    // The comments of archived blogs go with them, deleted or not
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO comments_history (" + ARCHIVED_COLUMNS + ", archived_at) " +
+            "SELECT " + ARCHIVED_COLUMNS + ", CURRENT_TIMESTAMP FROM comments WHERE blog_id IN (:blogIds)", nativeQuery = true)
+    int copyToHistoryByBlogIds(@Param("blogIds") Collection<Long> blogIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM comments_liked_users WHERE comment_id IN (SELECT id FROM comments WHERE blog_id IN (:blogIds))", nativeQuery = true)
+    int deleteLikesByBlogIds(@Param("blogIds") Collection<Long> blogIds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE blog_id IN (:blogIds)", nativeQuery = true)
+    int deleteByBlogIds(@Param("blogIds") Collection<Long> blogIds);
 }
@@ -1,7 +1,10 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.CourseSubsection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,10 +12,13 @@ import java.util.Optional;
 
 @Repository
 public interface CourseSubsectionRepository extends JpaRepository<CourseSubsection, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CourseSubsection> findByDeletedFalse();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CourseSubsection> findAllByCourseIdAndDeletedFalse(Long id);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<CourseSubsection> findByIdAndDeletedFalse(Long id);
 
 }
@@ -1,10 +1,45 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.File;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface FileRepository extends JpaRepository<File, Long> {
     Optional<File> findByIdAndDeletedFalse(Long id);
+
+    // Keyset pagination - the next files after the given id, so we never load the whole table
+    @Query("SELECT f FROM File f WHERE f.id > :afterId ORDER BY f.id")
+    List<File> findNextBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Files are used by blogs, courses, resources and users (their pictures). Soft-deleted rows count, they may be
+    // restored, and so do the archived blogs of blogs_history
+    String NOT_USED_BY_ANY_ROW = " AND NOT EXISTS (SELECT 1 FROM blogs b WHERE b.file_id = files.id)" +
+            " AND NOT EXISTS (SELECT 1 FROM blogs_history bh WHERE bh.file_id = files.id)" +
+            " AND NOT EXISTS (SELECT 1 FROM courses c WHERE c.file_id = files.id)" +
+            " AND NOT EXISTS (SELECT 1 FROM resources r WHERE r.file_id = files.id)" +
+            " AND NOT EXISTS (SELECT 1 FROM _users u WHERE u.file_id = files.id)";
+
+    // The given files which no row points to
+    @Query(value = "SELECT files.id FROM files WHERE files.id IN (:ids)" + NOT_USED_BY_ANY_ROW, nativeQuery = true)
+    List<Long> findUnusedIds(@Param("ids") Collection<Long> ids);
+
+    // Checks the references again in the same statement, a file that got used in the meantime is kept
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM files WHERE files.id IN (:ids)" + NOT_USED_BY_ANY_ROW, nativeQuery = true)
+    int deleteUnused(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT f.id FROM File f WHERE f.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT f.url FROM File f WHERE f.url IN :urls")
+    List<String> findExistingUrls(@Param("urls") Collection<String> urls);
 }
@@ -1,15 +1,40 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
+    // The columns copied to messages_history, which adds archived_at
+    String ARCHIVED_COLUMNS = "id, user_id, receiver_id, sent_at, content, is_deleted, deleted_at";
+
     List<Message> findByDeletedFalse();
 
     Optional<Message> findByIdAndDeletedFalse(Long id);
+
+    // Rows soft-deleted before the threshold, in id order, for SoftDeleteArchiver. Native, so the deleted filter does not apply
+    @Query(value = "SELECT id FROM messages WHERE is_deleted = TRUE AND deleted_at < :threshold AND id > :afterId ORDER BY id", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("threshold") LocalDateTime threshold, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO messages_history (" + ARCHIVED_COLUMNS + ", archived_at) " +
+            "SELECT " + ARCHIVED_COLUMNS + ", CURRENT_TIMESTAMP FROM messages WHERE id IN (:ids)", nativeQuery = true)
+    int copyToHistory(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM messages WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
 }
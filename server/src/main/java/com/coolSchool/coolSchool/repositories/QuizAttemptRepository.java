@@ -3,6 +3,7 @@ package com.coolSchool.coolSchool.repositories;
 import com.coolSchool.coolSchool.models.entity.Quiz;
 import com.coolSchool.coolSchool.models.entity.QuizAttempt;
 import com.coolSchool.coolSchool.models.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -10,11 +11,15 @@ import java.util.List;
 public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
     int countByUserAndQuiz(User user, Quiz quiz);
 
+    // QuizAttemptTimer reads the duration of the quiz outside of a request
+    @EntityGraph(attributePaths = "quiz")
     List<QuizAttempt> findByCompletedFalse();
 
     List<QuizAttempt> findByIdAndCompletedFalse(Long id);
 
+    @EntityGraph(attributePaths = "quiz")
     List<QuizAttempt> findByQuizIdAndUserId(Long quizId, Long userId);
 
+    @EntityGraph(attributePaths = "quiz")
     List<QuizAttempt> findByUserId(Long userId);
 }
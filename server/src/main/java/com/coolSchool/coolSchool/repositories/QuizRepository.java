@@ -1,6 +1,7 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.Quiz;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,9 +10,12 @@ import java.util.Optional;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
+    @EntityGraph(attributePaths = "subsection")
     List<Quiz> findByDeletedFalse();
 
+    @EntityGraph(attributePaths = "subsection")
     Optional<Quiz> findByIdAndDeletedFalse(Long id);
 
+    @EntityGraph(attributePaths = "subsection")
     List<Quiz> findBySubsectionIdAndDeletedFalse(Long id);
 }
@@ -1,6 +1,7 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.Resource;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,9 +10,14 @@ import java.util.Optional;
 
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
+    // Jackson writes the file of a ResourceResponseDTO after the transaction, so it is read with the resource
+    @EntityGraph("Resource.file")
     List<Resource> findByDeletedFalse();
 
+    // The archive of a subsection is written on another thread, so the files are read with the resources
+    @EntityGraph("Resource.file")
     List<Resource> findAllBySubsectionIdAndDeletedFalse(Long id);
 
+    @EntityGraph("Resource.file")
     Optional<Resource> findByIdAndDeletedFalse(Long id);
 }
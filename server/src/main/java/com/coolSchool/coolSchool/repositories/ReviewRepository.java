@@ -2,20 +2,43 @@ package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.Course;
 import com.coolSchool.coolSchool.models.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    // The columns copied to reviews_history, which adds archived_at
+    String ARCHIVED_COLUMNS = "id, user_id, course_id, stars, text, is_deleted, deleted_at";
+
     List<Review> findByDeletedFalse();
 
     Optional<Review> findByIdAndDeletedFalse(Long id);
 
     @Query("SELECT r FROM Review r WHERE r.course = :course AND r.deleted = false ORDER BY r.id DESC LIMIT 5")
     List<Review> findAllByCourse(@Param("course") Course course);
+
+    // Rows soft-deleted before the threshold, in id order, for SoftDeleteArchiver. Native, so the deleted filter does not apply
+    @Query(value = "SELECT id FROM reviews WHERE is_deleted = TRUE AND deleted_at < :threshold AND id > :afterId ORDER BY id", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("threshold") LocalDateTime threshold, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO reviews_history (" + ARCHIVED_COLUMNS + ", archived_at) " +
+            "SELECT " + ARCHIVED_COLUMNS + ", CURRENT_TIMESTAMP FROM reviews WHERE id IN (:ids)", nativeQuery = true)
+    int copyToHistory(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM reviews WHERE id IN (:ids)", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
 }
@@ -2,13 +2,66 @@ package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.Token;
 import com.coolSchool.coolSchool.models.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
     List<Token> findAllByUser(User user);
 
-    Optional<Token> findByToken(String token);
+    Optional<Token> findByTokenHash(String tokenHash);
+
+    // The tokens with their users in one round trip, used by /me and refresh-token
+    @Query("SELECT t FROM Token t JOIN FETCH t.user WHERE t.tokenHash IN :tokenHashes")
+    List<Token> findAllWithUserByTokenHashIn(@Param("tokenHashes") Collection<String> tokenHashes);
+
+    // Keyset pagination over the tokens, used to build the in-memory token index
+    @Query("SELECT t.id AS id, t.tokenHash AS tokenHash, t.expiresAt AS expiresAt FROM Token t " +
+            "WHERE t.id > :afterId AND t.revoked = false AND t.expired = false AND t.expiresAt > :now ORDER BY t.id")
+    List<TokenView> findNextActiveBatch(@Param("afterId") Long afterId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // The live tokens of the user except one, read before they are revoked in bulk
+    @Query("SELECT t.id AS id, t.tokenHash AS tokenHash, t.expiresAt AS expiresAt FROM Token t " +
+            "WHERE t.user.id = :userId AND t.id <> :keptId AND t.expiresAt > :now")
+    List<TokenView> findLiveOfUserExcept(@Param("userId") Long userId, @Param("keptId") Long keptId, @Param("now") LocalDateTime now);
+
+    // Keyset pagination over (expires_at, id), read in the order of idx_tokens_expires_at
+    @Query("SELECT t.id AS id, t.tokenHash AS tokenHash, t.expiresAt AS expiresAt FROM Token t " +
+            "WHERE t.expiresAt < :now AND (t.expiresAt > :afterExpiresAt OR (t.expiresAt = :afterExpiresAt AND t.id > :afterId)) " +
+            "ORDER BY t.expiresAt, t.id")
+    List<TokenView> findNextExpiredBatch(@Param("now") LocalDateTime now,
+                                         @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.id IN :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.user.id IN :userIds")
+    int deleteAllByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Token t WHERE t.user.id = :userId AND t.id <> :keptId")
+    int deleteAllOfUserExcept(@Param("userId") Long userId, @Param("keptId") Long keptId);
+
+    interface TokenView {
+        Long getId();
+
+        String getTokenHash();
+
+        LocalDateTime getExpiresAt();
+    }
 }
@@ -0,0 +1,44 @@
+package com.coolSchool.coolSchool.repositories;
+
+import com.coolSchool.coolSchool.models.entity.TokenRevocation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    // Revocations written since the given time (by any application instance), by id after the given one
+    @Query("SELECT r FROM TokenRevocation r WHERE r.createdAt >= :since AND r.id > :afterId ORDER BY r.id")
+    List<TokenRevocation> findNextBatch(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Null when there are no revocations
+    @Query("SELECT MAX(r.createdAt) FROM TokenRevocation r")
+    LocalDateTime findLastCreatedAt();
+
+    // Publishes the revocation of the user's tokens without reading them first
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO token_revocations (token_digest, expires_at) " +
+            "SELECT token_hash, expires_at FROM tokens WHERE user_id = :userId AND id <> :keptId AND expires_at > :now",
+            nativeQuery = true)
+    int insertForTokensOfUserExcept(@Param("userId") Long userId, @Param("keptId") Long keptId, @Param("now") LocalDateTime now);
+
+    // Publishes the revocation of the tokens of the users, e.g. before they are deleted in bulk
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO token_revocations (token_digest, expires_at) " +
+            "SELECT token_hash, expires_at FROM tokens WHERE user_id IN (:userIds) AND expires_at > :now",
+            nativeQuery = true)
+    int insertForTokensOfUsers(@Param("userIds") Collection<Long> userIds, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,10 +1,16 @@
 package com.coolSchool.coolSchool.repositories;
 
 import com.coolSchool.coolSchool.models.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,5 +21,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByIdAndDeletedFalse(Long id);
 
-    List<User> findByEnabledFalseAndCreatedAtBefore(LocalDateTime thresholdDateTime);
+    // Keyset pagination over the unconfirmed users, used by UserCleanupScheduler
+    @Query("SELECT u.id FROM User u WHERE u.enabled = false AND u.createdAt < :threshold AND u.id > :afterId ORDER BY u.id")
+    List<Long> findUnconfirmedIds(@Param("threshold") LocalDateTime threshold, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Users who confirmed their email in the meantime are kept
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids AND u.enabled = false")
+    int deleteUnconfirmedByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
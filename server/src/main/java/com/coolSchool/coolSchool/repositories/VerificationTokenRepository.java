@@ -3,9 +3,12 @@ package com.coolSchool.coolSchool.repositories;
 import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.models.entity.VerificationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Collection;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Long> {
 
@@ -13,6 +16,8 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
 
     VerificationToken findByUser(User user);
 
-    List<VerificationToken> findByUserAndCreatedAtBefore(User user, LocalDateTime thresholdDateTime);
-
-}
\ No newline at end of file
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM VerificationToken v WHERE v.user.id IN :userIds")
+    int deleteAllByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,229 @@
+package com.coolSchool.coolSchool.security;
+
+import com.coolSchool.coolSchool.enums.TokenRevocationMode;
+import com.coolSchool.coolSchool.models.entity.Token;
+import com.coolSchool.coolSchool.models.entity.TokenRevocation;
+import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.repositories.TokenRevocationRepository;
+import com.coolSchool.coolSchool.utils.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the tokens table, so authenticating a request needs no database round trip.
+ * Tokens are identified by the SHA-256 digest of the JWT (the token_hash column) and kept until they expire.
+ * <p>
+ * The index is an allow-list loaded at startup and updated by TokenServiceImpl when tokens are saved or revoked.
+ * A token this instance has not seen (issued by another instance) is looked up in the database once.
+ * Revocations are written to the token_revocations change log which every instance polls,
+ * so a token revoked on one instance is rejected by the others within the poll delay.
+ * A revocation whose transaction commits late becomes visible after rows with higher ids, so every poll
+ * re-reads the revocations of a trailing window (revocation-window-ms) and skips the ones already applied.
+ * With revocation-mode version the index is not used and stays empty.
+ */
+@Slf4j
+@Component
+public class ActiveTokenIndex {
+
+    private static final int BATCH_SIZE = 500;
+    // Before any revocation
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final TokenRepository tokenRepository;
+    private final TokenRevocationRepository tokenRevocationRepository;
+    // digest -> expiration of the token in epoch milliseconds
+    private final Map<String, Long> activeTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // id -> creation time of the revocations of the window which are already applied, used by the poll only
+    private final Map<Long, LocalDateTime> appliedRevocations = new HashMap<>();
+    private final Timer lookupTimer;
+    private final boolean loadOnStartup;
+    private final boolean enabled;
+    private final Duration revocationWindow;
+    // Creation time of the newest revocation read, by the clock of the database
+    private LocalDateTime lastRevocationAt;
+
+    public ActiveTokenIndex(TokenRepository tokenRepository,
+                            TokenRevocationRepository tokenRevocationRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.security.jwt.token-index.load-on-startup:true}") boolean loadOnStartup,
+                            @Value("${spring.security.jwt.revocation-mode:table}") TokenRevocationMode revocationMode,
+                            @Value("${spring.security.jwt.token-index.revocation-window-ms:60000}") long revocationWindowMs) {
+        this.tokenRepository = tokenRepository;
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.loadOnStartup = loadOnStartup;
+        this.enabled = revocationMode == TokenRevocationMode.TABLE;
+        this.revocationWindow = Duration.ofMillis(revocationWindowMs);
+        this.lookupTimer = Timer.builder("tokens.lookup")
+                .description("Lookups of tokens unknown to this instance in the tokens table")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        lastRevocationAt = tokenRevocationRepository.findLastCreatedAt();
+        if (!loadOnStartup) {
+            return;
+        }
+
+        long lastId = 0;
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRepository.TokenView> tokens;
+        do {
+            tokens = tokenRepository.findNextActiveBatch(lastId, now, PageRequest.of(0, BATCH_SIZE));
+            for (TokenRepository.TokenView token : tokens) {
+                activeTokens.put(token.getTokenHash(), toEpochMilli(token.getExpiresAt()));
+                lastId = token.getId();
+            }
+        } while (tokens.size() == BATCH_SIZE);
+        log.info("Loaded {} active tokens", activeTokens.size());
+    }
+
+    /**
+     * Returns true when the token was issued by the application and has not been revoked.
+     * The signature and the expiration of the token are checked by JwtService, not here.
+     */
+    public boolean isActive(String jwt, Date expiration) {
+        String digest = TokenDigest.sha256(jwt);
+        if (activeTokens.containsKey(digest)) {
+            return true;
+        }
+        if (revokedTokens.containsKey(digest)) {
+            return false;
+        }
+
+        // Not seen by this instance yet
+        boolean active = lookupTimer.record(() -> tokenRepository.findByTokenHash(digest))
+                .map(t -> !t.isExpired() && !t.isRevoked())
+                .orElse(false);
+        if (active) {
+            activeTokens.put(digest, expiration.getTime());
+            // A revocation that happened while we were reading the database wins
+            if (revokedTokens.containsKey(digest)) {
+                activeTokens.remove(digest);
+                return false;
+            }
+        } else {
+            revokedTokens.put(digest, expiration.getTime());
+        }
+        return active;
+    }
+
+    public void tokenSaved(Token token) {
+        revokedTokens.remove(token.getTokenHash());
+        activeTokens.put(token.getTokenHash(), toEpochMilli(token.getExpiresAt()));
+    }
+
+    /**
+     * Removes the tokens from the index and publishes the revocation to the other instances.
+     */
+    public void tokensRevoked(Collection<Token> tokens) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> revocations = new ArrayList<>(tokens.size());
+        for (Token token : tokens) {
+            if (token.getExpiresAt().isBefore(now)) {
+                // Expired tokens are rejected anyway
+                continue;
+            }
+
+            revokedTokens.put(token.getTokenHash(), toEpochMilli(token.getExpiresAt()));
+            activeTokens.remove(token.getTokenHash());
+            revocations.add(TokenRevocation.builder()
+                    .tokenDigest(token.getTokenHash())
+                    .expiresAt(token.getExpiresAt())
+                    .build());
+        }
+
+        if (!revocations.isEmpty()) {
+            tokenRevocationRepository.saveAll(revocations);
+        }
+    }
+
+    /**
+     * Removes the tokens from the index of this instance only, for revocations written to the log in bulk.
+     */
+    public void tokensRevokedLocally(Collection<TokenRepository.TokenView> tokens) {
+        for (TokenRepository.TokenView token : tokens) {
+            revokedTokens.put(token.getTokenHash(), toEpochMilli(token.getExpiresAt()));
+            activeTokens.remove(token.getTokenHash());
+        }
+    }
+
+    /**
+     * Applies the revocations made by the other instances. Reads the rows created since the newest one seen,
+     * less the revocation window, and applies each of them once.
+     */
+    @Scheduled(fixedDelayString = "${spring.security.jwt.token-index.poll-delay-ms:5000}")
+    public void pollRevocations() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime since = lastRevocationAt == null ? BEGINNING : lastRevocationAt.minus(revocationWindow);
+        long afterId = 0;
+        List<TokenRevocation> revocations;
+        do {
+            revocations = tokenRevocationRepository.findNextBatch(since, afterId, PageRequest.of(0, BATCH_SIZE));
+            for (TokenRevocation revocation : revocations) {
+                afterId = revocation.getId();
+                if (lastRevocationAt == null || revocation.getCreatedAt().isAfter(lastRevocationAt)) {
+                    lastRevocationAt = revocation.getCreatedAt();
+                }
+                if (appliedRevocations.putIfAbsent(revocation.getId(), revocation.getCreatedAt()) != null) {
+                    continue;
+                }
+
+                revokedTokens.put(revocation.getTokenDigest(), toEpochMilli(revocation.getExpiresAt()));
+                activeTokens.remove(revocation.getTokenDigest());
+            }
+        } while (revocations.size() == BATCH_SIZE);
+        // Not read again, the window only moves forward
+        appliedRevocations.values().removeIf(createdAt -> createdAt.isBefore(since));
+    }
+
+    /**
+     * Drops the expired tokens, they are rejected by the signature check anyway.
+     * The expired rows of the tokens table are deleted by ExpiredTokenPurger.
+     */
+    @Scheduled(fixedDelayString = "${spring.security.jwt.token-index.purge-delay-ms:600000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+
+        long now = Instant.now().toEpochMilli();
+        activeTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        tokenRevocationRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    public int size() {
+        return activeTokens.size();
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
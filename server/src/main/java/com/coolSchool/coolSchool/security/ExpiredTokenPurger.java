@@ -0,0 +1,75 @@
+package com.coolSchool.coolSchool.security;
+
+import com.coolSchool.coolSchool.repositories.TokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes the expired rows of the tokens table, which otherwise are only removed when the user logs in again.
+ * Walks the expired tokens in (expires_at, id) order, keyset pagination on idx_tokens_expires_at,
+ * and deletes each batch in its own short transaction, so the table stays proportional to the active sessions
+ * without long locks. A run stops after max-batches; what is left is deleted by the next run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "spring.security.jwt", name = "revocation-mode", havingValue = "table", matchIfMissing = true)
+public class ExpiredTokenPurger {
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TokenRepository tokenRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter purgedCounter;
+
+    public ExpiredTokenPurger(TokenRepository tokenRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${spring.security.jwt.token-purge.batch-size:500}") int batchSize,
+                              @Value("${spring.security.jwt.token-purge.max-batches:100}") int maxBatches) {
+        this.tokenRepository = tokenRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.purgedCounter = Counter.builder("tokens.purged")
+                .description("Expired tokens deleted from the tokens table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.security.jwt.token-purge.delay-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime afterExpiresAt = KEYSET_START;
+        long afterId = 0;
+        int purged = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<TokenRepository.TokenView> expired =
+                    tokenRepository.findNextExpiredBatch(now, afterExpiresAt, afterId, PageRequest.of(0, batchSize));
+            if (expired.isEmpty()) {
+                break;
+            }
+
+            purged += tokenRepository.deleteAllByIds(expired.stream().map(TokenRepository.TokenView::getId).toList());
+            TokenRepository.TokenView last = expired.get(expired.size() - 1);
+            afterExpiresAt = last.getExpiresAt();
+            afterId = last.getId();
+
+            if (expired.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (purged > 0) {
+            purgedCounter.increment(purged);
+            log.info("Purged {} expired tokens", purged);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.coolSchool.coolSchool.security;
+
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
+import com.coolSchool.coolSchool.models.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache of authenticated users, keyed by email (the subject of the JWT).
+ * Holds a snapshot of the user for the security context together with its PublicUserDTO,
+ * so a request of a recently seen user needs neither a query nor mapping.
+ * The snapshot is detached from JPA, a cached principal never touches a closed persistence context.
+ * UserServiceImpl evicts a user when it changes them. Entries also expire after a short TTL,
+ * which bounds how long a change made on another application instance stays unseen.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, AuthenticatedPrincipal> principals;
+
+    @Autowired
+    public PrincipalCache(@Value("${spring.security.principal-cache.ttl:30s}") Duration ttl,
+                          @Value("${spring.security.principal-cache.max-size:10000}") long maxSize) {
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Returns the cached principal or loads it with the given function.
+     * Exceptions of the loader (e.g. UserNotFoundException) are passed to the caller and nothing is cached.
+     */
+    public AuthenticatedPrincipal get(String email, Function<String, AuthenticatedPrincipal> loader) {
+        return principals.get(email, loader);
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            principals.invalidate(email);
+        }
+    }
+
+    public void evictAll() {
+        principals.invalidateAll();
+    }
+
+    /**
+     * The user for the security context and its public view for the controllers. Both are shared between requests
+     * and must not be modified.
+     */
+    public record AuthenticatedPrincipal(CachedUser user, PublicUserDTO publicUser) {
+
+        public static AuthenticatedPrincipal of(User user, PublicUserDTO publicUser) {
+            return new AuthenticatedPrincipal(CachedUser.of(user), publicUser);
+        }
+    }
+
+    /**
+     * What the security context needs of a user, copied out of the entity. Has no password,
+     * the token was already verified when it is built.
+     */
+    public record CachedUser(Long id, String email, Role role, List<GrantedAuthority> authorities, int tokenVersion,
+                             boolean enabled) implements UserDetails {
+
+        public static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getRole(), List.copyOf(user.getAuthorities()),
+                    user.getTokenVersion(), user.isEnabled());
+        }
+
+        @Override
+        public Collection<? extends GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+
+        @Override
+        public String getPassword() {
+            return null;
+        }
+
+        @Override
+        public String getUsername() {
+            return email;
+        }
+
+        @Override
+        public boolean isAccountNonExpired() {
+            return true;
+        }
+
+        @Override
+        public boolean isAccountNonLocked() {
+            return true;
+        }
+
+        @Override
+        public boolean isCredentialsNonExpired() {
+            return true;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+    }
+}
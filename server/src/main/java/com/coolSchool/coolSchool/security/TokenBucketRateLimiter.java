@@ -0,0 +1,77 @@
+package com.coolSchool.coolSchool.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key, implemented as GCRA (generic cell rate algorithm): instead of a token count and
+ * a refill timestamp each bucket keeps a single "theoretical arrival time" in an AtomicLong, so a request
+ * is one read and one compare-and-set, without locks.
+ * <p>
+ * A bucket holds up to capacity tokens and refills one token every period / capacity.
+ * Buckets not used for a whole period are full again and are evicted; the number of buckets is also capped,
+ * so the memory stays bounded whatever the number of keys.
+ */
+public class TokenBucketRateLimiter {
+
+    private final int capacity;
+    private final long periodNanos;
+    private final long emissionIntervalNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, Duration period, long maxBuckets) {
+        this(capacity, period, maxBuckets, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(int capacity, Duration period, long maxBuckets, LongSupplier clock) {
+        if (capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Rate limit must allow at least one request per a positive period");
+        }
+        this.capacity = capacity;
+        this.periodNanos = period.toNanos();
+        this.emissionIntervalNanos = Math.max(1, periodNanos / capacity);
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(periodNanos, TimeUnit.NANOSECONDS)
+                .maximumSize(maxBuckets)
+                .ticker(clock::getAsLong)
+                .build();
+    }
+
+    public Decision tryAcquire(String key) {
+        AtomicLong arrivalTime = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = arrivalTime.get();
+            long base = Math.max(current, now);
+            long next = base + emissionIntervalNanos;
+
+            long waitNanos = next - now - periodNanos;
+            if (waitNanos > 0) {
+                return new Decision(false, capacity, 0, base - now, waitNanos);
+            }
+            if (arrivalTime.compareAndSet(current, next)) {
+                int remaining = (int) ((periodNanos - (next - now)) / emissionIntervalNanos);
+                return new Decision(true, capacity, remaining, next - now, 0);
+            }
+        }
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * @param resetNanos      Time until the bucket is full again.
+     * @param retryAfterNanos Time until the next request is allowed, 0 when this one was.
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
@@ -15,4 +15,6 @@ public interface AIAssistanceService {
     String buildPrompt(String blogContent, List<CategoryDTO> categories);
 
     CategoryDTO matchCategory(String aiResponse, List<CategoryDTO> categories);
+
+    CategoryDTO recommendCategory(String blogContent, List<CategoryDTO> categories);
 }
@@ -20,7 +20,8 @@ public interface AuthenticationService {
     AuthenticationResponse refreshToken(String refreshToken) throws IOException;
 
     AuthenticationResponse me(
-            String jwtToken
+            String jwtToken,
+            String refreshToken
     );
 
     void attachAuthCookies(AuthenticationResponse authenticationResponse, Consumer<Cookie> cookieConsumer);
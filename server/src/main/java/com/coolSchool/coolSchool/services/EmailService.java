@@ -0,0 +1,5 @@
+package com.coolSchool.coolSchool.services;
+
+public interface EmailService {
+    void enqueue(String to, String subject, String text);
+}
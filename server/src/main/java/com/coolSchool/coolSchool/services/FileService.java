@@ -4,19 +4,23 @@ import com.coolSchool.coolSchool.models.entity.File;
 import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
 
 public interface FileService {
     String saveFileAndGetUniqueFilename(MultipartFile file);
 
-    byte[] getFileBytes(String imageName);
+    ByteBuffer getFileContent(String imageName);
+
+    InputStream openFileStream(String filename);
+
+    Optional<String> getPresignedUrl(String filename);
 
     MediaType getMediaTypeForFile(String filename);
 
     File uploadFile(MultipartFile file);
 
-    Path createFilePath(String uniqueFilename);
-
     String generateUniqueFilename(String originalFilename);
 
 
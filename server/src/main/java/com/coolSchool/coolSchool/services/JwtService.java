@@ -17,5 +17,9 @@ public interface JwtService {
 
     String generateRefreshToken(UserDetails userDetails);
 
+    Claims verifyToken(String token);
+
     boolean isTokenValid(String token, UserDetails userDetails);
+
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
 }
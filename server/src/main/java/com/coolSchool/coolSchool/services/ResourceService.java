@@ -2,6 +2,7 @@ package com.coolSchool.coolSchool.services;
 
 import com.coolSchool.coolSchool.models.dto.request.ResourceRequestDTO;
 import com.coolSchool.coolSchool.models.dto.response.ResourceResponseDTO;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,4 +18,6 @@ public interface ResourceService {
     ResourceResponseDTO updateResource(Long id, ResourceRequestDTO resourceDTO);
 
     void deleteResource(Long id);
+
+    StreamingResponseBody getSubsectionArchive(Long subsectionId);
 }
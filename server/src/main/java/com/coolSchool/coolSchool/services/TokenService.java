@@ -1,9 +1,11 @@
 package com.coolSchool.coolSchool.services;
 
+import com.coolSchool.coolSchool.enums.TokenRevocationMode;
 import com.coolSchool.coolSchool.enums.TokenType;
 import com.coolSchool.coolSchool.models.dto.auth.AuthenticationResponse;
 import com.coolSchool.coolSchool.models.entity.Token;
 import com.coolSchool.coolSchool.models.entity.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.Cookie;
 
 import java.util.List;
@@ -14,14 +16,22 @@ public interface TokenService {
 
     List<Token> findByUser(User user);
 
+    TokenPair findTokenPair(String accessToken, String refreshToken);
+
     void saveToken(User user, String jwtToken, TokenType tokenType);
 
     void revokeToken(Token token);
 
     void revokeAllUserTokens(User user);
 
+    void rotateAccessToken(User user, Token refreshToken, String accessToken);
+
     void logoutToken(String jwt);
 
+    boolean isTokenActive(String jwt, Claims claims, int tokenVersion);
+
+    TokenRevocationMode getRevocationMode();
+
     Cookie createJwtCookie(String jwt);
 
     Cookie createRefreshCookie(String refreshToken);
@@ -31,4 +41,8 @@ public interface TokenService {
     void attachAuthCookies(AuthenticationResponse authenticationResponse, Consumer<Cookie> cookieConsumer);
 
     void detachAuthCookies(Consumer<Cookie> cookieConsumer);
+
+    // The stored tokens (with their users) of an access and a refresh token, null for the ones not found
+    record TokenPair(Token accessToken, Token refreshToken) {
+    }
 }
@@ -1,5 +1,7 @@
 package com.coolSchool.coolSchool.services.impl;
 
+import com.coolSchool.coolSchool.ai.AIResponseCache;
+import com.coolSchool.coolSchool.ai.CategoryClassifier;
 import com.coolSchool.coolSchool.exceptions.AI.ErrorProcessingAIResponseException;
 import com.coolSchool.coolSchool.exceptions.AI.UnableToExtractContentFromAIResponseException;
 import com.coolSchool.coolSchool.models.dto.common.CategoryDTO;
@@ -8,28 +10,41 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class AIAssistanceServiceImpl implements AIAssistanceService {
 
+    // Part of the cache key of the category recommendations. Change it together with buildPrompt
+    private static final String CATEGORY_PROMPT_VERSION = "category-prompt-v1";
+
     private final RestTemplate restTemplate;
-    private final String openAIEndpoint = "https://api.openai.com/v1/chat/completions";
+    @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}")
+    private String openAIEndpoint = "https://api.openai.com/v1/chat/completions";
     private final String apiKey;
     private final MessageSource messageSource;
     private final ObjectMapper objectMapper;
+    private final AIResponseCache aiResponseCache;
+    private final CategoryClassifier categoryClassifier;
 
-    public AIAssistanceServiceImpl(RestTemplate restTemplate, @Value("${openai.api.key}") String apiKey, MessageSource messageSource, ObjectMapper objectMapper) {
+    public AIAssistanceServiceImpl(@Qualifier("aiRestTemplate") RestTemplate restTemplate, @Value("${openai.api.key}") String apiKey, MessageSource messageSource, ObjectMapper objectMapper, AIResponseCache aiResponseCache, CategoryClassifier categoryClassifier) {
         this.restTemplate = restTemplate;
         this.apiKey = apiKey;
         this.messageSource = messageSource;
         this.objectMapper = objectMapper;
+        this.aiResponseCache = aiResponseCache;
+        this.categoryClassifier = categoryClassifier;
     }
 
     /**
@@ -153,6 +168,54 @@ public class AIAssistanceServiceImpl implements AIAssistanceService {
         return promptBuilder.toString();
     }
 
+    /**
+     * Recommends a category for the blog content. The local classifier answers when it is confident,
+     * otherwise the AI is asked. The AI response is cached by the prompt version,
+     * the normalized content and the set of categories, so the same draft is not sent to the API twice
+     * and concurrent identical requests share one call.
+     *
+     * @param blogContent The content of the blog.
+     * @param categories  The list of categories to choose from.
+     * @return The recommended category.
+     * @throws ErrorProcessingAIResponseException If the AI call fails or no matching category is found.
+     */
+    @Override
+    public CategoryDTO recommendCategory(String blogContent, List<CategoryDTO> categories) {
+        List<Long> categoryIds = categories.stream().map(CategoryDTO::getId).toList();
+        Optional<CategoryDTO> localRecommendation = categoryClassifier.classify(blogContent, categoryIds)
+                .flatMap(prediction -> categories.stream()
+                        .filter(category -> prediction.categoryId().equals(category.getId()))
+                        .findFirst());
+        if (localRecommendation.isPresent()) {
+            return localRecommendation.get();
+        }
+
+        String key = AIResponseCache.key(CATEGORY_PROMPT_VERSION, categorySetVersion(categories), AIResponseCache.normalize(blogContent));
+        String aiResponse = aiResponseCache.get(key, () -> {
+            try {
+                return analyzeContent(buildPrompt(blogContent, categories));
+            } catch (JsonProcessingException e) {
+                throw new ErrorProcessingAIResponseException(messageSource);
+            }
+        });
+
+        try {
+            return matchCategory(aiResponse, categories);
+        } catch (ErrorProcessingAIResponseException e) {
+            // Do not keep an answer which names no category
+            aiResponseCache.invalidate(key);
+            throw e;
+        }
+    }
+
+    // Changes whenever a category is added, renamed or deleted
+    private static String categorySetVersion(List<CategoryDTO> categories) {
+        return categories.stream()
+                .sorted(Comparator.comparing(CategoryDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(category -> category.getId() + ":" + Objects.toString(category.getName(), ""))
+                .collect(Collectors.joining("\n"));
+    }
+
     /**
      * Matches AI-generated response with a category.
      *
@@ -1,5 +1,6 @@
 package com.coolSchool.coolSchool.services.impl;
 
+import com.coolSchool.coolSchool.ai.CategoryClassifier;
 import com.coolSchool.coolSchool.config.FrontendConfig;
 import com.coolSchool.coolSchool.enums.Role;
 import com.coolSchool.coolSchool.exceptions.blog.BlogAlreadyLikedException;
@@ -10,6 +11,7 @@ import com.coolSchool.coolSchool.exceptions.common.AccessDeniedException;
 import com.coolSchool.coolSchool.exceptions.common.BadRequestException;
 import com.coolSchool.coolSchool.exceptions.files.FileNotFoundException;
 import com.coolSchool.coolSchool.exceptions.user.UserNotFoundException;
+import com.coolSchool.coolSchool.mappers.BlogMapper;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
 import com.coolSchool.coolSchool.models.dto.common.BlogDTO;
 import com.coolSchool.coolSchool.models.dto.request.BlogRequestDTO;
@@ -23,13 +25,10 @@ import com.coolSchool.coolSchool.repositories.CategoryRepository;
 import com.coolSchool.coolSchool.repositories.FileRepository;
 import com.coolSchool.coolSchool.repositories.UserRepository;
 import com.coolSchool.coolSchool.services.BlogService;
+import com.coolSchool.coolSchool.services.EmailService;
 import com.coolSchool.coolSchool.slack.SlackNotifier;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -48,33 +47,38 @@ public class BlogServiceImpl implements BlogService {
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final MessageSource messageSource;
-    private final JavaMailSender emailSender;
+    private final EmailService emailService;
     private final SlackNotifier slackNotifier;
     private final FrontendConfig frontendConfig;
+    private final CategoryClassifier categoryClassifier;
+    private final BlogMapper blogMapper;
 
 
-    public BlogServiceImpl(BlogRepository blogRepository, ModelMapper modelMapper, FileRepository fileRepository, UserRepository userRepository, CategoryRepository categoryRepository, MessageSource messageSource, JavaMailSender emailSender, SlackNotifier slackNotifier, FrontendConfig frontendConfig) {
+    public BlogServiceImpl(BlogRepository blogRepository, ModelMapper modelMapper, FileRepository fileRepository, UserRepository userRepository, CategoryRepository categoryRepository, MessageSource messageSource, EmailService emailService, SlackNotifier slackNotifier, FrontendConfig frontendConfig, CategoryClassifier categoryClassifier, BlogMapper blogMapper) {
         this.blogRepository = blogRepository;
         this.modelMapper = modelMapper;
         this.fileRepository = fileRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.messageSource = messageSource;
-        this.emailSender = emailSender;
+        this.emailService = emailService;
         this.slackNotifier = slackNotifier;
         this.frontendConfig = frontendConfig;
+        this.categoryClassifier = categoryClassifier;
+        this.blogMapper = blogMapper;
     }
 
     @Override
+    @Transactional
     public BlogResponseDTO addLike(Long blogId, PublicUserDTO loggedUser) {
         // Method to add a like to a blog post
         if (loggedUser != null) {
-            Blog blog = blogRepository.findById(blogId).orElseThrow(() -> new BlogNotFoundException(messageSource));
+            Blog blog = blogRepository.findByIdAndDeletedFalse(blogId).orElseThrow(() -> new BlogNotFoundException(messageSource));
             User user = userRepository.findByIdAndDeletedFalse(loggedUser.getId()).orElseThrow(() -> new UserNotFoundException(messageSource));
             if (!blog.getLiked_users().contains(user)) {
                 blog.getLiked_users().add(user);
                 blog = blogRepository.save(blog);
-                return modelMapper.map(blog, BlogResponseDTO.class);
+                return blogMapper.toResponseDTO(blog);
             }
             throw new BlogAlreadyLikedException(messageSource);
         }
@@ -82,28 +86,29 @@ public class BlogServiceImpl implements BlogService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogResponseDTO> getAllBlogs(PublicUserDTO loggedUser) {
         // Method to retrieve all blogs
         if (loggedUser != null) {
             if (loggedUser.getRole().equals(Role.ADMIN)) {
                 // The ADMIN can see all the blogs
                 List<Blog> blogs = blogRepository.findAll();
-                return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+                return blogs.stream().map(blogMapper::toResponseDTO).toList();
             }
         }
         // The STUDENTS and TEACHERS can see only enables blogs
         List<Blog> blogs = blogRepository.findByDeletedFalseAndIsEnabledTrue();
-        return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+        return blogs.stream().map(blogMapper::toResponseDTO).toList();
     }
 
     @Override
-
+    @Transactional(readOnly = true)
     public BlogResponseDTO getBlogById(Long id, PublicUserDTO loggedUser) {
-        Optional<Blog> optionalBlog = Optional.ofNullable(blogRepository.findById(id).orElseThrow(() -> new BlogNotFoundException(messageSource)));
+        Optional<Blog> optionalBlog = Optional.ofNullable(blogRepository.findByIdAndDeletedFalse(id).orElseThrow(() -> new BlogNotFoundException(messageSource)));
 
         if (loggedUser != null) {
             if (loggedUser.getRole().equals(Role.ADMIN)) {
-                optionalBlog = blogRepository.findById(id);
+                optionalBlog = blogRepository.findByIdAndDeletedFalse(id);
             }
         }
         if (optionalBlog.isEmpty()) {
@@ -115,7 +120,7 @@ public class BlogServiceImpl implements BlogService {
                 throw new BlogNotEnabledException(messageSource);
             }
         }
-        return modelMapper.map(optionalBlog.get(), BlogResponseDTO.class);
+        return blogMapper.toResponseDTO(optionalBlog.get());
     }
 
     @Override
@@ -135,15 +140,19 @@ public class BlogServiceImpl implements BlogService {
         fileRepository.findByIdAndDeletedFalse(blogDTO.getPictureId()).orElseThrow(() -> new FileNotFoundException(messageSource));
         blogDTO.setCommentCount(0);
         Blog blogEntity = blogRepository.save(modelMapper.map(blogDTO, Blog.class));
+        if (blogEntity.isEnabled()) {
+            categoryClassifier.learn(category.getId(), blogEntity.getContent());
+        }
 
         // Sends a Slack notification to the  ADMIN when a new blog is created
         sendSlackNotification(blogDTO, category, owner, blogEntity.getId());
-        return modelMapper.map(blogEntity, BlogResponseDTO.class);
+        return blogMapper.toResponseDTO(blogEntity);
     }
 
     @Override
+    @Transactional
     public BlogResponseDTO updateBlog(Long id, BlogRequestDTO blogDTO, PublicUserDTO loggedUser) {
-        Optional<Blog> existingBlogOptional = blogRepository.findById(id);
+        Optional<Blog> existingBlogOptional = blogRepository.findByIdAndDeletedFalse(id);
         Category category = categoryRepository.findByIdAndDeletedFalse(blogDTO.getCategoryId()).orElseThrow(() -> new CategoryNotFoundException(messageSource));
         File file = fileRepository.findByIdAndDeletedFalse(blogDTO.getPictureId()).orElseThrow(() -> new FileNotFoundException(messageSource));
         User user = userRepository.findByIdAndDeletedFalse(blogDTO.getOwnerId()).orElseThrow(() -> new UserNotFoundException(messageSource));
@@ -167,6 +176,8 @@ public class BlogServiceImpl implements BlogService {
         }
 
         Blog existingBlog = existingBlogOptional.get();
+        // Only the first approval is learned, later edits would count the blog twice
+        boolean approved = !existingBlog.isEnabled() && blogDTO.isEnabled();
         blogDTO.setCommentCount(existingBlog.getCommentCount());
         modelMapper.map(blogDTO, existingBlog);
 
@@ -179,7 +190,10 @@ public class BlogServiceImpl implements BlogService {
         existingBlog.setLiked_users(userSet);
 
         Blog updatedBlog = blogRepository.save(existingBlog);
-        return modelMapper.map(updatedBlog, BlogResponseDTO.class);
+        if (approved) {
+            categoryClassifier.learn(category.getId(), updatedBlog.getContent());
+        }
+        return blogMapper.toResponseDTO(updatedBlog);
     }
 
     public void sendEnabledBlogEmailNotification(Long ownerId, Long blogId) {
@@ -204,7 +218,7 @@ public class BlogServiceImpl implements BlogService {
     @Override
     @Transactional
     public void deleteBlog(Long id, PublicUserDTO loggedUser) {
-        Blog blog = blogRepository.findById(id).orElseThrow(() -> new BlogNotFoundException(messageSource));
+        Blog blog = blogRepository.findByIdAndDeletedFalse(id).orElseThrow(() -> new BlogNotFoundException(messageSource));
 
         //The blog can be deleted only from the ADMIN or from the owner of the blog
         if (loggedUser == null || (!Objects.equals(loggedUser.getId(), blog.getOwnerId().getId()) && !(loggedUser.getRole().equals(Role.ADMIN)))) {
@@ -216,57 +230,55 @@ public class BlogServiceImpl implements BlogService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogResponseDTO> getBlogsByNewestFirst() {
         List<Blog> blogs = blogRepository.findAllByNewestFirst();
-        return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+        return blogs.stream().map(blogMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogResponseDTO> getBlogsByMostLiked() {
         List<Blog> blogs = blogRepository.findAllByMostLiked();
-        return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+        return blogs.stream().map(blogMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogResponseDTO> searchBlogsByKeywordTitle(String keyword) {
         List<Blog> blogs = blogRepository.searchByTitleContainingIgnoreCase(keyword.toLowerCase());
-        return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+        return blogs.stream().map(blogMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogResponseDTO> searchBlogsByKeywordCategory(String keyword) {
         List<Blog> blogs = blogRepository.findByCategoryIdName(keyword.toLowerCase());
-        return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+        return blogs.stream().map(blogMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogResponseDTO> searchBlogsByKeywordInTitleAndCategory(String keywordForTitle, String keywordForCategory) {
         List<Blog> blogs = blogRepository.searchBlogsByKeywordInTitleAndCategory(keywordForTitle.toLowerCase(), keywordForCategory.toLowerCase());
-        return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+        return blogs.stream().map(blogMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BlogResponseDTO> getLastNBlogs(int n) {
         if (n >= 0) {
             List<Blog> allBlogs = blogRepository.findByDeletedFalseAndIsEnabledTrue();
             List<Blog> sortedBlogs = allBlogs.stream().sorted((blog1, blog2) -> Long.compare(blog2.getId(), blog1.getId())).collect(Collectors.toList());
             List<Blog> lastNBlogs = sortedBlogs.subList(0, Math.min(n, sortedBlogs.size()));
-            return lastNBlogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+            return lastNBlogs.stream().map(blogMapper::toResponseDTO).toList();
         }
         throw new BadRequestException(messageSource);
     }
 
     public void sendEmail(String to, String subject, String text) {
-        MimeMessage message = emailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message);
-        try {
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(text);
-            emailSender.send(message);
-        } catch (MessagingException e) {
-            e.printStackTrace();
-        }
+        // Delivered by the email outbox after the commit, not on the request thread
+        emailService.enqueue(to, subject, text);
     }
 
     private void sendSlackNotification(BlogDTO blogDTO, Category category, User user, Long id) {
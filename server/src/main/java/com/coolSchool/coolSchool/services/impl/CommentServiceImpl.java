@@ -5,6 +5,7 @@ import com.coolSchool.coolSchool.exceptions.blog.BlogNotFoundException;
 import com.coolSchool.coolSchool.exceptions.comment.CommentNotFoundException;
 import com.coolSchool.coolSchool.exceptions.common.AccessDeniedException;
 import com.coolSchool.coolSchool.exceptions.user.UserNotFoundException;
+import com.coolSchool.coolSchool.mappers.CommentMapper;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
 import com.coolSchool.coolSchool.models.dto.request.CommentRequestDTO;
 import com.coolSchool.coolSchool.models.dto.response.CommentGetByBlogResponseDTO;
@@ -34,22 +35,26 @@ public class CommentServiceImpl implements CommentService {
     private final UserRepository userRepository;
     private final BlogRepository blogRepository;
     private final MessageSource messageSource;
+    private final CommentMapper commentMapper;
 
-    public CommentServiceImpl(CommentRepository commentRepository, ModelMapper modelMapper, UserRepository userRepository, BlogRepository blogRepository, MessageSource messageSource) {
+    public CommentServiceImpl(CommentRepository commentRepository, ModelMapper modelMapper, UserRepository userRepository, BlogRepository blogRepository, MessageSource messageSource, CommentMapper commentMapper) {
         this.commentRepository = commentRepository;
         this.modelMapper = modelMapper;
         this.userRepository = userRepository;
         this.blogRepository = blogRepository;
         this.messageSource = messageSource;
+        this.commentMapper = commentMapper;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommentResponseDTO> getAllComments() {
         List<Comment> comments = commentRepository.findByDeletedFalse();
-        return comments.stream().map(comment -> modelMapper.map(comment, CommentResponseDTO.class)).toList();
+        return comments.stream().map(commentMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommentGetByBlogResponseDTO getCommentByBlogId(Long id, Integer n) {
         List<Comment> comments = commentRepository.findCommentsByBlogAndNotDeleted(id);
         int length = comments.size();
@@ -62,10 +67,7 @@ public class CommentServiceImpl implements CommentService {
         List<CommentResponseDTO> commentGetDTOs = comments.stream().map(comment -> {
             comment.setBlogId(null);  // Remove redundant blog ID from comment entity
 
-            CommentResponseDTO commentResponseDTO = modelMapper.map(comment, CommentResponseDTO.class);
-            // Map owner ID to PublicUserDTO
-            commentResponseDTO.setOwnerId(modelMapper.map(comment.getOwnerId(), PublicUserDTO.class));
-            return commentResponseDTO;
+            return commentMapper.toResponseDTO(comment);
         }).toList();
 
         return CommentGetByBlogResponseDTO
@@ -76,10 +78,11 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CommentResponseDTO getCommentById(Long id) {
         Optional<Comment> comment = commentRepository.findByIdAndDeletedFalse(id);
         if (comment.isPresent()) {
-            return modelMapper.map(comment.get(), CommentResponseDTO.class);
+            return commentMapper.toResponseDTO(comment.get());
         }
         throw new CommentNotFoundException(messageSource);
     }
@@ -99,7 +102,7 @@ public class CommentServiceImpl implements CommentService {
             blog.setCommentCount(blog.getCommentCount() + 1);
             blogRepository.save(blog);
             Comment commentEntity = commentRepository.save(modelMapper.map(commentDTO, Comment.class));
-            return modelMapper.map(commentEntity, CommentResponseDTO.class);
+            return commentMapper.toResponseDTO(commentEntity);
         } catch (ConstraintViolationException exception) {
             // Rollback the increment of comment count if an exception occurs during comment creation
             if (blog != null) {
@@ -111,6 +114,7 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional
     public CommentResponseDTO updateComment(Long id, CommentRequestDTO commentDTO, PublicUserDTO loggedUser) {
         Optional<Comment> existingCommentOptional = commentRepository.findByIdAndDeletedFalse(id);
         if (existingCommentOptional.isEmpty()) {
@@ -127,7 +131,7 @@ public class CommentServiceImpl implements CommentService {
 
         existingComment.setId(id);
         Comment updatedComment = commentRepository.save(existingComment);
-        return modelMapper.map(updatedComment, CommentResponseDTO.class);
+        return commentMapper.toResponseDTO(updatedComment);
     }
 
     @Override
@@ -151,14 +155,16 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommentResponseDTO> getCommentsByNewestFirst() {
         List<Comment> comments = commentRepository.findAllByNewestFirst();
-        return comments.stream().map(comment -> modelMapper.map(comment, CommentResponseDTO.class)).toList();
+        return comments.stream().map(commentMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommentResponseDTO> getCommentsByMostLiked() {
         List<Comment> comments = commentRepository.findAllByMostLiked();
-        return comments.stream().map(comment -> modelMapper.map(comment, CommentResponseDTO.class)).toList();
+        return comments.stream().map(commentMapper::toResponseDTO).toList();
     }
 }
@@ -6,6 +6,7 @@ import com.coolSchool.coolSchool.exceptions.category.CategoryNotFoundException;
 import com.coolSchool.coolSchool.exceptions.common.AccessDeniedException;
 import com.coolSchool.coolSchool.exceptions.course.CourseNotFoundException;
 import com.coolSchool.coolSchool.exceptions.user.UserNotFoundException;
+import com.coolSchool.coolSchool.mappers.CourseMapper;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
 import com.coolSchool.coolSchool.models.dto.request.CourseRequestDTO;
 import com.coolSchool.coolSchool.models.dto.request.UserCourseRequestDTO;
@@ -24,6 +25,7 @@ import com.coolSchool.coolSchool.slack.SlackNotifier;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
@@ -41,8 +43,9 @@ public class CourseServiceImpl implements CourseService {
     private final SlackNotifier slackNotifier;
     private final FileRepository fileRepository;
     private final FrontendConfig frontendConfig;
+    private final CourseMapper courseMapper;
 
-    public CourseServiceImpl(CourseRepository courseRepository, ModelMapper modelMapper, UserRepository userRepository, CategoryRepository categoryRepository, UserCourseService userCourseService, MessageSource messageSource, SlackNotifier slackNotifier, FileRepository fileRepository, FrontendConfig frontendConfig) {
+    public CourseServiceImpl(CourseRepository courseRepository, ModelMapper modelMapper, UserRepository userRepository, CategoryRepository categoryRepository, UserCourseService userCourseService, MessageSource messageSource, SlackNotifier slackNotifier, FileRepository fileRepository, FrontendConfig frontendConfig, CourseMapper courseMapper) {
         this.courseRepository = courseRepository;
         this.modelMapper = modelMapper;
         this.userRepository = userRepository;
@@ -52,19 +55,22 @@ public class CourseServiceImpl implements CourseService {
         this.slackNotifier = slackNotifier;
         this.fileRepository = fileRepository;
         this.frontendConfig = frontendConfig;
+        this.courseMapper = courseMapper;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CourseResponseDTO> getAllCourses() {
         List<Course> courses = courseRepository.findByDeletedFalseOrderByCreatedDateDesc();
-        return courses.stream().map(course -> modelMapper.map(course, CourseResponseDTO.class)).toList();
+        return courses.stream().map(courseMapper::toResponseDTO).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CourseResponseDTO getCourseById(Long id) {
         Optional<Course> course = courseRepository.findByIdAndDeletedFalse(id);
         if (course.isPresent()) {
-            return modelMapper.map(course.get(), CourseResponseDTO.class);
+            return courseMapper.toResponseDTO(course.get());
         }
         throw new CourseNotFoundException(messageSource);
     }
@@ -111,10 +117,11 @@ public class CourseServiceImpl implements CourseService {
 
         // Send a Slack notification to the ADMIN when a new course is created
         sendSlackNotification(courseEntity);
-        return modelMapper.map(courseEntity, CourseResponseDTO.class);
+        return courseMapper.toResponseDTO(courseEntity);
     }
 
     @Override
+    @Transactional
     public CourseResponseDTO updateCourse(Long id, CourseRequestDTO courseDTO, PublicUserDTO loggedUser) {
         Optional<Course> existingCourseOptional = courseRepository.findByIdAndDeletedFalse(id);
 
@@ -132,7 +139,7 @@ public class CourseServiceImpl implements CourseService {
 
         existingCourse.setId(id);
         Course updatedCourse = courseRepository.save(existingCourse);
-        return modelMapper.map(updatedCourse, CourseResponseDTO.class);
+        return courseMapper.toResponseDTO(updatedCourse);
     }
 
     @Override
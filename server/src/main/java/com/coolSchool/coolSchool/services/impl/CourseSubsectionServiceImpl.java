@@ -14,6 +14,7 @@ import com.coolSchool.coolSchool.services.CourseSubsectionService;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,12 +38,14 @@ public class CourseSubsectionServiceImpl implements CourseSubsectionService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CourseSubsectionResponseDTO> getAllCourseSubsections() {
         List<CourseSubsection> courseSubsections = courseSubsectionRepository.findByDeletedFalse();
         return courseSubsections.stream().map(courseSubsection -> modelMapper.map(courseSubsection, CourseSubsectionResponseDTO.class)).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CourseSubsectionResponseDTO> getAllByCourse(Long id) {
         // Get all the subsections in a course
         List<CourseSubsection> courseSubsections = courseSubsectionRepository.findAllByCourseIdAndDeletedFalse(id);
@@ -50,6 +53,7 @@ public class CourseSubsectionServiceImpl implements CourseSubsectionService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CourseSubsectionResponseDTO getCourseSubsectionById(Long id) {
         Optional<CourseSubsection> courseSubsection = courseSubsectionRepository.findByIdAndDeletedFalse(id);
         if (courseSubsection.isPresent()) {
@@ -67,6 +71,7 @@ public class CourseSubsectionServiceImpl implements CourseSubsectionService {
     }
 
     @Override
+    @Transactional
     public CourseSubsectionResponseDTO updateCourseSubsection(Long id, CourseSubsectionRequestDTO courseSubsectionDTO) {
         Optional<CourseSubsection> existingCourseSubsectionOptional = courseSubsectionRepository.findByIdAndDeletedFalse(id);
 
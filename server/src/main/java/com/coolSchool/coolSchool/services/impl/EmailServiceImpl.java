@@ -0,0 +1,47 @@
+package com.coolSchool.coolSchool.services.impl;
+
+import com.coolSchool.coolSchool.enums.EmailStatus;
+import com.coolSchool.coolSchool.mail.EmailOutboxWorker;
+import com.coolSchool.coolSchool.models.entity.OutboxEmail;
+import com.coolSchool.coolSchool.repositories.OutboxEmailRepository;
+import com.coolSchool.coolSchool.services.EmailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class EmailServiceImpl implements EmailService {
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailOutboxWorker emailOutboxWorker;
+
+    /**
+     * Writes the email to the outbox in the transaction of the caller (or a new one), so it is sent only
+     * when the business operation commits. No SMTP call is made on the request thread;
+     * the worker is woken up after the commit.
+     */
+    @Override
+    @Transactional
+    public void enqueue(String to, String subject, String text) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEmailRepository.save(OutboxEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(text)
+                .status(EmailStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emailOutboxWorker.wakeUp();
+            }
+        });
+    }
+}
@@ -2,12 +2,13 @@ package com.coolSchool.coolSchool.services.impl;
 
 import com.coolSchool.coolSchool.enums.FileType;
 import com.coolSchool.coolSchool.exceptions.common.InternalServerErrorException;
-import com.coolSchool.coolSchool.exceptions.files.DirectoryCreationException;
 import com.coolSchool.coolSchool.exceptions.files.FileNotFoundException;
 import com.coolSchool.coolSchool.exceptions.files.UnsupportedFileTypeException;
 import com.coolSchool.coolSchool.models.entity.File;
 import com.coolSchool.coolSchool.repositories.FileRepository;
 import com.coolSchool.coolSchool.services.FileService;
+import com.coolSchool.coolSchool.storage.BlobStore;
+import com.coolSchool.coolSchool.storage.HotFileCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.http.MediaType;
@@ -15,7 +16,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.*;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.codehaus.plexus.util.FileUtils.getExtension;
@@ -25,13 +30,17 @@ public class FileServiceImpl implements FileService {
 
     private final FileRepository fileRepository;
     private final MessageSource messageSource;
-    @Value("${upload.directory}")
-    public String uploadDirectory;
+    private final BlobStore blobStore;
+    private final HotFileCache hotFileCache;
+    private final Duration presignedUrlValidity;
 
-    public FileServiceImpl(FileRepository fileRepository, MessageSource messageSource, @Value("${upload.directory}") String uploadDirectory) {
+    public FileServiceImpl(FileRepository fileRepository, MessageSource messageSource, BlobStore blobStore, HotFileCache hotFileCache,
+                           @Value("${storage.presigned-url-validity:10m}") Duration presignedUrlValidity) {
         this.fileRepository = fileRepository;
         this.messageSource = messageSource;
-        this.uploadDirectory = uploadDirectory;
+        this.blobStore = blobStore;
+        this.hotFileCache = hotFileCache;
+        this.presignedUrlValidity = presignedUrlValidity;
     }
 
     /**
@@ -45,23 +54,6 @@ public class FileServiceImpl implements FileService {
         return UUID.randomUUID() + "_" + originalFilename;
     }
 
-    /**
-     * Creates a file path for storing the file.
-     *
-     * @param uniqueFilename The unique filename.
-     * @return The file path.
-     */
-    @Override
-    public Path createFilePath(String uniqueFilename) {
-        Path directoryPath = Paths.get(uploadDirectory);
-        try {
-            Files.createDirectories(directoryPath);
-            return directoryPath.resolve(uniqueFilename);
-        } catch (IOException e) {
-            throw new DirectoryCreationException(messageSource);
-        }
-    }
-
     /**
      * Uploads a file to the server.
      *
@@ -84,7 +76,7 @@ public class FileServiceImpl implements FileService {
             String uniqueFilename = saveFileAndGetUniqueFilename(file);
             File fileEntity = new File();
             fileEntity.setName(originalFilename);
-            fileEntity.setUrl(uploadDirectory + uniqueFilename);
+            fileEntity.setUrl(blobStore.locationOf(uniqueFilename));
             fileEntity.setDeleted(false);
             fileEntity.setType(file.getContentType());
 
@@ -95,17 +87,26 @@ public class FileServiceImpl implements FileService {
     }
 
     /**
-     * Retrieves the byte array of a file.
+     * Retrieves the content of a file.
+     * Small files are served from the hot file cache, so popular pictures do not hit the storage on every request;
+     * a cached file is returned as a read-only view of the off-heap buffer, without copying it.
      *
      * @param imageName The name of the image file.
-     * @return The byte array of the file.
+     * @return The content of the file.
      * @throws FileNotFoundException        If the file is not found.
      * @throws InternalServerErrorException If an internal server error occurs.
      */
     @Override
-    public byte[] getFileBytes(String imageName) {
+    public ByteBuffer getFileContent(String imageName) {
+        ByteBuffer cachedContent = hotFileCache.get(imageName);
+        if (cachedContent != null) {
+            return cachedContent;
+        }
+
         try {
-            return Files.readAllBytes(Paths.get(uploadDirectory, imageName));
+            byte[] fileBytes = blobStore.readAllBytes(imageName);
+            hotFileCache.offer(imageName, fileBytes);
+            return ByteBuffer.wrap(fileBytes).asReadOnlyBuffer();
         } catch (NoSuchFileException e) {
             throw new FileNotFoundException(messageSource);
         } catch (IOException e) {
@@ -113,8 +114,37 @@ public class FileServiceImpl implements FileService {
         }
     }
 
+    /**
+     * Opens a file for streaming, without loading it in memory.
+     *
+     * @param filename The name of the file.
+     * @return The content of the file. The caller closes the stream.
+     * @throws FileNotFoundException        If the file is not found.
+     * @throws InternalServerErrorException If an internal server error occurs.
+     */
+    @Override
+    public InputStream openFileStream(String filename) {
+        try {
+            return blobStore.open(filename);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(messageSource);
+        } catch (IOException e) {
+            throw new InternalServerErrorException(messageSource);
+        }
+    }
+
+    /**
+     * Returns a time-limited URL the client can use to download the file directly from the storage,
+     * or an empty Optional when the storage backend serves files only through the application.
+     */
+    @Override
+    public Optional<String> getPresignedUrl(String filename) {
+        return blobStore.presignedUrl(filename, presignedUrlValidity);
+    }
+
     /**
      * Saves the file and returns the unique filename.
+     * The content is streamed to the storage backend.
      *
      * @param file The file to save.
      * @return The unique filename of the saved file.
@@ -122,9 +152,9 @@ public class FileServiceImpl implements FileService {
      */
     @Override
     public String saveFileAndGetUniqueFilename(MultipartFile file) {
-        try {
+        try (InputStream content = file.getInputStream()) {
             String uniqueFilename = generateUniqueFilename(file.getOriginalFilename());
-            Files.copy(file.getInputStream(), createFilePath(uniqueFilename), StandardCopyOption.REPLACE_EXISTING);
+            blobStore.put(uniqueFilename, content, file.getSize(), file.getContentType());
             return uniqueFilename;
         } catch (IOException e) {
             throw new InternalServerErrorException(messageSource);
@@ -4,6 +4,8 @@ import com.coolSchool.coolSchool.config.schedulers.QuizAttemptTimer;
 import com.coolSchool.coolSchool.exceptions.course.CourseNotFoundException;
 import com.coolSchool.coolSchool.exceptions.courseSubsection.CourseSubsectionNotFoundException;
 import com.coolSchool.coolSchool.exceptions.quizzes.*;
+import com.coolSchool.coolSchool.mappers.CourseMapper;
+import com.coolSchool.coolSchool.mappers.QuizMapper;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
 import com.coolSchool.coolSchool.models.dto.common.*;
 import com.coolSchool.coolSchool.models.dto.response.CourseResponseDTO;
@@ -14,10 +16,10 @@ import com.coolSchool.coolSchool.services.AnswerService;
 import com.coolSchool.coolSchool.services.QuestionService;
 import com.coolSchool.coolSchool.services.QuizService;
 import com.coolSchool.coolSchool.services.UserService;
-import jakarta.transaction.Transactional;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -42,8 +44,10 @@ public class QuizServiceImpl implements QuizService {
     private final MessageSource messageSource;
     private final QuizAttemptTimer quizAttemptTimer;
     private final UserCourseRepository userCourseRepository;
+    private final QuizMapper quizMapper;
+    private final CourseMapper courseMapper;
 
-    public QuizServiceImpl(QuizRepository quizRepository, ModelMapper modelMapper, QuestionService questionService, AnswerService answerService, UserService userService, UserAnswerRepository userAnswerRepository, QuizAttemptRepository quizAttemptRepository, CourseSubsectionRepository courseSubsectionRepository, CourseRepository courseRepository, UserQuizProgressRepository userQuizProgressRepository, MessageSource messageSource, QuizAttemptTimer quizAttemptTimer, UserCourseRepository userCourseRepository) {
+    public QuizServiceImpl(QuizRepository quizRepository, ModelMapper modelMapper, QuestionService questionService, AnswerService answerService, UserService userService, UserAnswerRepository userAnswerRepository, QuizAttemptRepository quizAttemptRepository, CourseSubsectionRepository courseSubsectionRepository, CourseRepository courseRepository, UserQuizProgressRepository userQuizProgressRepository, MessageSource messageSource, QuizAttemptTimer quizAttemptTimer, UserCourseRepository userCourseRepository, QuizMapper quizMapper, CourseMapper courseMapper) {
         this.quizRepository = quizRepository;
         this.modelMapper = modelMapper;
         this.questionService = questionService;
@@ -57,18 +61,20 @@ public class QuizServiceImpl implements QuizService {
         this.messageSource = messageSource;
         this.quizAttemptTimer = quizAttemptTimer;
         this.userCourseRepository = userCourseRepository;
+        this.quizMapper = quizMapper;
+        this.courseMapper = courseMapper;
     }
 
     @Override
     public List<QuizDTO> getAllQuizzes() {
         List<Quiz> quizzes = quizRepository.findByDeletedFalse();
-        return quizzes.stream().map(quiz -> modelMapper.map(quiz, QuizDTO.class)).toList();
+        return quizzes.stream().map(quizMapper::toQuizDTO).toList();
     }
 
     @Override
     public QuizDTO getQuizInfoById(Long id) {
         Quiz quiz = quizRepository.findByIdAndDeletedFalse(id).orElseThrow(() -> new QuizNotFoundException(messageSource));
-        QuizDTO quizDTO = modelMapper.map(quiz, QuizDTO.class);
+        QuizDTO quizDTO = quizMapper.toQuizDTO(quiz);
         quizDTO.setCourseId(quiz.getSubsection().getCourse().getId());
 
         return quizDTO;
@@ -86,7 +92,7 @@ public class QuizServiceImpl implements QuizService {
     public QuizQuestionsAnswersDTO getQuizById(Long id, Long userId) {
         Quiz quiz = quizRepository.findByIdAndDeletedFalse(id).orElseThrow(() -> new QuizNotFoundException(messageSource));
         List<Question> questions = questionService.getQuestionsByQuizId(id);
-        QuizDTO quizDTO = modelMapper.map(quiz, QuizDTO.class);
+        QuizDTO quizDTO = quizMapper.toQuizDTO(quiz);
 
         AtomicReference<List<AnswerDTO>> filteredAnswers = new AtomicReference<>();
 
@@ -130,7 +136,7 @@ public class QuizServiceImpl implements QuizService {
         List<Quiz> quizzes = quizRepository.findBySubsectionIdAndDeletedFalse(subsectionId);
         return quizzes.stream()
                 .map(quiz -> {
-                    QuizDTO quizDTO = modelMapper.map(quiz, QuizDTO.class);
+                    QuizDTO quizDTO = quizMapper.toQuizDTO(quiz);
                     quizDTO.setCourseId(quiz.getSubsection().getCourse().getId());
 
                     return quizDTO;
@@ -146,6 +152,7 @@ public class QuizServiceImpl implements QuizService {
      * @throws MultipleCorrectAnswersException if multiple correct answers are found for a single question.
      */
     @Override
+    @Transactional
     public QuizDTO createQuiz(QuizDataDTO quizData) {
         QuizDTO quizDTO = quizData.getQuizDTO();
         List<QuestionAndAnswersDTO> questionAndAnswersList = quizData.getData();
@@ -177,7 +184,7 @@ public class QuizServiceImpl implements QuizService {
         savedQuiz.setTotalMarks(quizTotalMarks);
         quizRepository.save(savedQuiz);
 
-        return modelMapper.map(savedQuiz, QuizDTO.class);
+        return quizMapper.toQuizDTO(savedQuiz);
     }
 
     /**
@@ -194,7 +201,7 @@ public class QuizServiceImpl implements QuizService {
         QuizDTO updatedQuizDTO = updatedQuizData.getQuizDTO();
         List<QuestionAndAnswersDTO> updatedQuestionAndAnswersList = updatedQuizData.getData();
 
-        Quiz existingQuiz = quizRepository.findById(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
+        Quiz existingQuiz = quizRepository.findByIdAndDeletedFalse(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
 
         CourseSubsection courseSubsection = courseSubsectionRepository.findByIdAndDeletedFalse(updatedQuizDTO.getSubsectionId()).orElseThrow(() -> new CourseSubsectionNotFoundException(messageSource));
 
@@ -222,7 +229,7 @@ public class QuizServiceImpl implements QuizService {
                 answerService.updateAnswer(updatedAnswerDTO.getId(), updatedAnswerDTO);
             }
         }
-        return modelMapper.map(savedQuiz, QuizDTO.class);
+        return quizMapper.toQuizDTO(savedQuiz);
     }
 
     /**
@@ -263,7 +270,7 @@ public class QuizServiceImpl implements QuizService {
      */
     @Override
     public QuizAttemptDTO takeQuiz(Long quizId, Long userId) {
-        Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
+        Quiz quiz = quizRepository.findByIdAndDeletedFalse(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
 
         int quizDurationInMinutes = quiz.getQuizDurationInMinutes();
         LocalDateTime startTime = LocalDateTime.now();
@@ -296,7 +303,7 @@ public class QuizServiceImpl implements QuizService {
         quizAttempt.setTimeLeft(quiz.getQuizDurationInMinutes());
         quizAttemptRepository.save(quizAttempt);
 
-        return modelMapper.map(quizAttempt, QuizAttemptDTO.class);
+        return quizMapper.toQuizAttemptDTO(quizAttempt);
     }
 
     /**
@@ -312,8 +319,9 @@ public class QuizServiceImpl implements QuizService {
      * @throws QuizAttemptNotFoundException if the quiz attempt with the specified ID is not found.
      */
     @Override
+    @Transactional
     public QuizResultDTO submitQuiz(Long quizId, List<UserAnswerDTO> userAnswers, Long userId, Long attemptId) {
-        Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
+        Quiz quiz = quizRepository.findByIdAndDeletedFalse(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
 
         LocalDateTime currentTime = LocalDateTime.now();
         if (currentTime.isBefore(quiz.getStartTime()) || currentTime.isAfter(quiz.getEndTime())) {
@@ -349,7 +357,7 @@ public class QuizServiceImpl implements QuizService {
         quizAttempt.setCompleted(true);
         quizAttempt.setQuizCompletionTime(LocalDateTime.now());
         QuizAttempt savedQuizAttempt = quizAttemptRepository.save(quizAttempt);
-        return new QuizResultDTO(new QuizAttemptDTO(savedQuizAttempt.getId(), modelMapper.map(quiz, QuizDTO.class),
+        return new QuizResultDTO(new QuizAttemptDTO(savedQuizAttempt.getId(), quizMapper.toQuizDTO(quiz),
                 userAnswers, savedQuizAttempt.getTotalMarks(), savedQuizAttempt.getAttemptNumber(), 0L, 0L, savedQuizAttempt.isCompleted()));
     }
 
@@ -361,13 +369,14 @@ public class QuizServiceImpl implements QuizService {
      * @throws QuizAttemptNotFoundException if the quiz attempt with the specified ID is not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public QuizAttemptDTO getQuizAttemptDetails(Long quizAttemptId) {
         QuizAttempt quizAttempt = quizAttemptRepository.findById(quizAttemptId)
                 .orElseThrow(() -> new QuizAttemptNotFoundException(messageSource));
 
         long timeLeft = calculateTimeLeftForQuizAttempt(quizAttempt.getId(), quizAttempt.getQuiz().getQuizDurationInMinutes());
 
-        QuizAttemptDTO quizAttemptDTO = modelMapper.map(quizAttempt, QuizAttemptDTO.class);
+        QuizAttemptDTO quizAttemptDTO = quizMapper.toQuizAttemptDTO(quizAttempt);
         quizAttemptDTO.setTimeLeft(timeLeft);
 
         return quizAttemptDTO;
@@ -381,11 +390,12 @@ public class QuizServiceImpl implements QuizService {
      * @return The list of DTOs representing the quiz attempts.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<QuizAttemptDTO> getAllUserAttemptsInAQuiz(Long quizId, PublicUserDTO publicUserDTO) {
         List<QuizAttempt> quizAttempts = quizAttemptRepository.findByQuizIdAndUserId(quizId, publicUserDTO.getId());
 
         return quizAttempts.stream()
-                .map(quizAttempt -> modelMapper.map(quizAttempt, QuizAttemptDTO.class))
+                .map(quizMapper::toQuizAttemptDTO)
                 .collect(Collectors.toList());
     }
 
@@ -407,7 +417,7 @@ public class QuizServiceImpl implements QuizService {
         UserQuizProgressDTO userQuizProgressDTO = new UserQuizProgressDTO();
 
         QuizAttempt quizAttempt = quizAttemptRepository.findById(quizAttemptId).orElseThrow(() -> new QuizAttemptNotFoundException(messageSource));
-        Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
+        Quiz quiz = quizRepository.findByIdAndDeletedFalse(quizId).orElseThrow(() -> new QuizNotFoundException(messageSource));
 
         userQuizProgressDTO.setUserId(userId);
         userQuizProgressDTO.setQuizId(quizId);
@@ -474,11 +484,12 @@ public class QuizServiceImpl implements QuizService {
      * @return The list of DTOs representing the highest scores in quizzes.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<QuizAttemptDTO> getAllUserHighestScoresInQuizzes(Long userId) {
         List<QuizAttempt> quizAttempts = quizAttemptRepository.findByUserId(userId);
 
         List<QuizAttemptDTO> quizAttemptDTOs = quizAttempts.stream()
-                .map(quizAttempt -> modelMapper.map(quizAttempt, QuizAttemptDTO.class)).toList();
+                .map(quizMapper::toQuizAttemptDTO).toList();
 
         Map<Long, List<QuizAttemptDTO>> quizAttemptsByQuizId = quizAttemptDTOs.stream()
                 .collect(Collectors.groupingBy(quizAttemptDTO -> quizAttemptDTO.getQuiz().getId()));
@@ -523,6 +534,7 @@ public class QuizServiceImpl implements QuizService {
      * @return The list of DTOs representing user course details with quiz success percentage.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<UserCourseDTO> calculateQuizSuccessPercentageForCurrentUser(PublicUserDTO publicUserDTO) {
         List<QuizAttempt> quizAttempts = quizAttemptRepository.findByUserId(publicUserDTO.getId());
 
@@ -540,7 +552,7 @@ public class QuizServiceImpl implements QuizService {
         }
 
         Map<Long, List<Quiz>> quizzesByCourseId = highestScoresByQuizId.keySet().stream()
-                .map(quizId -> quizRepository.findById(quizId).orElse(null))
+                .map(quizId -> quizRepository.findByIdAndDeletedFalse(quizId).orElse(null))
                 .filter(Objects::nonNull)
                 .collect(Collectors.groupingBy(quiz -> quiz.getSubsection().getCourse().getId()));
 
@@ -548,7 +560,7 @@ public class QuizServiceImpl implements QuizService {
         for (Map.Entry<Long, List<Quiz>> entry : quizzesByCourseId.entrySet()) {
             Long courseId = entry.getKey();
             Course course = courseRepository.findByIdAndDeletedFalse(courseId).orElseThrow(() -> new CourseNotFoundException(messageSource));
-            CourseResponseDTO courseResponseDTO = modelMapper.map(course, CourseResponseDTO.class);
+            CourseResponseDTO courseResponseDTO = courseMapper.toResponseDTO(course);
             List<Quiz> quizzesInCourse = entry.getValue();
 
             BigDecimal totalHighestScore = BigDecimal.ZERO;
@@ -1,52 +1,76 @@
 package com.coolSchool.coolSchool.services.impl;
 
+import com.coolSchool.coolSchool.enums.FileType;
 import com.coolSchool.coolSchool.exceptions.courseSubsection.CourseSubsectionNotFoundException;
 import com.coolSchool.coolSchool.exceptions.files.FileNotFoundException;
 import com.coolSchool.coolSchool.exceptions.resource.ResourceNotFoundException;
 import com.coolSchool.coolSchool.models.dto.request.ResourceRequestDTO;
 import com.coolSchool.coolSchool.models.dto.response.ResourceResponseDTO;
+import com.coolSchool.coolSchool.models.entity.File;
 import com.coolSchool.coolSchool.models.entity.Resource;
 import com.coolSchool.coolSchool.repositories.CourseSubsectionRepository;
 import com.coolSchool.coolSchool.repositories.FileRepository;
 import com.coolSchool.coolSchool.repositories.ResourceRepository;
+import com.coolSchool.coolSchool.services.FileService;
 import com.coolSchool.coolSchool.services.ResourceService;
+import com.coolSchool.coolSchool.storage.UploadShardLayout;
+import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import static org.codehaus.plexus.util.FileUtils.getExtension;
+
+@Slf4j
 @Service
 public class ResourceServiceImpl implements ResourceService {
+    private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
     private final ResourceRepository resourceRepository;
     private final ModelMapper modelMapper;
     private final CourseSubsectionRepository courseSubsectionRepository;
     private final FileRepository fileRepository;
     private final MessageSource messageSource;
+    private final FileService fileService;
 
-    public ResourceServiceImpl(ResourceRepository resourceRepository, ModelMapper modelMapper, CourseSubsectionRepository courseSubsectionRepository, FileRepository fileRepository, MessageSource messageSource) {
+    public ResourceServiceImpl(ResourceRepository resourceRepository, ModelMapper modelMapper, CourseSubsectionRepository courseSubsectionRepository, FileRepository fileRepository, MessageSource messageSource, FileService fileService) {
         this.resourceRepository = resourceRepository;
         this.modelMapper = modelMapper;
         this.courseSubsectionRepository = courseSubsectionRepository;
         this.fileRepository = fileRepository;
         this.messageSource = messageSource;
+        this.fileService = fileService;
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<ResourceResponseDTO> getAllResources() {
         List<Resource> resources = resourceRepository.findByDeletedFalse();
         return resources.stream().map(resource -> modelMapper.map(resource, ResourceResponseDTO.class)).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ResourceResponseDTO> getBySubsection(Long id) {
         List<Resource> resources = resourceRepository.findAllBySubsectionIdAndDeletedFalse(id);
         return resources.stream().map(resource -> modelMapper.map(resource, ResourceResponseDTO.class)).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ResourceResponseDTO getResourceById(Long id) {
         Optional<Resource> resource = resourceRepository.findByIdAndDeletedFalse(id);
         if (resource.isPresent()) {
@@ -65,6 +89,7 @@ public class ResourceServiceImpl implements ResourceService {
     }
 
     @Override
+    @Transactional
     public ResourceResponseDTO updateResource(Long id, ResourceRequestDTO resourceDTO) {
         Optional<Resource> existingResourceOptional = resourceRepository.findByIdAndDeletedFalse(id);
 
@@ -94,4 +119,88 @@ public class ResourceServiceImpl implements ResourceService {
             throw new ResourceNotFoundException(messageSource);
         }
     }
+
+    /**
+     * Returns a ZIP archive with the files of all resources in a subsection.
+     * The archive is written straight to the response while the files are read, one buffer at a time,
+     * so memory use does not depend on the size of the archive and nothing is written to disk.
+     *
+     * @throws CourseSubsectionNotFoundException If the subsection does not exist.
+     */
+    @Override
+    public StreamingResponseBody getSubsectionArchive(Long subsectionId) {
+        courseSubsectionRepository.findByIdAndDeletedFalse(subsectionId).orElseThrow(() -> new CourseSubsectionNotFoundException(messageSource));
+        // Loaded here together with their files, the body is written on another thread after the request has returned
+        List<Resource> resources = resourceRepository.findAllBySubsectionIdAndDeletedFalse(subsectionId);
+        return outputStream -> writeArchive(resources, outputStream);
+    }
+
+    private void writeArchive(List<Resource> resources, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        Set<String> entryNames = new HashSet<>();
+        byte[] buffer = new byte[ARCHIVE_BUFFER_SIZE];
+
+        for (Resource resource : resources) {
+            File file = resource.getFile();
+            String filename = UploadShardLayout.filenameOf(file.getUrl());
+            String extension = getExtension(file.getName());
+            // Already compressed formats are stored as they are, only the other ones are deflated
+            boolean stored = FileType.isCompressedExtension(extension);
+            CRC32 crc = new CRC32();
+            long size = 0;
+            InputStream content;
+            try {
+                if (stored) {
+                    size = checksum(filename, crc, buffer);
+                }
+                content = fileService.openFileStream(filename);
+            } catch (FileNotFoundException e) {
+                // The response is already being sent, leave the missing file out instead of breaking the whole archive
+                log.warn("File {} of resource {} is missing, it is left out of the archive", file.getUrl(), resource.getId());
+                continue;
+            }
+
+            try (content) {
+                ZipEntry entry = new ZipEntry(uniqueEntryName(resource.getName(), extension, entryNames));
+                if (stored) {
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(size);
+                    entry.setCompressedSize(size);
+                    entry.setCrc(crc.getValue());
+                }
+                zip.putNextEntry(entry);
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+    }
+
+    // A stored entry needs its size and CRC before its data, so the file is read once more before it is written.
+    // Reading it is cheaper than deflating content which does not get any smaller
+    private long checksum(String filename, CRC32 crc, byte[] buffer) throws IOException {
+        long size = 0;
+        try (InputStream content = fileService.openFileStream(filename)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        return size;
+    }
+
+    // Resource names are free text, they may repeat or contain path separators
+    private String uniqueEntryName(String resourceName, String extension, Set<String> entryNames) {
+        String baseName = resourceName.replaceAll("[\\\\/:*?\"<>|]", "_").trim();
+        String suffix = extension.isEmpty() || baseName.toLowerCase().endsWith("." + extension.toLowerCase()) ? "" : "." + extension;
+        String entryName = baseName + suffix;
+        for (int copy = 2; !entryNames.add(entryName); copy++) {
+            entryName = baseName + " (" + copy + ")" + suffix;
+        }
+        return entryName;
+    }
 }
@@ -19,6 +19,7 @@ import com.coolSchool.coolSchool.services.ReviewService;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
@@ -43,6 +44,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewResponseDTO> getAllReviews(Long courseId) {
         CourseResponseDTO courseDTO = courseService.getCourseById(courseId);
         List<Review> reviews = reviewRepository.findAllByCourse(modelMapper.map(courseDTO, Course.class));
@@ -50,6 +52,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ReviewResponseDTO getReviewById(Long id) {
         Optional<Review> review = reviewRepository.findByIdAndDeletedFalse(id);
         if (review.isPresent()) {
@@ -83,6 +86,7 @@ public class ReviewServiceImpl implements ReviewService {
      * @throws AccessDeniedException   If the logged-in user is not authorized or does not have the permissions to delete the review.
      */
     @Override
+    @Transactional
     public void deleteReview(Long id, PublicUserDTO loggedUser) {
         Optional<Review> review = reviewRepository.findByIdAndDeletedFalse(id);
         if (review.isPresent()) {
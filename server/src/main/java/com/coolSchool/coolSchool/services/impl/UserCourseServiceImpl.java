@@ -16,6 +16,7 @@ import com.coolSchool.coolSchool.services.UserCourseService;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,12 +38,14 @@ public class UserCourseServiceImpl implements UserCourseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserCourseResponseDTO> getAllUserCourses() {
         List<UserCourse> userCourses = userCourseRepository.findByDeletedFalse();
         return userCourses.stream().map(userCourse -> modelMapper.map(userCourse, UserCourseResponseDTO.class)).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserCourseResponseDTO getUserCourseById(Long id) {
         Optional<UserCourse> userCourse = userCourseRepository.findByIdAndDeletedFalse(id);
         if (userCourse.isPresent()) {
@@ -70,6 +73,7 @@ public class UserCourseServiceImpl implements UserCourseService {
     }
 
     @Override
+    @Transactional
     public UserCourseResponseDTO updateUserCourse(Long id, UserCourseRequestDTO userCourseDTO) {
         Optional<UserCourse> existingUserCourseOptional = userCourseRepository.findByIdAndDeletedFalse(id);
 
@@ -5,6 +5,7 @@ import com.coolSchool.coolSchool.enums.Role;
 import com.coolSchool.coolSchool.exceptions.common.AccessDeniedException;
 import com.coolSchool.coolSchool.exceptions.user.UserCreateException;
 import com.coolSchool.coolSchool.exceptions.user.UserNotFoundException;
+import com.coolSchool.coolSchool.mappers.UserMapper;
 import com.coolSchool.coolSchool.models.dto.auth.AdminUserDTO;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
 import com.coolSchool.coolSchool.models.dto.auth.RegisterRequest;
@@ -14,6 +15,7 @@ import com.coolSchool.coolSchool.models.entity.VerificationToken;
 import com.coolSchool.coolSchool.repositories.UserRepository;
 import com.coolSchool.coolSchool.repositories.VerificationTokenRepository;
 import com.coolSchool.coolSchool.security.CustomOAuth2User;
+import com.coolSchool.coolSchool.security.PrincipalCache;
 import com.coolSchool.coolSchool.services.UserService;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +36,8 @@ public class UserServiceImpl implements UserService {
     private final ModelMapper modelMapper;
     private final MessageSource messageSource;
     private final VerificationTokenRepository verificationTokenRepository;
+    private final PrincipalCache principalCache;
+    private final UserMapper userMapper;
 
     /**
      * Creates a new user based on the provided registration request.
@@ -78,7 +82,7 @@ public class UserServiceImpl implements UserService {
         return userRepository
                 .findAll()
                 .stream()
-                .map(x -> modelMapper.map(x, AdminUserDTO.class))
+                .map(userMapper::toAdminUserDTO)
                 .toList();
     }
 
@@ -90,11 +94,14 @@ public class UserServiceImpl implements UserService {
             throw new AccessDeniedException(messageSource);
         }
 
+        String previousEmail = userToUpdate.getEmail();
         modelMapper.map(userDTO, userToUpdate);
         userToUpdate.setId(id);
 
         User updatedUser = userRepository.save(userToUpdate);
-        return modelMapper.map(updatedUser, AdminUserDTO.class);
+        principalCache.evict(previousEmail);
+        principalCache.evict(userToUpdate.getEmail());
+        return userMapper.toAdminUserDTO(updatedUser);
     }
 
 
@@ -108,6 +115,7 @@ public class UserServiceImpl implements UserService {
 
         user.setDeleted(true);
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
     }
 
     /**
@@ -157,7 +165,9 @@ public class UserServiceImpl implements UserService {
         user.setRole(request.getRole());
         user.setAdditionalInfoRequired(false);
 
-        return userRepository.save(user);
+        User updatedUser = userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        return updatedUser;
     }
 
     public User findById(Long id) {
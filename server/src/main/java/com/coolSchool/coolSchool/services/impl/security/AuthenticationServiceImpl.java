@@ -1,8 +1,10 @@
 package com.coolSchool.coolSchool.services.impl.security;
 
+import com.coolSchool.coolSchool.enums.TokenRevocationMode;
 import com.coolSchool.coolSchool.enums.TokenType;
 import com.coolSchool.coolSchool.exceptions.token.InvalidTokenException;
 import com.coolSchool.coolSchool.exceptions.user.UserLoginException;
+import com.coolSchool.coolSchool.mappers.UserMapper;
 import com.coolSchool.coolSchool.models.dto.auth.AuthenticationRequest;
 import com.coolSchool.coolSchool.models.dto.auth.AuthenticationResponse;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
@@ -13,14 +15,15 @@ import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.models.entity.VerificationToken;
 import com.coolSchool.coolSchool.repositories.UserRepository;
 import com.coolSchool.coolSchool.repositories.VerificationTokenRepository;
+import com.coolSchool.coolSchool.security.PrincipalCache;
 import com.coolSchool.coolSchool.services.AuthenticationService;
 import com.coolSchool.coolSchool.services.JwtService;
 import com.coolSchool.coolSchool.services.TokenService;
 import com.coolSchool.coolSchool.services.UserService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -29,7 +32,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Objects;
 import java.util.function.Consumer;
 
 @Service
@@ -39,11 +42,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final TokenService tokenService;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final MessageSource messageSource;
     private final VerificationTokenRepository verificationTokenRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     /**
      * Registers a new user based on the provided registration request.
@@ -87,8 +91,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     /**
      * Generates a new access token and updates the refresh token based on the provided refresh token.
      * If the refresh token is missing or invalid, it throws an InvalidTokenException.
-     * If the refresh token is valid, it generates a new access token, revokes all existing user tokens,
-     * and updates the refresh token to the provided one.
+     * If the refresh token is valid, it generates a new access token and revokes all other user tokens,
+     * keeping the provided refresh token. The refresh token is read together with its user in one query.
      */
     @Override
     public AuthenticationResponse refreshToken(String refreshToken) {
@@ -108,13 +112,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new InvalidTokenException(messageSource);
         }
 
-        // Make sure token is a refresh token not access token
-        Token token = tokenService.findByToken(refreshToken);
-        if (token != null && token.tokenType != TokenType.REFRESH) {
+        if (tokenService.getRevocationMode() == TokenRevocationMode.VERSION) {
+            return refreshVersionedToken(refreshToken);
+        }
+
+        // Make sure token is a stored refresh token not access token
+        Token token = tokenService.findTokenPair(null, refreshToken).refreshToken();
+        if (token == null || token.tokenType != TokenType.REFRESH) {
             throw new InvalidTokenException(messageSource);
         }
 
-        User user = userService.findByEmail(userEmail);
+        User user = token.getUser();
 
         if (!jwtService.isTokenValid(refreshToken, user)) {
             tokenService.revokeToken(token);
@@ -123,9 +131,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
         String accessToken = jwtService.generateToken(user);
 
-        tokenService.revokeAllUserTokens(user);
-        tokenService.saveToken(user, accessToken, TokenType.ACCESS);
-        tokenService.saveToken(user, refreshToken, TokenType.REFRESH);
+        tokenService.rotateAccessToken(user, token, accessToken);
 
         return AuthenticationResponse
                 .builder()
@@ -137,16 +143,23 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     /**
      * Retrieves user information based on the provided JWT token.
      * If the token is invalid or missing, it throws an InvalidTokenException.
-     * If the token is valid, it retrieves the user's access and refresh tokens, updates the refresh token if necessary,
+     * If the token is valid, it keeps the refresh token of the request when it is still valid, otherwise issues a new one
+     * (only token digests are stored, so the stored refresh token can not be sent back),
      * and returns an authentication response containing the user's information and tokens.
+     * Both tokens and the user are read with one query, the public user is taken from the PrincipalCache.
      */
     @Override
-    public AuthenticationResponse me(String jwtToken) {
+    public AuthenticationResponse me(String jwtToken, String refreshToken) {
         if (jwtToken == null || jwtToken.isEmpty()) {
             throw new InvalidTokenException(messageSource);
         }
 
-        Token accessToken = tokenService.findByToken(jwtToken);
+        if (tokenService.getRevocationMode() == TokenRevocationMode.VERSION) {
+            return meWithVersionedToken(jwtToken);
+        }
+
+        TokenService.TokenPair tokens = tokenService.findTokenPair(jwtToken, refreshToken);
+        Token accessToken = tokens.accessToken();
 
         if (accessToken == null) {
             throw new InvalidTokenException(messageSource);
@@ -157,7 +170,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         boolean isTokenValid;
 
         try {
-            isTokenValid = jwtService.isTokenValid(accessToken.getToken(), user);
+            isTokenValid = jwtService.isTokenValid(jwtToken, user);
         } catch (JwtException jwtException) {
             isTokenValid = false;
         }
@@ -167,32 +180,93 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new InvalidTokenException(messageSource);
         }
 
-        List<Token> tokens = tokenService.findByUser(user);
-        Token refreshToken = tokens.stream().filter(x -> x.getTokenType() == TokenType.REFRESH).toList().get(0);
-
-        if (refreshToken == null) {
-            throw new InvalidTokenException(messageSource);
-        }
-
         String refreshTokenString;
 
-        if (!jwtService.isTokenValid(refreshToken.getToken(), user)) {
+        if (!isRefreshTokenValid(refreshToken, tokens.refreshToken(), user)) {
             refreshTokenString = jwtService.generateRefreshToken(user);
             tokenService.saveToken(user, refreshTokenString, TokenType.REFRESH);
         } else {
-            refreshTokenString = refreshToken.getToken();
+            refreshTokenString = refreshToken;
         }
 
-        PublicUserDTO publicUser = modelMapper.map(accessToken.getUser(), PublicUserDTO.class);
+        PublicUserDTO publicUser = principalCache.get(user.getEmail(),
+                email -> PrincipalCache.AuthenticatedPrincipal.of(user, userMapper.toPublicUserDTO(user)))
+                .publicUser();
 
         return AuthenticationResponse
                 .builder()
-                .accessToken(accessToken.getToken())
+                .accessToken(jwtToken)
                 .refreshToken(refreshTokenString)
                 .user(publicUser)
                 .build();
     }
 
+    private boolean isRefreshTokenValid(String refreshToken, Token storedToken, User user) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return false;
+        }
+
+        if (storedToken == null || storedToken.getTokenType() != TokenType.REFRESH
+                || !Objects.equals(storedToken.getUser().getId(), user.getId())) {
+            return false;
+        }
+
+        try {
+            return jwtService.isTokenValid(refreshToken, user);
+        } catch (JwtException jwtException) {
+            return false;
+        }
+    }
+
+    /**
+     * Refresh with revocation-mode version. The refresh token is checked by its claims instead of the tokens table.
+     * Incrementing the token version revokes the old pair, so a new refresh token is issued with the access token.
+     */
+    private AuthenticationResponse refreshVersionedToken(String refreshToken) {
+        Claims claims = jwtService.verifyToken(refreshToken);
+        User user = verifyVersionedToken(refreshToken, claims, TokenType.REFRESH);
+
+        tokenService.revokeAllUserTokens(user);
+
+        return AuthenticationResponse
+                .builder()
+                .accessToken(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user))
+                .build();
+    }
+
+    /**
+     * Me with revocation-mode version. Refresh tokens are not stored, so a new one is issued for the current version.
+     */
+    private AuthenticationResponse meWithVersionedToken(String jwtToken) {
+        Claims claims;
+        try {
+            claims = jwtService.verifyToken(jwtToken);
+        } catch (JwtException exception) {
+            throw new InvalidTokenException(messageSource);
+        }
+        User user = verifyVersionedToken(jwtToken, claims, TokenType.ACCESS);
+
+        return AuthenticationResponse
+                .builder()
+                .accessToken(jwtToken)
+                .refreshToken(jwtService.generateRefreshToken(user))
+                .user(userMapper.toPublicUserDTO(user))
+                .build();
+    }
+
+    private User verifyVersionedToken(String jwt, Claims claims, TokenType tokenType) {
+        if (!tokenType.name().equals(claims.get(JwtServiceImpl.TOKEN_TYPE_CLAIM, String.class))) {
+            throw new InvalidTokenException(messageSource);
+        }
+
+        User user = userService.findByEmail(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, user) || !tokenService.isTokenActive(jwt, claims, user.getTokenVersion())) {
+            throw new InvalidTokenException(messageSource);
+        }
+        return user;
+    }
+
     @Override
     public void attachAuthCookies(AuthenticationResponse authenticationResponse, Consumer<Cookie> cookieConsumer) {
         tokenService.attachAuthCookies(authenticationResponse, cookieConsumer);
@@ -1,11 +1,20 @@
 package com.coolSchool.coolSchool.services.impl.security;
 
+import com.coolSchool.coolSchool.enums.TokenType;
+import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.services.JwtService;
+import com.coolSchool.coolSchool.utils.TokenDigest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -14,33 +23,66 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * Implementation of the JwtService interface responsible for JWT token generation, validation, and extraction.
+ * The signing key and the parser are built once. Verified claims are cached until the token expires,
+ * keyed by the SHA-256 digest of the token, so the following requests of the same session skip parsing
+ * and the signature check.
  */
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    // Secret key used for signing JWT tokens
-    @Value("${spring.security.jwt.secret-key}")
-    private String secretKey;
+    // Claims added to every token, read when tokens are revoked by version (see TokenServiceImpl)
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+    public static final String TOKEN_VERSION_CLAIM = "token_version";
 
-    // JWT token expiration time in milliseconds
-    @Value("${spring.security.jwt.expiration}")
-    private long jwtExpiration;
+    private static final long DEFAULT_CLAIMS_CACHE_SIZE = 10_000;
 
     // JWT token expiration time in milliseconds
-    @Value("${spring.security.jwt.refresh-token.expiration}")
-    private long refreshExpiration;
+    private final long jwtExpiration;
 
-    public JwtServiceImpl() {
-    }
+    // Refresh token expiration time in milliseconds
+    private final long refreshExpiration;
+
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedClaims;
 
     public JwtServiceImpl(String secretKey, long jwtExpiration, long refreshExpiration) {
-        this.secretKey = secretKey;
+        this(secretKey, jwtExpiration, refreshExpiration, DEFAULT_CLAIMS_CACHE_SIZE);
+    }
+
+    @Autowired
+    public JwtServiceImpl(@Value("${spring.security.jwt.secret-key}") String secretKey,
+                          @Value("${spring.security.jwt.expiration}") long jwtExpiration,
+                          @Value("${spring.security.jwt.refresh-token.expiration}") long refreshExpiration,
+                          @Value("${spring.security.jwt.claims-cache.max-size:10000}") long claimsCacheSize) {
         this.jwtExpiration = jwtExpiration;
         this.refreshExpiration = refreshExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     @Override
@@ -50,10 +92,32 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Parses and verifies the token once and returns its claims.
+     * Tokens that were already verified are answered from the cache without any cryptography.
+     *
+     * @throws io.jsonwebtoken.JwtException If the token is malformed, its signature is wrong or it has expired.
+     */
+    @Override
+    public Claims verifyToken(String token) {
+        String digest = TokenDigest.sha256(token);
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(digest, claims);
+            }
+        } else if (claims.getExpiration().before(new Date())) {
+            // The cache evicts lazily, an entry can outlive the token by a few milliseconds
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration());
+        }
+        return claims;
+    }
+
     @Override
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
@@ -64,20 +128,24 @@ public class JwtServiceImpl implements JwtService {
             Map<String, Object> extraClaims,
             UserDetails userDetails
     ) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        return buildToken(withTokenClaims(extraClaims, userDetails, TokenType.ACCESS), userDetails, jwtExpiration);
     }
 
     @Override
     public String generateRefreshToken(
             UserDetails userDetails
     ) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        return buildToken(withTokenClaims(new HashMap<>(), userDetails, TokenType.REFRESH), userDetails, refreshExpiration);
     }
 
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    @Override
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public String buildToken(
@@ -91,29 +159,20 @@ public class JwtServiceImpl implements JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Map<String, Object> withTokenClaims(Map<String, Object> extraClaims, UserDetails userDetails, TokenType tokenType) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(TOKEN_TYPE_CLAIM, tokenType.name());
+        if (userDetails instanceof User user) {
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return claims;
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return verifyToken(token);
     }
 }
@@ -2,13 +2,12 @@ package com.coolSchool.coolSchool.services.impl.security;
 
 import com.coolSchool.coolSchool.config.FrontendConfig;
 import com.coolSchool.coolSchool.models.entity.User;
+import com.coolSchool.coolSchool.services.EmailService;
 import com.coolSchool.coolSchool.services.UserService;
 import com.coolSchool.coolSchool.services.impl.security.events.OnPasswordResetRequestEvent;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.ApplicationListener;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -20,7 +19,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PasswordResetListener implements ApplicationListener<OnPasswordResetRequestEvent> {
 
-    private final JavaMailSender mailSender;
+    private final EmailService emailService;
     private final FrontendConfig frontendConfig;
     private final UserService service;
 
@@ -42,12 +41,7 @@ public class PasswordResetListener implements ApplicationListener<OnPasswordRese
         String subject = "Password Reset Request";
         String message = getEmailMessage(token, user);
 
-        SimpleMailMessage email = new SimpleMailMessage();
-        email.setTo(recipientAddress);
-        email.setSubject(subject);
-        email.setText(message);
-
-        mailSender.send(email);
+        emailService.enqueue(recipientAddress, subject, message);
     }
 
     @NotNull
@@ -1,14 +1,13 @@
 package com.coolSchool.coolSchool.services.impl.security;
 
 import com.coolSchool.coolSchool.models.entity.User;
+import com.coolSchool.coolSchool.services.EmailService;
 import com.coolSchool.coolSchool.services.UserService;
 import com.coolSchool.coolSchool.services.impl.security.events.OnRegistrationCompleteEvent;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -26,7 +25,7 @@ public class RegistrationListener implements ApplicationListener<OnRegistrationC
     private MessageSource messages;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailService emailService;
 
     @Override
     public void onApplicationEvent(@NotNull OnRegistrationCompleteEvent event) {
@@ -51,11 +50,6 @@ public class RegistrationListener implements ApplicationListener<OnRegistrationC
                 + "Best regards,\n"
                 + "Cool School Team!";
 
-        SimpleMailMessage email = new SimpleMailMessage();
-        email.setTo(recipientAddress);
-        email.setSubject(subject);
-        email.setText(message);
-
-        mailSender.send(email);
+        emailService.enqueue(recipientAddress, subject, message);
     }
 }
@@ -1,16 +1,23 @@
 package com.coolSchool.coolSchool.services.impl.security;
 
+import com.coolSchool.coolSchool.enums.TokenRevocationMode;
 import com.coolSchool.coolSchool.enums.TokenType;
+import com.coolSchool.coolSchool.mappers.UserMapper;
 import com.coolSchool.coolSchool.models.dto.auth.AuthenticationResponse;
-import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
 import com.coolSchool.coolSchool.models.entity.Token;
 import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.repositories.TokenRevocationRepository;
+import com.coolSchool.coolSchool.repositories.UserRepository;
+import com.coolSchool.coolSchool.security.ActiveTokenIndex;
+import com.coolSchool.coolSchool.security.PrincipalCache;
 import com.coolSchool.coolSchool.services.JwtService;
 import com.coolSchool.coolSchool.services.TokenService;
+import com.coolSchool.coolSchool.utils.TokenDigest;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -18,11 +25,19 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service implementation responsible for handling authentication tokens.
+ * <p>
+ * With revocation-mode table every issued token is stored and revoking deletes it.
+ * With revocation-mode version nothing is stored: the tokens carry the token_version of the user
+ * and revoking increments it, which invalidates all tokens of the user at once.
  */
 @RequiredArgsConstructor
 @Service
@@ -32,8 +47,14 @@ public class TokenServiceImpl implements TokenService {
     public final static String AUTH_COOKIE_KEY_JWT = "COOL_SCHOOL_SESSION_JWT";
     public final static String AUTH_COOKIE_KEY_REFRESH = "COOL_SCHOOL_SESSION_REFRESH";
     private final TokenRepository tokenRepository;
+    private final TokenRevocationRepository tokenRevocationRepository;
     private final JwtService jwtService;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
+    private final ActiveTokenIndex activeTokenIndex;
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    @Value("${spring.security.jwt.revocation-mode:table}")
+    private TokenRevocationMode revocationMode = TokenRevocationMode.TABLE;
     @Value("${spring.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
     @Value("${spring.security.jwt.expiration}")
@@ -41,7 +62,7 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public Token findByToken(String jwt) {
-        return tokenRepository.findByToken(jwt).orElse(null);
+        return tokenRepository.findByTokenHash(TokenDigest.sha256(jwt)).orElse(null);
     }
 
     @Override
@@ -49,34 +70,104 @@ public class TokenServiceImpl implements TokenService {
         return tokenRepository.findAllByUser(user);
     }
 
+    /**
+     * Finds both tokens and their user with a single query on the token_hash index.
+     */
+    @Override
+    public TokenPair findTokenPair(String accessToken, String refreshToken) {
+        List<String> tokenHashes = Stream.of(accessToken, refreshToken)
+                .filter(Objects::nonNull)
+                .map(TokenDigest::sha256)
+                .toList();
+        if (tokenHashes.isEmpty()) {
+            return new TokenPair(null, null);
+        }
+
+        List<Token> tokens = tokenRepository.findAllWithUserByTokenHashIn(tokenHashes);
+        return new TokenPair(findByHash(tokens, accessToken), findByHash(tokens, refreshToken));
+    }
+
+    private Token findByHash(List<Token> tokens, String jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        String tokenHash = TokenDigest.sha256(jwt);
+        return tokens.stream().filter(t -> t.getTokenHash().equals(tokenHash)).findFirst().orElse(null);
+    }
+
     @Override
     public void saveToken(User user, String jwtToken, TokenType tokenType) {
+        if (revocationMode == TokenRevocationMode.VERSION) {
+            return;
+        }
+
         Token token = Token.builder()
                 .user(user)
-                .token(jwtToken)
+                .tokenHash(TokenDigest.sha256(jwtToken))
                 .tokenType(tokenType)
+                .expiresAt(LocalDateTime.ofInstant(jwtService.verifyToken(jwtToken).getExpiration().toInstant(), ZoneId.systemDefault()))
                 .expired(false)
                 .revoked(false)
                 .build();
 
         tokenRepository.save(token);
+        activeTokenIndex.tokenSaved(token);
     }
 
     @Override
     public void revokeToken(Token token) {
+        if (revocationMode == TokenRevocationMode.VERSION) {
+            // Not stored, a single token can not be revoked and stays valid until it expires
+            return;
+        }
+
         tokenRepository.delete(token);
+        activeTokenIndex.tokensRevoked(List.of(token));
     }
 
     @Override
     public void revokeAllUserTokens(User user) {
-        tokenRepository.deleteAll(tokenRepository.findAllByUser(user));
+        if (revocationMode == TokenRevocationMode.VERSION) {
+            userRepository.incrementTokenVersion(user.getId());
+            // The tokens generated next for this user must carry the new version
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            principalCache.evict(user.getEmail());
+            return;
+        }
+
+        List<Token> tokens = tokenRepository.findAllByUser(user);
+        tokenRepository.deleteAll(tokens);
+        activeTokenIndex.tokensRevoked(tokens);
+    }
+
+    /**
+     * Revokes all tokens of the user except the given refresh token and stores the new access token.
+     * The revoked tokens are not loaded as entities nor deleted one by one: only their digests are read, the revocation
+     * log is written with INSERT ... SELECT and the tokens are removed with one DELETE.
+     * The token index of this instance drops them right away, the other instances apply the log with their next poll.
+     */
+    @Override
+    @Transactional
+    public void rotateAccessToken(User user, Token refreshToken, String accessToken) {
+        if (revocationMode == TokenRevocationMode.TABLE) {
+            LocalDateTime now = LocalDateTime.now();
+            List<TokenRepository.TokenView> revokedTokens = tokenRepository.findLiveOfUserExcept(user.getId(), refreshToken.getId(), now);
+            tokenRevocationRepository.insertForTokensOfUserExcept(user.getId(), refreshToken.getId(), now);
+            tokenRepository.deleteAllOfUserExcept(user.getId(), refreshToken.getId());
+            activeTokenIndex.tokensRevokedLocally(revokedTokens);
+        }
+        saveToken(user, accessToken, TokenType.ACCESS);
     }
 
     @Override
     @Transactional
     public void logoutToken(String jwt) {
-        Token storedToken = tokenRepository.findByToken(jwt)
-                .orElse(null);
+        if (revocationMode == TokenRevocationMode.VERSION) {
+            logoutVersionedToken(jwt);
+            return;
+        }
+
+        Token storedToken = findByToken(jwt);
 
         if (storedToken == null) {
             return;
@@ -86,6 +177,36 @@ public class TokenServiceImpl implements TokenService {
         SecurityContextHolder.clearContext();
     }
 
+    private void logoutVersionedToken(String jwt) {
+        String email;
+        try {
+            email = jwtService.verifyToken(jwt).getSubject();
+        } catch (JwtException e) {
+            return;
+        }
+
+        userRepository.findByEmail(email).ifPresent(this::revokeAllUserTokens);
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Returns true when the token, already verified by JwtService, has not been revoked.
+     * Answered from memory in both modes: by ActiveTokenIndex or by comparing the version claim with the user.
+     */
+    @Override
+    public boolean isTokenActive(String jwt, Claims claims, int tokenVersion) {
+        if (revocationMode == TokenRevocationMode.VERSION) {
+            Integer claimedVersion = claims.get(JwtServiceImpl.TOKEN_VERSION_CLAIM, Integer.class);
+            return claimedVersion != null && claimedVersion == tokenVersion;
+        }
+        return activeTokenIndex.isActive(jwt, claims.getExpiration());
+    }
+
+    @Override
+    public TokenRevocationMode getRevocationMode() {
+        return revocationMode;
+    }
+
     @Override
     public Cookie createJwtCookie(String jwt) {
         Cookie jwtCookie = new Cookie(AUTH_COOKIE_KEY_JWT, URLEncoder.encode(jwt, StandardCharsets.UTF_8));
@@ -126,7 +247,7 @@ public class TokenServiceImpl implements TokenService {
                 .builder()
                 .accessToken(jwtToken)
                 .refreshToken(refreshToken)
-                .user(modelMapper.map(user, PublicUserDTO.class))
+                .user(userMapper.toPublicUserDTO(user))
                 .build();
     }
 
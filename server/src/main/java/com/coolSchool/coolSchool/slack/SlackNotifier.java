@@ -2,40 +2,201 @@ package com.coolSchool.coolSchool.slack;
 
 import com.slack.api.Slack;
 import com.slack.api.webhook.Payload;
+import com.slack.api.webhook.WebhookResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SlackNotifier is a component responsible for sending notifications to Slack channels.
  * It utilizes a webhook URL configured in the application properties to send messages to Slack.
+ * <p>
+ * sendNotification only puts the message into a bounded queue, so a slow webhook does not delay the request.
+ * A background thread sends the queue: the messages arriving within the linger time are coalesced
+ * into one digest message of at most max-batch notifications. After failure-threshold failed calls in a row
+ * the circuit opens and the notifications are only logged until open-duration has passed; then one call
+ * is tried again. When the queue is full new notifications are dropped. The queue is drained on shutdown.
  */
 @Component
 @Slf4j
-public class SlackNotifier {
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-    @Value("${webhook.url}")
-    private String webhookUrl;
+public class SlackNotifier implements DisposableBean {
+    private static final long POLL_TIMEOUT_MS = 1000;
+    // Upper bound of a wait for more notifications, so a shutdown stops the linger quickly
+    private static final long LINGER_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final String webhookUrl;
+    private final BlockingQueue<String> queue;
+    private final int maxBatch;
+    private final Duration linger;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration shutdownTimeout;
+    private final Slack slack = Slack.getInstance();
+    private final Counter sentCounter;
+    private final Counter loggedCounter;
+    private final Counter droppedCounter;
+    private final Thread sender;
+    private volatile boolean running = true;
+    // Accessed only by the sender thread
+    private int consecutiveFailures = 0;
+    private boolean circuitOpen = false;
+    private long openUntilNanos;
+
+    @Autowired
+    public SlackNotifier(@Value("${webhook.url}") String webhookUrl,
+                         @Value("${webhook.queue-capacity:1000}") int queueCapacity,
+                         @Value("${webhook.max-batch:20}") int maxBatch,
+                         @Value("${webhook.linger:2s}") Duration linger,
+                         @Value("${webhook.failure-threshold:5}") int failureThreshold,
+                         @Value("${webhook.open-duration:1m}") Duration openDuration,
+                         @Value("${webhook.shutdown-timeout:10s}") Duration shutdownTimeout,
+                         MeterRegistry meterRegistry) {
+        this.webhookUrl = webhookUrl;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.linger = linger;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.shutdownTimeout = shutdownTimeout;
+        this.sentCounter = notificationsCounter(meterRegistry, "sent");
+        this.loggedCounter = notificationsCounter(meterRegistry, "logged");
+        this.droppedCounter = notificationsCounter(meterRegistry, "dropped");
+        Gauge.builder("slack.notifications.queue", queue, BlockingQueue::size)
+                .description("Notifications waiting to be sent to Slack")
+                .register(meterRegistry);
+
+        this.sender = new Thread(this::sendQueued, "slack-notifier");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
 
     public void sendNotification(String message) {
+        if (!running || !queue.offer(message)) {
+            droppedCounter.increment();
+            log.warn("Slack notification dropped: {}", message);
+        }
+    }
+
+    private void sendQueued() {
+        List<String> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                String first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                collectBatch(batch);
+                send(batch);
+            } catch (InterruptedException e) {
+                // Interrupted by destroy after the shutdown timeout
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Sending Slack notifications failed: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Waits up to the linger time for more notifications, unless the application is shutting down
+    private void collectBatch(List<String> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + linger.toNanos();
+        queue.drainTo(batch, maxBatch - batch.size());
+        while (running && batch.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            String next = queue.poll(Math.min(remaining, LINGER_SLICE_NANOS), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                continue;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatch - batch.size());
+        }
+    }
+
+    private void send(List<String> batch) {
+        String text = batch.size() == 1 ? batch.get(0) : digest(batch);
+
+        if (circuitOpen && System.nanoTime() - openUntilNanos < 0) {
+            loggedCounter.increment(batch.size());
+            log.info("Slack is unavailable, notification not sent:\n{}", text);
+            return;
+        }
+
         // Build the payload with the message
         Payload payload = Payload.builder()
-                .text(message)
+                .text(text)
                 .build();
 
         try {
             // Send the payload to Slack using the configured webhook URL
-            Slack slack = Slack.getInstance();
-            slack.send(webhookUrl, payload);
+            WebhookResponse response = slack.send(webhookUrl, payload);
+            if (response.getCode() == 200) {
+                consecutiveFailures = 0;
+                circuitOpen = false;
+                sentCounter.increment(batch.size());
+                return;
+            }
+            failed(batch, text, "HTTP " + response.getCode());
         } catch (IOException ex) {
-            // Log any errors that occur during the notification process
-            LocalDateTime timestamp = LocalDateTime.now();
-            String time = String.format("%s%n", DATE_TIME_FORMATTER.format(timestamp));
-            log.warn(time + ex.getMessage());
+            failed(batch, text, ex.getMessage());
+        }
+    }
+
+    private void failed(List<String> batch, String text, String reason) {
+        loggedCounter.increment(batch.size());
+        log.warn("Slack notification not sent ({}):\n{}", reason, text);
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold) {
+            // A failed trial call after the open duration opens the circuit again right away
+            circuitOpen = true;
+            openUntilNanos = System.nanoTime() + openDuration.toNanos();
+            log.warn("Slack webhook failed {} times in a row, notifications are only logged for {}", consecutiveFailures, openDuration);
+        }
+    }
+
+    private static String digest(List<String> batch) {
+        StringBuilder text = new StringBuilder().append(batch.size()).append(" notifications from Cool School:");
+        for (String message : batch) {
+            text.append("\n\n").append(message);
         }
+        return text.toString();
+    }
+
+    /**
+     * Stops accepting notifications and sends the queued ones, waiting at most shutdown-timeout.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        sender.join(shutdownTimeout.toMillis());
+        if (sender.isAlive()) {
+            sender.interrupt();
+            log.warn("{} Slack notifications not sent before shutdown", queue.size());
+        }
+    }
+
+    private static Counter notificationsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("slack.notifications")
+                .tag("result", result)
+                .description("Slack notifications by the result of the delivery")
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,90 @@
+package com.coolSchool.coolSchool.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage backend for the content of uploaded files (blobs).
+ * FileService keeps the metadata in the database and delegates the bytes to an implementation of this interface,
+ * which allows running more than one application instance when the blobs live in a shared object store.
+ * A missing blob is always reported with NoSuchFileException.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the content under the given key, reading the stream to its end without buffering it as a whole.
+     *
+     * @param size The size of the content in bytes or -1 when it is not known.
+     */
+    void put(String key, InputStream content, long size, String contentType) throws IOException;
+
+    /**
+     * Opens the content of a blob for streaming. The caller closes the stream.
+     *
+     * @throws NoSuchFileException If there is no blob with this key.
+     */
+    InputStream open(String key) throws IOException;
+
+    default byte[] readAllBytes(String key) throws IOException {
+        try (InputStream content = open(key)) {
+            return content.readAllBytes();
+        }
+    }
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Returns the size of a blob in bytes.
+     *
+     * @throws NoSuchFileException If there is no blob with this key.
+     */
+    long size(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Returns the value stored in File.url for a blob with this key.
+     */
+    String locationOf(String key);
+
+    /**
+     * Returns every value a File.url pointing to this blob can have, including the ones of earlier layouts
+     * which rows not migrated yet still hold.
+     */
+    default List<String> locationsOf(String key) {
+        return List.of(locationOf(key));
+    }
+
+    /**
+     * Returns a time-limited URL the client can use to download the blob directly from the store.
+     * Empty when the backend can not hand out such URLs (e.g. the local file system).
+     */
+    default Optional<String> presignedUrl(String key, Duration validity) {
+        return Optional.empty();
+    }
+
+    /**
+     * Lists the stored blobs page by page, so the whole store is never held in memory.
+     *
+     * @param cursor The cursor of the previous page or null for the first page.
+     * @param limit  The maximum number of blobs on the page.
+     */
+    BlobPage list(String cursor, int limit) throws IOException;
+
+    /**
+     * A stored blob. location is the value a File.url pointing to this blob has.
+     */
+    record BlobInfo(String key, String location, long size, Instant lastModified) {
+    }
+
+    /**
+     * One page of blobs. nextCursor is null on the last page.
+     */
+    record BlobPage(List<BlobInfo> blobs, String nextCursor) {
+    }
+}
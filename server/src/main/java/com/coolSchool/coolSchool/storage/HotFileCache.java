@@ -0,0 +1,73 @@
+package com.coolSchool.coolSchool.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte-budgeted cache for small, frequently served files (course pictures, blog thumbnails...).
+ * The bytes are kept off-heap in direct buffers, so a large cache does not add to the GC-scanned heap.
+ * Admission is frequency based (W-TinyLFU), which means a one-off download of a big file cannot push out
+ * thumbnails that are requested all the time. Uploaded filenames are unique, so entries never go stale.
+ */
+public class HotFileCache {
+
+    private final Cache<String, ByteBuffer> cache;
+    private final long maxEntryBytes;
+    private final boolean enabled;
+
+    public HotFileCache(boolean enabled, long maxBytes, long maxEntryBytes) {
+        this.enabled = enabled && maxBytes > 0;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 0))
+                .weigher((String filename, ByteBuffer buffer) -> buffer.capacity())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a read-only view of the cached off-heap bytes or null when the file is not cached.
+     * The view has its own position, so concurrent readers do not affect each other; the bytes are not copied.
+     */
+    public ByteBuffer get(String filename) {
+        if (!enabled) {
+            return null;
+        }
+
+        ByteBuffer buffer = cache.getIfPresent(filename);
+        return buffer == null ? null : buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Offers freshly read bytes to the cache. Files bigger than the per-entry limit are never cached.
+     */
+    public void offer(String filename, byte[] bytes) {
+        if (!enabled || bytes.length > maxEntryBytes) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        cache.put(filename, buffer.asReadOnlyBuffer());
+    }
+
+    public void invalidate(String filename) {
+        cache.invalidate(filename);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    // Exposes the underlying cache, so it can be bound to the metrics registry
+    public Cache<String, ByteBuffer> getNativeCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,216 @@
+package com.coolSchool.coolSchool.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * BlobStore on the local file system of the node, inside the upload directory.
+ * Blobs are kept in shard directories (see UploadShardLayout), files uploaded before sharding
+ * are still found directly in the upload directory.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern SHARD_DIRECTORY_NAME = Pattern.compile("[0-9a-f]{2}");
+
+    private final String uploadDirectory;
+    private final Path root;
+    // Shard directories that are known to exist, so we do not call createDirectories on every upload
+    private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+    private DirectoryListing openListing;
+
+    public LocalBlobStore(String uploadDirectory) {
+        this.uploadDirectory = uploadDirectory;
+        this.root = Paths.get(uploadDirectory);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        Files.copy(content, createFilePath(key), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return Files.newInputStream(UploadShardLayout.resolve(root, key));
+        } catch (NoSuchFileException e) {
+            // The file was uploaded before sharding and has not been migrated yet
+            return Files.newInputStream(UploadShardLayout.resolveLegacy(root, key));
+        }
+    }
+
+    @Override
+    public byte[] readAllBytes(String key) throws IOException {
+        try {
+            return Files.readAllBytes(UploadShardLayout.resolve(root, key));
+        } catch (NoSuchFileException e) {
+            return Files.readAllBytes(UploadShardLayout.resolveLegacy(root, key));
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(UploadShardLayout.resolve(root, key)) || Files.exists(UploadShardLayout.resolveLegacy(root, key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return Files.size(UploadShardLayout.resolve(root, key));
+        } catch (NoSuchFileException e) {
+            return Files.size(UploadShardLayout.resolveLegacy(root, key));
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(UploadShardLayout.resolve(root, key));
+        Files.deleteIfExists(UploadShardLayout.resolveLegacy(root, key));
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return uploadDirectory + UploadShardLayout.relativePathOf(key);
+    }
+
+    // UploadShardMigrator moves a blob before it updates its row, so a row can hold the legacy location of a sharded blob
+    @Override
+    public List<String> locationsOf(String key) {
+        return List.of(locationOf(key), uploadDirectory + key);
+    }
+
+    /**
+     * Lists the files directly in the upload directory first, then the shard directories in order.
+     * The cursor is "{directory}|{last key}" where the directory is "" for the upload directory itself
+     * and "xx/yy" for a shard. The directory being listed is kept open between the pages, so a sweep reads
+     * every directory once instead of listing and sorting it again for every page. A cursor that does not continue
+     * the open listing (e.g. after a restart) lists its directory again from the start, so a few blobs can be listed twice.
+     */
+    @Override
+    public synchronized BlobPage list(String cursor, int limit) throws IOException {
+        String directory = cursor == null ? "" : cursor.substring(0, cursor.indexOf('|'));
+        DirectoryListing listing = openListing;
+        openListing = null;
+        if (listing != null && !listing.continues(cursor)) {
+            listing.close();
+            listing = null;
+        }
+
+        List<BlobInfo> blobs = new ArrayList<>(limit);
+        while (directory != null) {
+            if (listing == null) {
+                listing = DirectoryListing.open(directory.isEmpty() ? root : root.resolve(directory));
+            }
+            if (listing != null) {
+                while (listing.iterator.hasNext()) {
+                    Path file = listing.iterator.next();
+                    if (!Files.isRegularFile(file)) {
+                        continue;
+                    }
+                    try {
+                        blobs.add(blobInfo(directory, file));
+                    } catch (NoSuchFileException e) {
+                        // Deleted since the directory was read
+                        continue;
+                    }
+                    if (blobs.size() == limit) {
+                        listing.cursor = directory + "|" + file.getFileName();
+                        openListing = listing;
+                        return new BlobPage(blobs, listing.cursor);
+                    }
+                }
+                listing.close();
+                listing = null;
+            }
+            directory = nextShardDirectory(directory);
+        }
+        return new BlobPage(blobs, null);
+    }
+
+    /**
+     * Creates the shard directory of a blob if needed and returns the path the blob is written to.
+     */
+    public Path createFilePath(String key) throws IOException {
+        Path filePath = UploadShardLayout.resolve(root, key);
+        Path directoryPath = filePath.getParent();
+        if (!createdDirectories.contains(directoryPath)) {
+            Files.createDirectories(directoryPath);
+            createdDirectories.add(directoryPath);
+        }
+        return filePath;
+    }
+
+    private BlobInfo blobInfo(String directory, Path file) throws IOException {
+        String key = file.getFileName().toString();
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        String location = directory.isEmpty() ? uploadDirectory + key : uploadDirectory + directory + "/" + key;
+        return new BlobInfo(key, location, attributes.size(), attributes.lastModifiedTime().toInstant());
+    }
+
+    // The shard directory after the given one ("" is before every shard) or null after the last one
+    private String nextShardDirectory(String directory) throws IOException {
+        String firstLevel = directory.isEmpty() ? "" : directory.substring(0, 2);
+        for (String first : shardDirectories(root)) {
+            if (first.compareTo(firstLevel) < 0) {
+                continue;
+            }
+            for (String second : shardDirectories(root.resolve(first))) {
+                String shard = first + "/" + second;
+                if (shard.compareTo(directory) > 0) {
+                    return shard;
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<String> shardDirectories(Path path) throws IOException {
+        try (Stream<Path> entries = Files.list(path)) {
+            return entries.filter(Files::isDirectory)
+                    .map(entry -> entry.getFileName().toString())
+                    .filter(name -> SHARD_DIRECTORY_NAME.matcher(name).matches())
+                    .sorted()
+                    .toList();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    // An open directory of a sweep in progress, continued by the page after cursor
+    private static final class DirectoryListing {
+
+        private final DirectoryStream<Path> stream;
+        private final Iterator<Path> iterator;
+        private String cursor;
+
+        private DirectoryListing(DirectoryStream<Path> stream) {
+            this.stream = stream;
+            this.iterator = stream.iterator();
+        }
+
+        // Null when the directory does not exist
+        static DirectoryListing open(Path path) throws IOException {
+            try {
+                return new DirectoryListing(Files.newDirectoryStream(path));
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+
+        boolean continues(String cursor) {
+            return this.cursor != null && this.cursor.equals(cursor);
+        }
+
+        void close() throws IOException {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.coolSchool.coolSchool.storage;
+
+import com.coolSchool.coolSchool.models.entity.File;
+import com.coolSchool.coolSchool.repositories.FileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes uploaded files nobody uses anymore: files rows which no blog, course, resource or user points to
+ * (soft-deleted and archived rows included, they may be restored) and blobs in the storage without a files row.
+ * A run goes over the files table and then over the storage, one batch per scheduled call (keyset pagination),
+ * so neither is ever loaded as a whole and the delay between batches limits the load on the database.
+ * Files and blobs younger than the grace period are never touched, which protects uploads in progress.
+ * Enabled with upload.gc.enabled=true
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "upload.gc", name = "enabled", havingValue = "true")
+public class OrphanFileCollector {
+
+    private final FileRepository fileRepository;
+    private final BlobStore blobStore;
+    private final HotFileCache hotFileCache;
+    private final Duration gracePeriod;
+    private final Duration runInterval;
+    private final int batchSize;
+    private final Counter reclaimedBytesCounter;
+
+    private Phase phase = Phase.FILES;
+    private long lastScannedId = 0;
+    private String blobCursor = null;
+    private Instant nextRunAt = Instant.MIN;
+    private Instant runStartedAt;
+    private long deletedFiles;
+    private long deletedBlobs;
+    private long reclaimedBytes;
+    private Report lastReport;
+
+    public OrphanFileCollector(FileRepository fileRepository,
+                               BlobStore blobStore,
+                               HotFileCache hotFileCache,
+                               MeterRegistry meterRegistry,
+                               @Value("${upload.gc.grace-period:24h}") Duration gracePeriod,
+                               @Value("${upload.gc.run-interval:24h}") Duration runInterval,
+                               @Value("${upload.gc.batch-size:100}") int batchSize) {
+        this.fileRepository = fileRepository;
+        this.blobStore = blobStore;
+        this.hotFileCache = hotFileCache;
+        this.gracePeriod = gracePeriod;
+        this.runInterval = runInterval;
+        this.batchSize = batchSize;
+        this.reclaimedBytesCounter = Counter.builder("files.gc.reclaimed")
+                .baseUnit("bytes")
+                .description("Bytes freed by deleting unused uploaded files")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${upload.gc.delay-ms:2000}")
+    public void collectNextBatch() {
+        if (runStartedAt == null) {
+            if (Instant.now().isBefore(nextRunAt)) {
+                return;
+            }
+            startRun();
+        }
+
+        try {
+            if (phase == Phase.FILES) {
+                collectFiles();
+            } else {
+                collectBlobs();
+            }
+        } catch (IOException e) {
+            // The batch is retried on the next call
+            log.warn("Collecting unused files failed: {}", e.getMessage());
+        }
+    }
+
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    private void startRun() {
+        runStartedAt = Instant.now();
+        phase = Phase.FILES;
+        lastScannedId = 0;
+        blobCursor = null;
+        deletedFiles = 0;
+        deletedBlobs = 0;
+        reclaimedBytes = 0;
+    }
+
+    private void collectFiles() throws IOException {
+        List<File> files = fileRepository.findNextBatch(lastScannedId, PageRequest.of(0, batchSize));
+        if (files.isEmpty()) {
+            phase = Phase.BLOBS;
+            return;
+        }
+
+        LocalDateTime createdBefore = LocalDateTime.now().minus(gracePeriod);
+        List<Long> candidateIds = files.stream()
+                .filter(file -> file.getCreatedAt() == null || file.getCreatedAt().isBefore(createdBefore))
+                .map(File::getId)
+                .toList();
+        List<Long> unusedIds = candidateIds.isEmpty() ? List.of() : fileRepository.findUnusedIds(candidateIds);
+
+        if (!unusedIds.isEmpty()) {
+            fileRepository.deleteUnused(unusedIds);
+
+            Set<Long> keptIds = new HashSet<>(fileRepository.findExistingIds(unusedIds));
+            for (File file : files) {
+                if (unusedIds.contains(file.getId()) && !keptIds.contains(file.getId())) {
+                    deletedFiles++;
+                    deleteBlob(UploadShardLayout.filenameOf(file.getUrl()));
+                }
+            }
+        }
+
+        lastScannedId = files.get(files.size() - 1).getId();
+    }
+
+    private void collectBlobs() throws IOException {
+        BlobStore.BlobPage page = blobStore.list(blobCursor, batchSize);
+
+        Instant modifiedBefore = Instant.now().minus(gracePeriod);
+        List<BlobStore.BlobInfo> candidates = page.blobs().stream()
+                .filter(blob -> blob.lastModified().isBefore(modifiedBefore))
+                .toList();
+        if (!candidates.isEmpty()) {
+            // A blob is matched by its key in any layout, not by the location it is listed at:
+            // a blob moved by UploadShardMigrator whose row still holds the legacy url is in use
+            Set<String> usedLocations = new HashSet<>(fileRepository.findExistingUrls(candidates.stream()
+                    .flatMap(blob -> blobStore.locationsOf(blob.key()).stream())
+                    .toList()));
+            for (BlobStore.BlobInfo blob : candidates) {
+                if (blobStore.locationsOf(blob.key()).stream().noneMatch(usedLocations::contains)) {
+                    blobStore.delete(blob.key());
+                    hotFileCache.invalidate(blob.key());
+                    deletedBlobs++;
+                    reclaim(blob.size());
+                }
+            }
+        }
+
+        blobCursor = page.nextCursor();
+        if (blobCursor == null) {
+            finishRun();
+        }
+    }
+
+    private void deleteBlob(String key) throws IOException {
+        long size;
+        try {
+            size = blobStore.size(key);
+        } catch (NoSuchFileException e) {
+            // Only the row was left
+            return;
+        }
+        blobStore.delete(key);
+        hotFileCache.invalidate(key);
+        reclaim(size);
+    }
+
+    private void reclaim(long bytes) {
+        reclaimedBytes += bytes;
+        reclaimedBytesCounter.increment(bytes);
+    }
+
+    private void finishRun() {
+        Duration duration = Duration.between(runStartedAt, Instant.now());
+        lastReport = new Report(deletedFiles, deletedBlobs, reclaimedBytes, duration);
+        log.info("Unused file collection finished in {}: deleted {} files rows and {} stray blobs, reclaimed {} bytes",
+                duration, deletedFiles, deletedBlobs, reclaimedBytes);
+
+        runStartedAt = null;
+        nextRunAt = Instant.now().plus(runInterval);
+    }
+
+    private enum Phase {
+        FILES,
+        BLOBS
+    }
+
+    /**
+     * Result of one run over the files table and the storage.
+     */
+    public record Report(long deletedFiles, long deletedBlobs, long reclaimedBytes, Duration duration) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.coolSchool.coolSchool.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * BlobStore backed by an S3-compatible object store (AWS S3, MinIO...), shared by all application instances.
+ * Large uploads are split into parts which are uploaded in parallel. At most uploadConcurrency parts of one upload
+ * are held in memory at a time, so memory stays bounded no matter how large the file is.
+ */
+@Slf4j
+public class S3BlobStore implements BlobStore, Closeable {
+
+    private final S3Client s3Client;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final long multipartThreshold;
+    private final int partSize;
+    private final int uploadConcurrency;
+    private final ExecutorService uploadExecutor;
+
+    public S3BlobStore(S3Client s3Client, S3Presigner presigner, String bucket, long multipartThreshold, int partSize, int uploadConcurrency) {
+        this.s3Client = s3Client;
+        this.presigner = presigner;
+        this.bucket = bucket;
+        this.multipartThreshold = multipartThreshold;
+        this.partSize = partSize;
+        this.uploadConcurrency = uploadConcurrency;
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "s3-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        if (size >= 0 && size <= multipartThreshold) {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength(size)
+                    .build();
+            s3Client.putObject(request, RequestBody.fromInputStream(content, size));
+            return;
+        }
+
+        putMultipart(key, content, contentType);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3Client.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build()).contentLength();
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return "s3://" + bucket + "/" + key;
+    }
+
+    @Override
+    public Optional<String> presignedUrl(String key, Duration validity) {
+        if (presigner == null) {
+            return Optional.empty();
+        }
+
+        GetObjectPresignRequest request = GetObjectPresignRequest.builder()
+                .signatureDuration(validity)
+                .getObjectRequest(builder -> builder.bucket(bucket).key(key))
+                .build();
+        return Optional.of(presigner.presignGetObject(request).url().toString());
+    }
+
+    /**
+     * The cursor is the continuation token of ListObjectsV2.
+     */
+    @Override
+    public BlobPage list(String cursor, int limit) {
+        ListObjectsV2Response response = s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .maxKeys(limit)
+                .continuationToken(cursor)
+                .build());
+
+        List<BlobInfo> blobs = response.contents().stream()
+                .map(object -> new BlobInfo(object.key(), locationOf(object.key()), object.size(), object.lastModified()))
+                .toList();
+        return new BlobPage(blobs, Boolean.TRUE.equals(response.isTruncated()) ? response.nextContinuationToken() : null);
+    }
+
+    @Override
+    public void close() {
+        uploadExecutor.shutdown();
+        if (presigner != null) {
+            presigner.close();
+        }
+        s3Client.close();
+    }
+
+    private void putMultipart(String key, InputStream content, String contentType) throws IOException {
+        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        String uploadId = s3Client.createMultipartUpload(createRequest).uploadId();
+
+        // Limits the number of parts which are read but not yet uploaded
+        Semaphore partsInFlight = new Semaphore(uploadConcurrency);
+        List<Future<CompletedPart>> uploadedParts = new ArrayList<>();
+
+        try {
+            int partNumber = 1;
+            byte[] part;
+            do {
+                partsInFlight.acquire();
+                part = content.readNBytes(partSize);
+                if (part.length == 0 && partNumber > 1) {
+                    partsInFlight.release();
+                    break;
+                }
+
+                uploadedParts.add(uploadPartAsync(key, uploadId, partNumber++, part, partsInFlight));
+            } while (part.length == partSize);
+
+            List<CompletedPart> completedParts = new ArrayList<>(uploadedParts.size());
+            for (Future<CompletedPart> uploadedPart : uploadedParts) {
+                completedParts.add(uploadedPart.get());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortMultipart(key, uploadId, uploadedParts);
+            throw new InterruptedIOException("Upload of " + key + " was interrupted");
+        } catch (ExecutionException e) {
+            abortMultipart(key, uploadId, uploadedParts);
+            throw new IOException("Upload of " + key + " failed", e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abortMultipart(key, uploadId, uploadedParts);
+            throw e;
+        }
+    }
+
+    private Future<CompletedPart> uploadPartAsync(String key, String uploadId, int partNumber, byte[] part, Semaphore partsInFlight) {
+        return uploadExecutor.submit(() -> {
+            try {
+                UploadPartRequest request = UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) part.length)
+                        .build();
+                String eTag = s3Client.uploadPart(request, RequestBody.fromBytes(part)).eTag();
+                return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+            } finally {
+                partsInFlight.release();
+            }
+        });
+    }
+
+    private void abortMultipart(String key, String uploadId, List<Future<CompletedPart>> uploadedParts) {
+        uploadedParts.forEach(uploadedPart -> uploadedPart.cancel(true));
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build());
+        } catch (RuntimeException e) {
+            log.warn("Could not abort the multipart upload of {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.coolSchool.coolSchool.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Describes where an uploaded file lives inside the upload directory.
+ * Files are spread over two levels of hex-named directories (for example "3f/a0/{filename}"),
+ * so no single directory grows to hundreds of thousands of entries.
+ * The shard is derived only from the filename, which lets us find a file without looking it up in the database.
+ */
+public final class UploadShardLayout {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private UploadShardLayout() {
+    }
+
+    /**
+     * Returns the shard directory of a file, e.g. "3f/a0".
+     */
+    public static String shardOf(String filename) {
+        int hash = mix(filename.hashCode());
+        return new String(new char[]{
+                HEX[(hash >>> 12) & 0xF], HEX[(hash >>> 8) & 0xF],
+                '/',
+                HEX[(hash >>> 4) & 0xF], HEX[hash & 0xF]
+        });
+    }
+
+    /**
+     * Returns the path of a file relative to the upload directory, e.g. "3f/a0/{filename}".
+     */
+    public static String relativePathOf(String filename) {
+        return shardOf(filename) + "/" + filename;
+    }
+
+    public static Path resolve(Path uploadDirectory, String filename) {
+        return uploadDirectory.resolve(shardOf(filename)).resolve(filename);
+    }
+
+    // Location used before sharding was introduced - every file directly inside the upload directory
+    public static Path resolveLegacy(Path uploadDirectory, String filename) {
+        return uploadDirectory.resolve(filename);
+    }
+
+    /**
+     * Extracts the filename from a stored file url (the last path segment).
+     */
+    public static String filenameOf(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+    // Murmur3 finalizer, spreads similar filenames over different shards
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
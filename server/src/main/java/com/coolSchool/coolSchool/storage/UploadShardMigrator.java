@@ -0,0 +1,113 @@
+package com.coolSchool.coolSchool.storage;
+
+import com.coolSchool.coolSchool.models.entity.File;
+import com.coolSchool.coolSchool.repositories.FileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Online migration of the files uploaded before sharding into their shard directories.
+ * Every run moves one batch of files (keyset pagination by id) and rewrites their File.url,
+ * so the application keeps serving requests while the migration is in progress.
+ * FileServiceImpl still finds files in the old location until they are moved.
+ * Enabled with upload.sharding.migration.enabled=true
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "upload.sharding.migration", name = "enabled", havingValue = "true")
+public class UploadShardMigrator {
+
+    private final FileRepository fileRepository;
+    private final Path uploadDirectory;
+    private final String urlPrefix;
+    private final int batchSize;
+    private long lastMigratedId = 0;
+    private boolean finished = false;
+
+    public UploadShardMigrator(FileRepository fileRepository,
+                               @Value("${upload.directory}") String uploadDirectory,
+                               @Value("${upload.sharding.migration.batch-size:200}") int batchSize) {
+        this.fileRepository = fileRepository;
+        this.uploadDirectory = Paths.get(uploadDirectory);
+        this.urlPrefix = uploadDirectory;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${upload.sharding.migration.delay-ms:1000}")
+    public void migrateNextBatch() {
+        if (finished) {
+            return;
+        }
+
+        List<File> files = fileRepository.findNextBatch(lastMigratedId, PageRequest.of(0, batchSize));
+        if (files.isEmpty()) {
+            finished = true;
+            log.info("Upload directory sharding migration finished");
+            return;
+        }
+
+        List<File> movedFiles = new ArrayList<>();
+        for (File file : files) {
+            if (migrate(file)) {
+                movedFiles.add(file);
+            }
+        }
+
+        // Rewrite the urls of the whole batch at once
+        fileRepository.saveAll(movedFiles);
+        lastMigratedId = files.get(files.size() - 1).getId();
+        log.info("Moved {} files to their shard directories (up to file id {})", movedFiles.size(), lastMigratedId);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Moves a single file to its shard directory and updates its url.
+     * Returns false when there is nothing to change.
+     */
+    boolean migrate(File file) {
+        String filename = UploadShardLayout.filenameOf(file.getUrl());
+        String shardedUrl = urlPrefix + UploadShardLayout.relativePathOf(filename);
+        if (shardedUrl.equals(file.getUrl())) {
+            return false;
+        }
+
+        Path legacyPath = UploadShardLayout.resolveLegacy(uploadDirectory, filename);
+        Path shardedPath = UploadShardLayout.resolve(uploadDirectory, filename);
+        try {
+            if (Files.exists(legacyPath)) {
+                Files.createDirectories(shardedPath.getParent());
+                move(legacyPath, shardedPath);
+            } else if (!Files.exists(shardedPath)) {
+                // The blob is missing in both locations, leave the row as it is
+                log.warn("File {} (id {}) was not found in the upload directory", filename, file.getId());
+                return false;
+            }
+        } catch (IOException e) {
+            log.warn("Could not move file {} (id {}): {}", filename, file.getId(), e.getMessage());
+            return false;
+        }
+
+        file.setUrl(shardedUrl);
+        return true;
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.coolSchool.coolSchool.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class TokenDigest {
+
+    /**
+     * Returns the SHA-256 digest of a token as 64 hex characters.
+     * Used wherever a token has to be identified without keeping the token itself.
+     *
+     * @param token The token (JWT) to digest.
+     * @return The hex encoded digest.
+     */
+    public static String sha256(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
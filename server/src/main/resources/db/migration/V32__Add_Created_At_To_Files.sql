@@ -0,0 +1,4 @@
+ALTER TABLE files
+ADD created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX idx_files_url ON files (url);
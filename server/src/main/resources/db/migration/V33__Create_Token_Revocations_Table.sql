@@ -0,0 +1,7 @@
+CREATE TABLE token_revocations
+(
+    id           BIGINT PRIMARY KEY AUTO_INCREMENT,
+    token_digest CHAR(64)  NOT NULL,
+    expires_at   TIMESTAMP NOT NULL,
+    INDEX idx_token_revocations_expires_at (expires_at)
+);
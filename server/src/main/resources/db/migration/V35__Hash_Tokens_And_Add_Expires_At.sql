@@ -0,0 +1,20 @@
+-- Tokens are identified by the SHA-256 of the JWT: a fixed 64 byte key instead of the whole JWT
+ALTER TABLE tokens
+    ADD COLUMN token_hash CHAR(64) CHARACTER SET ascii NULL,
+    ADD COLUMN expires_at TIMESTAMP NULL;
+
+DELETE
+FROM tokens
+WHERE token IS NULL;
+
+-- The expiration of the existing tokens is not known here, they are kept for the lifetime of a refresh token
+UPDATE tokens
+SET token_hash = SHA2(token, 256),
+    expires_at = DATE_ADD(CURRENT_TIMESTAMP, INTERVAL 7 DAY);
+
+ALTER TABLE tokens
+    DROP COLUMN token,
+    MODIFY token_hash CHAR(64) CHARACTER SET ascii NOT NULL,
+    MODIFY expires_at TIMESTAMP NOT NULL,
+    ADD CONSTRAINT uk_tokens_token_hash UNIQUE (token_hash),
+    ADD INDEX idx_tokens_expires_at (expires_at);
@@ -0,0 +1,2 @@
+-- Lets the cleanup walk the unconfirmed users in id order without scanning the confirmed ones
+CREATE INDEX idx_users_enabled_id ON _users (enabled, id);
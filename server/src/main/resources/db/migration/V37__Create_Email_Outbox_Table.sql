@@ -0,0 +1,15 @@
+CREATE TABLE email_outbox
+(
+    id              BIGINT PRIMARY KEY AUTO_INCREMENT,
+    recipient       VARCHAR(255)  NOT NULL,
+    subject         VARCHAR(255)  NOT NULL,
+    body            TEXT          NOT NULL,
+    status          VARCHAR(16)   NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP     NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP     NOT NULL,
+    sent_at         TIMESTAMP     NULL,
+    -- The worker reads the due pending emails, the purge the old sent ones
+    INDEX idx_email_outbox_status_next_attempt (status, next_attempt_at)
+);
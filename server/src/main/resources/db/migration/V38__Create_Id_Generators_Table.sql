@@ -0,0 +1,47 @@
+-- Ids are allocated by Hibernate in blocks (pooled-lo), so the inserts of a transaction can be sent as JDBC batches.
+-- next_val is the first id of the next block of the table
+CREATE TABLE id_generators
+(
+    sequence_name VARCHAR(255) PRIMARY KEY,
+    next_val      BIGINT
+);
+
+-- The blocks start after the ids taken by AUTO_INCREMENT
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT '_users', COALESCE(MAX(id), 0) + 1 FROM _users
+UNION ALL
+SELECT 'answers', COALESCE(MAX(id), 0) + 1 FROM answers
+UNION ALL
+SELECT 'blogs', COALESCE(MAX(id), 0) + 1 FROM blogs
+UNION ALL
+SELECT 'categories', COALESCE(MAX(id), 0) + 1 FROM categories
+UNION ALL
+SELECT 'comments', COALESCE(MAX(id), 0) + 1 FROM comments
+UNION ALL
+SELECT 'course_subsections', COALESCE(MAX(id), 0) + 1 FROM course_subsections
+UNION ALL
+SELECT 'courses', COALESCE(MAX(id), 0) + 1 FROM courses
+UNION ALL
+SELECT 'email_outbox', COALESCE(MAX(id), 0) + 1 FROM email_outbox
+UNION ALL
+SELECT 'files', COALESCE(MAX(id), 0) + 1 FROM files
+UNION ALL
+SELECT 'messages', COALESCE(MAX(id), 0) + 1 FROM messages
+UNION ALL
+SELECT 'questions', COALESCE(MAX(id), 0) + 1 FROM questions
+UNION ALL
+SELECT 'quiz_attempts', COALESCE(MAX(id), 0) + 1 FROM quiz_attempts
+UNION ALL
+SELECT 'quizzes', COALESCE(MAX(id), 0) + 1 FROM quizzes
+UNION ALL
+SELECT 'resources', COALESCE(MAX(id), 0) + 1 FROM resources
+UNION ALL
+SELECT 'reviews', COALESCE(MAX(id), 0) + 1 FROM reviews
+UNION ALL
+SELECT 'tokens', COALESCE(MAX(id), 0) + 1 FROM tokens
+UNION ALL
+SELECT 'user_answers', COALESCE(MAX(id), 0) + 1 FROM user_answers
+UNION ALL
+SELECT 'user_quizzes_progress', COALESCE(MAX(id), 0) + 1 FROM user_quizzes_progress
+UNION ALL
+SELECT 'users_courses', COALESCE(MAX(id), 0) + 1 FROM users_courses;
@@ -0,0 +1,21 @@
+-- MySQL has no partial indexes, so the indexes lead with the columns the queries filter on (the parent id and the
+-- soft-delete flag), followed by the sort column where there is one
+
+-- The enabled blogs, newest first, and the blogs of the admin
+CREATE INDEX idx_blogs_deleted_enabled_created ON blogs (is_deleted, is_enabled, created_at);
+-- The comments of a blog, newest first
+CREATE INDEX idx_comments_blog_deleted_created ON comments (blog_id, deleted, created_at);
+-- All comments, newest first
+CREATE INDEX idx_comments_deleted_created ON comments (deleted, created_at);
+-- The courses, newest first
+CREATE INDEX idx_courses_deleted_created ON courses (is_deleted, created_date);
+-- The subsections of a course
+CREATE INDEX idx_course_subsections_course_deleted ON course_subsections (course_id, is_deleted);
+-- The resources of a subsection
+CREATE INDEX idx_resources_subsection_deleted ON resources (subsection_id, is_deleted);
+-- The quizzes of a subsection
+CREATE INDEX idx_quizzes_subsection_deleted ON quizzes (subsection_id, is_deleted);
+-- The last reviews of a course
+CREATE INDEX idx_reviews_course_deleted_id ON reviews (course_id, is_deleted, id);
+-- Whether a user is enrolled in a course
+CREATE INDEX idx_users_courses_user_course_deleted ON users_courses (user_id, course_id, is_deleted);
@@ -0,0 +1,29 @@
+-- When a row was soft-deleted. The rows deleted before this migration count from now
+ALTER TABLE blogs
+    ADD deleted_at TIMESTAMP NULL;
+ALTER TABLE comments
+    ADD deleted_at TIMESTAMP NULL;
+ALTER TABLE reviews
+    ADD deleted_at TIMESTAMP NULL;
+ALTER TABLE messages
+    ADD deleted_at TIMESTAMP NULL;
+
+UPDATE blogs SET deleted_at = CURRENT_TIMESTAMP WHERE is_deleted = 1;
+UPDATE comments SET deleted_at = CURRENT_TIMESTAMP WHERE deleted = 1;
+UPDATE reviews SET deleted_at = CURRENT_TIMESTAMP WHERE is_deleted = 1;
+UPDATE messages SET deleted_at = CURRENT_TIMESTAMP WHERE is_deleted = 1;
+
+-- SoftDeleteArchiver moves the rows deleted long ago here. LIKE copies no foreign keys,
+-- so the users and files of archived rows can still be deleted
+CREATE TABLE blogs_history LIKE blogs;
+ALTER TABLE blogs_history
+    ADD archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE TABLE comments_history LIKE comments;
+ALTER TABLE comments_history
+    ADD archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE TABLE reviews_history LIKE reviews;
+ALTER TABLE reviews_history
+    ADD archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE TABLE messages_history LIKE messages;
+ALTER TABLE messages_history
+    ADD archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
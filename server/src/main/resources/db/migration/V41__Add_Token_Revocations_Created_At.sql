@@ -0,0 +1,5 @@
+-- Stamped by the database, so the rows written by every instance share one clock. ActiveTokenIndex re-reads
+-- the revocations of a trailing window by it, ids are not visible in commit order
+ALTER TABLE token_revocations
+    ADD created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE INDEX idx_token_revocations_created_at ON token_revocations (created_at);
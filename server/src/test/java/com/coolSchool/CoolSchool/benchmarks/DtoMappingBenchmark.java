@@ -0,0 +1,97 @@
+package com.coolSchool.CoolSchool.benchmarks;
+
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.mappers.BlogMapper;
+import com.coolSchool.coolSchool.mappers.BlogMapperImpl;
+import com.coolSchool.coolSchool.mappers.CategoryMapperImpl;
+import com.coolSchool.coolSchool.mappers.UserMapperImpl;
+import com.coolSchool.coolSchool.models.dto.response.BlogResponseDTO;
+import com.coolSchool.coolSchool.models.entity.Blog;
+import com.coolSchool.coolSchool.models.entity.Category;
+import com.coolSchool.coolSchool.models.entity.User;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a page of blogs to BlogResponseDTOs, as GET /api/v1/blogs does it:
+ * modelMapper with the reflective ModelMapper used before, generated with the MapStruct mapper.
+ * Both map the owner, the likers and the category of every blog.
+ * <p>
+ * Run the main method from the IDE, or after mvn test-compile with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ModelMapper modelMapper;
+    private BlogMapper blogMapper;
+    private List<Blog> blogs;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        blogMapper = new BlogMapperImpl(new UserMapperImpl(), new CategoryMapperImpl());
+
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Programming");
+        blogs = new ArrayList<>(PAGE_SIZE);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            Blog blog = new Blog();
+            blog.setId(i);
+            blog.setTitle("Blog " + i);
+            blog.setContent("Content of blog " + i);
+            blog.setSummary("Summary of blog " + i);
+            blog.setCreated_at(LocalDateTime.now());
+            blog.setOwnerId(user(i));
+            blog.setLiked_users(Set.of(user(i + 100), user(i + 200)));
+            blog.setCategoryId(category);
+            blog.setEnabled(true);
+            blog.setCommentCount(5);
+            blogs.add(blog);
+        }
+        // The type map of ModelMapper is created on the first call, the measurement is of the calls after it
+        modelMapper.map(blogs.get(0), BlogResponseDTO.class);
+    }
+
+    @Benchmark
+    public List<BlogResponseDTO> modelMapper() {
+        return blogs.stream().map(blog -> modelMapper.map(blog, BlogResponseDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<BlogResponseDTO> generated() {
+        return blogs.stream().map(blogMapper::toResponseDTO).toList();
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .firstname("User " + id)
+                .email("user" + id + "@example.com")
+                .usernameField("user" + id)
+                .role(Role.USER)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DtoMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
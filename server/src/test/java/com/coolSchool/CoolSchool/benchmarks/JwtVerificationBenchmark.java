@@ -0,0 +1,82 @@
+package com.coolSchool.CoolSchool.benchmarks;
+
+import com.coolSchool.coolSchool.services.impl.security.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying the JWT of an authenticated request.
+ * perRequestParsing is what JwtAuthenticationFilter used to do (three parses, each with a new parser and key),
+ * prebuiltParser is a single parse on a cache miss and cachedClaims is a request from an already verified session.
+ * <p>
+ * Run the main method from the IDE, or after mvn test-compile with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtServiceImpl jwtService;
+    private JwtParser parser;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl(SECRET_KEY, 86400000, 604800000);
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY))).build();
+        userDetails = User.withUsername("teacher@coolschool.com").password("password").roles("TEACHER").build();
+        token = jwtService.generateToken(userDetails);
+        jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public boolean perRequestParsing() {
+        String username = parseWithNewParser(token).getSubject();
+        return username.equals(userDetails.getUsername())
+                && parseWithNewParser(token).getSubject().equals(userDetails.getUsername())
+                && !parseWithNewParser(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean prebuiltParser() {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean cachedClaims() {
+        return jwtService.isTokenValid(jwtService.verifyToken(token), userDetails);
+    }
+
+    private Claims parseWithNewParser(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.coolSchool.CoolSchool.benchmarks;
+
+import com.coolSchool.coolSchool.security.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the rate limit check added to every @RateLimited call.
+ * singleUser is one hot bucket, contended hits the same bucket from four threads (compare-and-set retries)
+ * and manyUsers spreads the calls over 10 000 buckets, which includes the cache lookup misses of the CPU.
+ * <p>
+ * Run the main method from the IDE, or after mvn test-compile with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private TokenBucketRateLimiter rateLimiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        // A limit which is never reached, so every call takes the allowed path
+        rateLimiter = new TokenBucketRateLimiter(1_000_000_000, Duration.ofSeconds(1), 100_000);
+        keys = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            keys[i] = "user:" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean singleUser() {
+        return rateLimiter.tryAcquire(keys[0]).allowed();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean contended() {
+        return rateLimiter.tryAcquire(keys[0]).allowed();
+    }
+
+    @Benchmark
+    public boolean manyUsers() {
+        return rateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(USERS)]).allowed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
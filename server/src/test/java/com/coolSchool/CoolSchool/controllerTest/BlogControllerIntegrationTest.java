@@ -1,5 +1,6 @@
 package com.coolSchool.CoolSchool.controllerTest;
 
+import com.coolSchool.coolSchool.ai.AITextStreamer;
 import com.coolSchool.coolSchool.controllers.BlogController;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
 import com.coolSchool.coolSchool.models.dto.request.BlogRequestDTO;
@@ -55,6 +56,8 @@ class BlogControllerIntegrationTest {
     private CategoryService categoryService;
     @MockBean
     private AIAssistanceService aiAssistanceService;
+    @MockBean
+    private AITextStreamer aiTextStreamer;
     @InjectMocks
     private BlogController blogController;
 
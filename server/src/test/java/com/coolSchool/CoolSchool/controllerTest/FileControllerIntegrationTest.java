@@ -8,12 +8,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
@@ -36,15 +42,38 @@ class FileControllerIntegrationTest {
         byte[] fileBytes = "Hello, World!".getBytes();
         MediaType mediaType = MediaType.TEXT_PLAIN;
 
-        when(fileService.getFileBytes("test.txt")).thenReturn(fileBytes);
+        when(fileService.getFileContent("test.txt")).thenReturn(ByteBuffer.wrap(fileBytes));
         when(fileService.getMediaTypeForFile("test.txt")).thenReturn(mediaType);
 
-        ResponseEntity<byte[]> response = fileController.getFile("test.txt");
+        ResponseEntity<Resource> response = fileController.getFile("test.txt");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(mediaType, response.getHeaders().getContentType());
-        assertEquals(fileBytes.length, Objects.requireNonNull(response.getBody()).length);
-        assertEquals("Hello, World!", new String(response.getBody()));
+        assertEquals(fileBytes.length, Objects.requireNonNull(response.getBody()).contentLength());
+        assertEquals("Hello, World!", new String(response.getBody().getInputStream().readAllBytes()));
     }
-}
 
+    @Test
+    void testDownloadFileStreamsFromLocalStorage() throws IOException {
+        when(fileService.getPresignedUrl("test.pdf")).thenReturn(Optional.empty());
+        when(fileService.getMediaTypeForFile("test.pdf")).thenReturn(MediaType.APPLICATION_PDF);
+        when(fileService.openFileStream("test.pdf")).thenReturn(new ByteArrayInputStream("PDF content".getBytes()));
+
+        ResponseEntity<InputStreamResource> response = fileController.downloadFile("test.pdf");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PDF, response.getHeaders().getContentType());
+        assertEquals("PDF content", new String(Objects.requireNonNull(response.getBody()).getInputStream().readAllBytes()));
+    }
+
+    @Test
+    void testDownloadFileRedirectsToPresignedUrl() {
+        String presignedUrl = "http://localhost:9000/uploads/test.pdf?X-Amz-Signature=abc";
+        when(fileService.getPresignedUrl("test.pdf")).thenReturn(Optional.of(presignedUrl));
+
+        ResponseEntity<InputStreamResource> response = fileController.downloadFile("test.pdf");
+
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals(URI.create(presignedUrl), response.getHeaders().getLocation());
+    }
+}
@@ -9,8 +9,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -119,4 +122,18 @@ class ResourceControllerIntegrationTest {
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals("Resource with id: 1 has been deleted successfully!", responseEntity.getBody());
     }
+
+    @Test
+    void testDownloadSubsectionArchive() {
+        StreamingResponseBody archive = outputStream -> {
+        };
+        when(resourceService.getSubsectionArchive(1L)).thenReturn(archive);
+
+        ResponseEntity<StreamingResponseBody> responseEntity = resourceController.downloadSubsectionArchive(1L);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(MediaType.parseMediaType("application/zip"), responseEntity.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"subsection-1.zip\"", responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals(archive, responseEntity.getBody());
+    }
 }
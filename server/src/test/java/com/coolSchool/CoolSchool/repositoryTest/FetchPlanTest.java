@@ -0,0 +1,311 @@
+package com.coolSchool.CoolSchool.repositoryTest;
+
+import com.coolSchool.coolSchool.CoolSchoolApplication;
+import com.coolSchool.coolSchool.config.SecondLevelCacheConfig;
+import com.coolSchool.coolSchool.enums.Provider;
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.mappers.*;
+import com.coolSchool.coolSchool.models.dto.common.QuizAttemptDTO;
+import com.coolSchool.coolSchool.models.dto.common.QuizDTO;
+import com.coolSchool.coolSchool.models.dto.response.BlogResponseDTO;
+import com.coolSchool.coolSchool.models.dto.response.CommentResponseDTO;
+import com.coolSchool.coolSchool.models.dto.response.CourseResponseDTO;
+import com.coolSchool.coolSchool.models.entity.*;
+import com.coolSchool.coolSchool.repositories.*;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:fetching;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = CoolSchoolApplication.class)
+@Import(SecondLevelCacheConfig.class)
+class FetchPlanTest {
+
+    private static final int BLOGS = 50;
+    private static final int USERS = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private QuizRepository quizRepository;
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final BlogMapper blogMapper = new BlogMapperImpl(userMapper, new CategoryMapperImpl());
+    private final CourseMapper courseMapper = new CourseMapperImpl(userMapper, new CategoryMapperImpl());
+    private final CommentMapper commentMapper = new CommentMapperImpl(userMapper, blogMapper);
+    private final QuizMapper quizMapper = new QuizMapperImpl();
+
+    private Statistics statistics;
+    private final List<User> users = new ArrayList<>();
+    private final List<Category> categories = new ArrayList<>();
+    private Blog firstBlog;
+    private CourseSubsection subsection;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < USERS; i++) {
+            User user = user(i);
+            user.setProfilePic(entityManager.persist(file("avatar" + i)));
+            users.add(entityManager.persist(user));
+        }
+        for (String name : List.of("Programming", "Biology")) {
+            Category category = new Category();
+            category.setName(name);
+            categories.add(entityManager.persist(category));
+        }
+        for (int i = 0; i < BLOGS; i++) {
+            Blog blog = new Blog();
+            blog.setTitle("Blog " + i);
+            blog.setContent("C".repeat(150));
+            blog.setSummary("Summary of the blog");
+            blog.setCreated_at(LocalDateTime.now());
+            blog.setPicture(entityManager.persist(file("blog" + i)));
+            blog.setOwnerId(users.get(i % USERS));
+            blog.setCategoryId(categories.get(i % 2));
+            blog.setLiked_users(new HashSet<>(Set.of(users.get((i + 1) % USERS), users.get((i + 2) % USERS))));
+            blog.setEnabled(true);
+            blog = entityManager.persist(blog);
+            if (firstBlog == null) {
+                firstBlog = blog;
+            }
+        }
+
+        for (int i = 0; i < 5; i++) {
+            Course course = new Course();
+            course.setName("Course number " + i);
+            course.setObjectives("O".repeat(150));
+            course.setEligibility("E".repeat(150));
+            course.setUser(users.get(i));
+            course.setPicture(entityManager.persist(file("course" + i)));
+            course.setCategory(categories.get(i % 2));
+            entityManager.persist(course);
+
+            if (subsection == null) {
+                subsection = new CourseSubsection();
+                subsection.setTitle("Classes");
+                subsection.setDescription("Objects and classes");
+                subsection.setCourse(course);
+                entityManager.persist(subsection);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testBlogsEndpoint() {
+        statistics.clear();
+
+        List<BlogResponseDTO> blogs = blogRepository.findByDeletedFalseAndIsEnabledTrue().stream()
+                .map(blogMapper::toResponseDTO)
+                .toList();
+
+        assertEquals(BLOGS, blogs.size());
+        assertEquals(2, blogs.get(0).getLiked_users().size());
+        // The blogs with their owners, pictures and categories, then the likers of all of them
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testBlogByIdEndpoint() {
+        statistics.clear();
+
+        BlogResponseDTO blog = blogMapper.toResponseDTO(blogRepository.findById(firstBlog.getId()).orElseThrow());
+
+        assertNotNull(blog.getOwner().getEmail());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCoursesEndpoint() {
+        statistics.clear();
+
+        List<CourseResponseDTO> courses = courseRepository.findByDeletedFalseOrderByCreatedDateDesc().stream()
+                .map(courseMapper::toResponseDTO)
+                .toList();
+
+        assertEquals(5, courses.size());
+        assertNotNull(courses.get(0).getUser().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCommentsOfBlogEndpoint() {
+        Blog blog = entityManager.find(Blog.class, firstBlog.getId());
+        for (int i = 0; i < 20; i++) {
+            Comment comment = new Comment();
+            comment.setComment("Comment " + i);
+            comment.setCreated_at(LocalDateTime.now());
+            comment.setOwnerId(entityManager.find(User.class, users.get(i % USERS).getId()));
+            comment.setBlogId(blog);
+            comment.setLiked_users(new HashSet<>(Set.of(entityManager.find(User.class, users.get((i + 3) % USERS).getId()))));
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<CommentResponseDTO> comments = commentRepository.findCommentsByBlogAndNotDeleted(firstBlog.getId()).stream()
+                .map(commentMapper::toResponseDTO)
+                .toList();
+
+        assertEquals(20, comments.size());
+        // The comments with their owners and blog, the likers of the comments and the likers of the blog
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testQuizzesOfSubsectionEndpoint() {
+        for (int i = 0; i < 10; i++) {
+            entityManager.persist(quiz(entityManager.find(CourseSubsection.class, subsection.getId())));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // As QuizServiceImpl.getQuizzesBySubsection adds the course of every quiz
+        List<QuizDTO> quizzes = quizRepository.findBySubsectionIdAndDeletedFalse(subsection.getId()).stream()
+                .map(quiz -> {
+                    QuizDTO quizDTO = quizMapper.toQuizDTO(quiz);
+                    quizDTO.setCourseId(quiz.getSubsection().getCourse().getId());
+                    return quizDTO;
+                })
+                .toList();
+
+        assertEquals(10, quizzes.size());
+        assertNotNull(quizzes.get(0).getCourseId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testResourcesOfSubsectionArchive() {
+        for (int i = 0; i < 5; i++) {
+            Resource resource = new Resource();
+            resource.setName("Slides " + i);
+            resource.setFile(entityManager.persist(file("slides" + i)));
+            resource.setSubsection(entityManager.find(CourseSubsection.class, subsection.getId()));
+            entityManager.persist(resource);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Resource> resources = resourceRepository.findAllBySubsectionIdAndDeletedFalse(subsection.getId());
+        // The archive reads the files once the persistence context is closed
+        entityManager.clear();
+
+        assertEquals(5, resources.size());
+        assertTrue(Hibernate.isInitialized(resources.get(0).getFile()));
+        assertNotNull(resources.get(0).getFile().getUrl());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testQuizAttemptsOfUserEndpoint() {
+        User user = entityManager.find(User.class, users.get(0).getId());
+        Quiz quiz = entityManager.persist(quiz(entityManager.find(CourseSubsection.class, subsection.getId())));
+        for (int i = 0; i < 5; i++) {
+            Question question = new Question();
+            question.setDescription("Question " + i);
+            question.setMarks(BigDecimal.ONE);
+            question.setQuiz(quiz);
+            entityManager.persist(question);
+
+            QuizAttempt quizAttempt = new QuizAttempt();
+            quizAttempt.setQuiz(quiz);
+            quizAttempt.setUser(user);
+            quizAttempt.setAttemptNumber(i + 1);
+            entityManager.persist(quizAttempt);
+            UserAnswer userAnswer = new UserAnswer();
+            userAnswer.setQuestion(question);
+            userAnswer.setQuizAttempt(quizAttempt);
+            entityManager.persist(userAnswer);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<QuizAttemptDTO> quizAttempts = quizAttemptRepository.findByUserId(user.getId()).stream()
+                .map(quizMapper::toQuizAttemptDTO)
+                .toList();
+
+        assertEquals(5, quizAttempts.size());
+        assertEquals(1, quizAttempts.get(0).getUserAnswers().size());
+        // The attempts with their quiz, then the answers of all of them
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private static User user(int number) {
+        return User.builder()
+                .firstname("Ivan")
+                .lastname("Ivanov")
+                .email("ivan" + number + "@example.com")
+                .address("Sofia")
+                .usernameField("ivan" + number)
+                .description("D".repeat(60))
+                .role(Role.USER)
+                .provider(Provider.LOCAL)
+                .enabled(true)
+                .build();
+    }
+
+    private static File file(String name) {
+        File file = new File();
+        file.setName(name + ".png");
+        file.setUrl("https://example.com/" + name + ".png");
+        file.setType("image/png");
+        return file;
+    }
+
+    private static Quiz quiz(CourseSubsection subsection) {
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Classes quiz");
+        quiz.setDescription("Objects and classes");
+        quiz.setSubsection(subsection);
+        quiz.setAttemptLimit(3);
+        quiz.setQuizDurationInMinutes(20);
+        return quiz;
+    }
+}
@@ -0,0 +1,243 @@
+package com.coolSchool.CoolSchool.repositoryTest;
+
+import com.coolSchool.coolSchool.CoolSchoolApplication;
+import com.coolSchool.coolSchool.config.SecondLevelCacheConfig;
+import com.coolSchool.coolSchool.enums.Provider;
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.enums.TokenType;
+import com.coolSchool.coolSchool.models.entity.*;
+import com.coolSchool.coolSchool.repositories.*;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:batching;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.coolSchool.CoolSchool.repositoryTest.JdbcBatchingTest$InsertCounter"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = CoolSchoolApplication.class)
+@Import(SecondLevelCacheConfig.class)
+class JdbcBatchingTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private QuizRepository quizRepository;
+    @Autowired
+    private QuestionRepository questionRepository;
+    @Autowired
+    private AnswerRepository answerRepository;
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+    @Autowired
+    private UserAnswerRepository userAnswerRepository;
+    @Autowired
+    private UserCourseRepository userCourseRepository;
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    private User user;
+    private Course course;
+    private CourseSubsection subsection;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(user(0));
+        Category category = new Category();
+        category.setName("Programming");
+        entityManager.persist(category);
+
+        course = new Course();
+        course.setName("Java for beginners");
+        course.setObjectives("O".repeat(150));
+        course.setEligibility("E".repeat(150));
+        course.setUser(user);
+        course.setCategory(category);
+        entityManager.persist(course);
+
+        subsection = new CourseSubsection();
+        subsection.setTitle("Classes");
+        subsection.setDescription("Objects and classes");
+        subsection.setCourse(course);
+        entityManager.persist(subsection);
+        entityManager.flush();
+        InsertCounter.reset();
+    }
+
+    @Test
+    void testQuizCreationInsertsEachTableInOneStatement() {
+        // As QuizServiceImpl.createQuiz saves the quiz, then every question and its answers one by one
+        Quiz quiz = quizRepository.save(quiz());
+        for (int i = 0; i < ROWS; i++) {
+            Question question = questionRepository.save(question(quiz, i));
+            for (int j = 0; j < 4; j++) {
+                answerRepository.save(answer(question, j == 0));
+            }
+        }
+        entityManager.flush();
+
+        assertEquals(1, InsertCounter.count("quizzes"));
+        assertEquals(1, InsertCounter.count("questions"));
+        assertEquals(1, InsertCounter.count("answers"));
+        assertEquals(ROWS * 4, answerRepository.count());
+    }
+
+    @Test
+    void testAnswerSubmissionInsertsInOneStatement() {
+        Quiz quiz = entityManager.persist(quiz());
+        List<Question> questions = new ArrayList<>();
+        List<Answer> answers = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Question question = entityManager.persist(question(quiz, i));
+            questions.add(question);
+            answers.add(entityManager.persist(answer(question, true)));
+        }
+        QuizAttempt quizAttempt = new QuizAttempt();
+        quizAttempt.setQuiz(quiz);
+        quizAttempt.setUser(user);
+        quizAttempt.setAttemptNumber(1);
+        quizAttempt = quizAttemptRepository.save(quizAttempt);
+        entityManager.flush();
+        InsertCounter.reset();
+
+        // As QuizServiceImpl.submitQuiz saves the answers of the attempt one by one
+        for (int i = 0; i < ROWS; i++) {
+            UserAnswer userAnswer = new UserAnswer();
+            userAnswer.setQuestion(questions.get(i));
+            userAnswer.setAnswer(answers.get(i));
+            userAnswer.setQuizAttempt(quizAttempt);
+            userAnswerRepository.save(userAnswer);
+        }
+        entityManager.flush();
+
+        assertEquals(1, InsertCounter.count("user_answers"));
+        assertEquals(ROWS, userAnswerRepository.count());
+    }
+
+    @Test
+    void testEnrollmentsInsertInOneStatement() {
+        List<UserCourse> enrollments = new ArrayList<>();
+        for (int i = 1; i <= ROWS; i++) {
+            UserCourse userCourse = new UserCourse();
+            userCourse.setUser(entityManager.persist(user(i)));
+            userCourse.setCourse(course);
+            enrollments.add(userCourse);
+        }
+        userCourseRepository.saveAll(enrollments);
+        entityManager.flush();
+
+        assertEquals(1, InsertCounter.count("_users"));
+        assertEquals(1, InsertCounter.count("users_courses"));
+        assertEquals(ROWS, userCourseRepository.count());
+    }
+
+    @Test
+    void testTokenSavesInsertInOneStatement() {
+        for (int i = 0; i < ROWS; i++) {
+            tokenRepository.save(Token.builder()
+                    .tokenHash(String.format("%064d", i))
+                    .expiresAt(LocalDateTime.now().plusDays(1))
+                    .tokenType(TokenType.ACCESS)
+                    .user(user)
+                    .build());
+        }
+        entityManager.flush();
+
+        assertEquals(1, InsertCounter.count("tokens"));
+        assertEquals(ROWS, tokenRepository.count());
+    }
+
+    private static User user(int number) {
+        return User.builder()
+                .firstname("Ivan")
+                .lastname("Ivanov")
+                .email("ivan" + number + "@example.com")
+                .address("Sofia")
+                .usernameField("ivan" + number)
+                .description("D".repeat(60))
+                .role(Role.USER)
+                .provider(Provider.LOCAL)
+                .enabled(true)
+                .build();
+    }
+
+    private Quiz quiz() {
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Classes quiz");
+        quiz.setDescription("Objects and classes");
+        quiz.setSubsection(subsection);
+        quiz.setAttemptLimit(3);
+        quiz.setQuizDurationInMinutes(20);
+        return quiz;
+    }
+
+    private static Question question(Quiz quiz, int number) {
+        Question question = new Question();
+        question.setDescription("Question " + number);
+        question.setMarks(BigDecimal.ONE);
+        question.setQuiz(quiz);
+        return question;
+    }
+
+    private static Answer answer(Question question, boolean correct) {
+        Answer answer = new Answer();
+        answer.setText(correct ? "Right" : "Wrong");
+        answer.setQuestionId(question);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    /**
+     * Counts the prepared INSERT statements by table. A JDBC batch is prepared once, however many rows it has.
+     */
+    public static class InsertCounter implements StatementInspector {
+
+        private static final Pattern INSERT = Pattern.compile("^insert into (\\w+)");
+        private static final Map<String, Integer> inserts = new ConcurrentHashMap<>();
+
+        static void reset() {
+            inserts.clear();
+        }
+
+        static int count(String table) {
+            return inserts.getOrDefault(table, 0);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            Matcher matcher = INSERT.matcher(sql.trim().toLowerCase(Locale.ROOT));
+            if (matcher.find()) {
+                inserts.merge(matcher.group(1), 1, Integer::sum);
+            }
+            return sql;
+        }
+    }
+}
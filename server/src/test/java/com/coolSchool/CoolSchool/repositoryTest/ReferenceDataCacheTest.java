@@ -0,0 +1,96 @@
+package com.coolSchool.CoolSchool.repositoryTest;
+
+import com.coolSchool.coolSchool.CoolSchoolApplication;
+import com.coolSchool.coolSchool.config.SecondLevelCacheConfig;
+import com.coolSchool.coolSchool.models.entity.Category;
+import com.coolSchool.coolSchool.repositories.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:caching;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = CoolSchoolApplication.class)
+// Not picked up by the JPA slice, while missing_cache_strategy=fail needs its regions
+@Import(SecondLevelCacheConfig.class)
+// Every repository call runs and commits in its own transaction, as it does in the services
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAll();
+        statistics = sessionFactory.getStatistics();
+
+        category = new Category();
+        category.setName("Programming " + UUID.randomUUID());
+        category = categoryRepository.save(category);
+        statistics.clear();
+    }
+
+    @Test
+    void testValidationLookupIsServedFromMemory() {
+        // As BlogServiceImpl.createBlog and CourseServiceImpl.createCourse validate the category
+        assertTrue(categoryRepository.findByIdAndDeletedFalse(category.getId()).isPresent());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(categoryRepository.findByIdAndDeletedFalse(category.getId()).isPresent());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testChangeInvalidatesCachedLookup() {
+        assertTrue(categoryRepository.findByIdAndDeletedFalse(category.getId()).isPresent());
+
+        category.setDeleted(true);
+        categoryRepository.save(category);
+
+        assertFalse(categoryRepository.findByIdAndDeletedFalse(category.getId()).isPresent());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testFindByIdIsServedFromMemory() {
+        // As CourseServiceImpl maps the category of a course
+        assertEquals(category.getName(), categoryRepository.findById(category.getId()).orElseThrow().getName());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(category.getName(), categoryRepository.findById(category.getId()).orElseThrow().getName());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("categories").getHitCount() > 0);
+    }
+}
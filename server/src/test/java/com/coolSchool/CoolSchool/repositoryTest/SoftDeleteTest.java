@@ -0,0 +1,204 @@
+package com.coolSchool.CoolSchool.repositoryTest;
+
+import com.coolSchool.coolSchool.CoolSchoolApplication;
+import com.coolSchool.coolSchool.config.SecondLevelCacheConfig;
+import com.coolSchool.coolSchool.config.SoftDeleteFilterConfig;
+import com.coolSchool.coolSchool.config.schedulers.SoftDeleteArchiver;
+import com.coolSchool.coolSchool.enums.Provider;
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.models.entity.*;
+import com.coolSchool.coolSchool.repositories.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:soft-delete;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = CoolSchoolApplication.class)
+@Import({SecondLevelCacheConfig.class, SoftDeleteFilterConfig.class})
+class SoftDeleteTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private FileRepository fileRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        // The history tables are created by Flyway (V40), which does not run here
+        for (String table : List.of("blogs", "comments", "reviews", "messages")) {
+            entityManager.getEntityManager().createNativeQuery("CREATE TABLE IF NOT EXISTS " + table + "_history AS " +
+                    "SELECT t.*, CURRENT_TIMESTAMP AS archived_at FROM " + table + " t WHERE 1 = 0").executeUpdate();
+        }
+
+        user = entityManager.persist(User.builder()
+                .firstname("Ivan")
+                .lastname("Ivanov")
+                .email("ivan@example.com")
+                .address("Sofia")
+                .usernameField("ivan")
+                .description("D".repeat(60))
+                .role(Role.USER)
+                .provider(Provider.LOCAL)
+                .enabled(true)
+                .build());
+        category = new Category();
+        category.setName("Programming");
+        category = entityManager.persist(category);
+    }
+
+    @Test
+    void testQueriesSkipDeletedRows() {
+        Blog liveBlog = entityManager.persist(blog(null));
+        Blog deletedBlog = entityManager.persist(blog(LocalDateTime.now()));
+        entityManager.persist(comment(liveBlog, false));
+        entityManager.persist(comment(liveBlog, true));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Neither findAll nor a JPQL query without "deleted = false" return the deleted rows
+        assertEquals(List.of(liveBlog.getId()), blogRepository.findAll().stream().map(Blog::getId).toList());
+        assertEquals(1, commentRepository.findAll().size());
+        assertTrue(blogRepository.findByIdAndDeletedFalse(deletedBlog.getId()).isEmpty());
+    }
+
+    @Test
+    void testDeletingStampsDeletedAt() {
+        Blog blog = entityManager.persist(blog(null));
+        entityManager.flush();
+        assertNull(blog.getDeletedAt());
+
+        blog.setDeleted(true);
+        entityManager.flush();
+
+        assertNotNull(blog.getDeletedAt());
+    }
+
+    @Test
+    void testArchivesRowsDeletedBeforeRetention() {
+        Blog liveBlog = entityManager.persist(blog(null));
+        Blog oldBlog = entityManager.persist(blog(LocalDateTime.now().minusDays(200)));
+        Blog recentBlog = entityManager.persist(blog(LocalDateTime.now().minusDays(1)));
+        // The comment of the old blog is not deleted itself, it goes with the blog
+        entityManager.persist(comment(oldBlog, false));
+        Comment oldComment = comment(liveBlog, true);
+        oldComment.setDeletedAt(LocalDateTime.now().minusDays(200));
+        entityManager.persist(oldComment);
+        entityManager.persist(comment(liveBlog, false));
+        entityManager.flush();
+        entityManager.clear();
+
+        archiver().archiveDeletedRows();
+
+        assertEquals(2, count("blogs"));
+        assertEquals(1, count("blogs_history"));
+        Object[] archivedBlog = (Object[]) entityManager.getEntityManager()
+                .createNativeQuery("SELECT id, title FROM blogs_history").getSingleResult();
+        assertEquals(oldBlog.getId(), ((Number) archivedBlog[0]).longValue());
+        assertEquals("Java for beginners", archivedBlog[1]);
+        assertEquals(1, count("comments"));
+        assertEquals(2, count("comments_history"));
+        // The like of the recently deleted blog
+        assertEquals(1, count("blogs_liked_users"));
+        assertTrue(blogRepository.findByIdAndDeletedFalse(liveBlog.getId()).isPresent());
+        assertNotNull(entityManager.find(Blog.class, recentBlog.getId()));
+    }
+
+    @Test
+    void testFilesOfDeletedAndArchivedRowsAreInUse() {
+        Blog deletedBlog = blog(LocalDateTime.now().minusDays(1));
+        deletedBlog.setPicture(entityManager.persist(file("deleted")));
+        entityManager.persist(deletedBlog);
+        Blog archivedBlog = blog(LocalDateTime.now().minusDays(200));
+        archivedBlog.setPicture(entityManager.persist(file("archived")));
+        entityManager.persist(archivedBlog);
+        File unused = entityManager.persist(file("unused"));
+        entityManager.flush();
+        entityManager.clear();
+
+        archiver().archiveDeletedRows();
+
+        List<Long> fileIds = List.of(deletedBlog.getPicture().getId(), archivedBlog.getPicture().getId(), unused.getId());
+        assertEquals(List.of(unused.getId()), fileRepository.findUnusedIds(fileIds));
+    }
+
+    private SoftDeleteArchiver archiver() {
+        return new SoftDeleteArchiver(blogRepository, commentRepository, reviewRepository, messageRepository,
+                transactionManager, new SimpleMeterRegistry(), Duration.ofDays(30), 1, 100);
+    }
+
+    private long count(String table) {
+        return ((Number) entityManager.getEntityManager().createNativeQuery("SELECT COUNT(*) FROM " + table).getSingleResult()).longValue();
+    }
+
+    private Blog blog(LocalDateTime deletedAt) {
+        Blog blog = new Blog();
+        blog.setTitle("Java for beginners");
+        blog.setContent("C".repeat(150));
+        blog.setSummary("Summary of the blog");
+        blog.setCreated_at(LocalDateTime.now());
+        blog.setOwnerId(user);
+        blog.setCategoryId(category);
+        blog.setEnabled(true);
+        blog.setDeleted(deletedAt != null);
+        blog.setDeletedAt(deletedAt);
+        if (blog.isDeleted()) {
+            blog.setLiked_users(new HashSet<>(Set.of(user)));
+        }
+        return blog;
+    }
+
+    private static File file(String name) {
+        File file = new File();
+        file.setName(name + ".png");
+        file.setUrl("https://example.com/" + name + ".png");
+        file.setType("image/png");
+        return file;
+    }
+
+    private static Comment comment(Blog blog, boolean deleted) {
+        Comment comment = new Comment();
+        comment.setComment("Nice blog");
+        comment.setCreated_at(LocalDateTime.now());
+        comment.setBlogId(blog);
+        comment.setDeleted(deleted);
+        return comment;
+    }
+}
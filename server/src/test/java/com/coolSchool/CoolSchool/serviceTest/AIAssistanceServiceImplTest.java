@@ -1,6 +1,8 @@
 package com.coolSchool.CoolSchool.serviceTest;
 
 
+import com.coolSchool.coolSchool.ai.AIResponseCache;
+import com.coolSchool.coolSchool.ai.CategoryClassifier;
 import com.coolSchool.coolSchool.exceptions.AI.ErrorProcessingAIResponseException;
 import com.coolSchool.coolSchool.models.dto.common.CategoryDTO;
 import com.coolSchool.coolSchool.services.impl.AIAssistanceServiceImpl;
@@ -20,6 +22,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +36,10 @@ class AIAssistanceServiceImplTest {
     private MessageSource messageSource;
     @Mock
     private ObjectMapper objectMapper;
+    @Mock
+    private AIResponseCache aiResponseCache;
+    @Mock
+    private CategoryClassifier categoryClassifier;
 
     @InjectMocks
     private AIAssistanceServiceImpl aiAssistanceService;
@@ -124,5 +131,37 @@ class AIAssistanceServiceImplTest {
 
         assertThrows(ErrorProcessingAIResponseException.class, () -> aiAssistanceService.analyzeContent("prompt"));
     }
-}
 
+    @Test
+    void testRecommendCategory_UsesCachedResponse() {
+        List<CategoryDTO> categories = List.of(new CategoryDTO(1L, "Category A"), new CategoryDTO(2L, "Category B"));
+        when(aiResponseCache.get(anyString(), any())).thenReturn("Category B");
+
+        CategoryDTO result = aiAssistanceService.recommendCategory("Lorem ipsum", categories);
+
+        assertEquals(2L, result.getId());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testRecommendCategory_UnknownCategoryIsNotKept() {
+        List<CategoryDTO> categories = List.of(new CategoryDTO(1L, "Category A"));
+        when(aiResponseCache.get(anyString(), any())).thenReturn("Category C");
+
+        assertThrows(ErrorProcessingAIResponseException.class, () -> aiAssistanceService.recommendCategory("Lorem ipsum", categories));
+
+        verify(aiResponseCache).invalidate(anyString());
+    }
+
+    @Test
+    void testRecommendCategory_ConfidentClassifierSkipsAI() {
+        List<CategoryDTO> categories = List.of(new CategoryDTO(1L, "Category A"), new CategoryDTO(2L, "Category B"));
+        when(categoryClassifier.classify("Lorem ipsum", List.of(1L, 2L)))
+                .thenReturn(Optional.of(new CategoryClassifier.Prediction(1L, 0.95)));
+
+        CategoryDTO result = aiAssistanceService.recommendCategory("Lorem ipsum", categories);
+
+        assertEquals(1L, result.getId());
+        verifyNoInteractions(aiResponseCache, restTemplate);
+    }
+}
@@ -0,0 +1,110 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.ai.AIResponseCache;
+import com.coolSchool.coolSchool.ai.CategoryClassifier;
+import com.coolSchool.coolSchool.config.AIClientConfig;
+import com.coolSchool.coolSchool.exceptions.AI.ErrorProcessingAIResponseException;
+import com.coolSchool.coolSchool.models.dto.common.CategoryDTO;
+import com.coolSchool.coolSchool.repositories.BlogRepository;
+import com.coolSchool.coolSchool.services.impl.AIAssistanceServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AIClientTest {
+
+    private static final String COMPLETION = "{\"choices\": [{\"message\": {\"role\": \"assistant\", \"content\": \"Programming\"}}]}";
+
+    private HttpServer completionServer;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile long responseDelayMs = 0;
+    private SimpleMeterRegistry meterRegistry;
+    private CloseableHttpClient httpClient;
+    private AIAssistanceServiceImpl aiAssistanceService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        completionServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        completionServer.createContext("/v1/chat/completions", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = COMPLETION.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        completionServer.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        AIClientConfig config = new AIClientConfig();
+        httpClient = config.aiHttpClient(meterRegistry, 2, Duration.ofSeconds(1), Duration.ofMillis(300),
+                Duration.ofMillis(200), Duration.ofSeconds(30));
+        aiAssistanceService = new AIAssistanceServiceImpl(config.aiRestTemplate(httpClient, meterRegistry), "test-key",
+                mock(MessageSource.class), new ObjectMapper(), new AIResponseCache(meterRegistry, Duration.ofMinutes(1), 100),
+                new CategoryClassifier(mock(BlogRepository.class), meterRegistry, 0.8, 50));
+        ReflectionTestUtils.setField(aiAssistanceService, "openAIEndpoint",
+                "http://localhost:" + completionServer.getAddress().getPort() + "/v1/chat/completions");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        completionServer.stop(0);
+    }
+
+    @Test
+    void testCallsReuseOneConnection() throws JsonProcessingException {
+        assertEquals("Programming", aiAssistanceService.analyzeContent("Which category?"));
+        assertEquals("Programming", aiAssistanceService.analyzeContent("Which category again?"));
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(2, meterRegistry.get("ai.client.requests").tag("status", "200").timer().count());
+        assertEquals(1.0, meterRegistry.get("ai.client.connections").tag("state", "available").gauge().value());
+    }
+
+    @Test
+    void testSameDraftIsSentOnce() {
+        List<CategoryDTO> categories = List.of(new CategoryDTO(1L, "Programming"), new CategoryDTO(2L, "Biology"));
+
+        assertEquals(1L, aiAssistanceService.recommendCategory("Java streams", categories).getId());
+        assertEquals(1L, aiAssistanceService.recommendCategory("  java   STREAMS ", categories).getId());
+
+        assertEquals(1, meterRegistry.get("ai.client.requests").tag("status", "200").timer().count());
+        assertEquals(1.0, meterRegistry.get("ai.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testSlowUpstreamFailsAfterResponseTimeout() {
+        responseDelayMs = 2000;
+        long start = System.nanoTime();
+
+        assertThrows(ErrorProcessingAIResponseException.class, () -> aiAssistanceService.analyzeContent("Which category?"));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(1, meterRegistry.get("ai.client.requests").tag("status", "IO_ERROR").timer().count());
+    }
+}
@@ -0,0 +1,104 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.ai.AIResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AIResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AIResponseCache(meterRegistry, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void testRepeatedRequestIsAnsweredFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+        String key = AIResponseCache.key("v1", "1:Programming", AIResponseCache.normalize("Java streams"));
+
+        assertEquals("Programming", cache.get(key, () -> {
+            calls.incrementAndGet();
+            return "Programming";
+        }));
+        assertEquals("Programming", cache.get(key, () -> {
+            calls.incrementAndGet();
+            return "Programming";
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("ai.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("ai.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.get("draft", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "Programming";
+                })));
+            }
+            // Let all requests reach the cache before the call completes
+            while (meterRegistry.get("ai.cache.requests").tag("result", "shared").counter().count() < 3) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("Programming", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedCallIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get("draft", () -> {
+            throw new IllegalStateException("upstream failed");
+        }));
+
+        assertEquals("Programming", cache.get("draft", () -> "Programming"));
+        assertEquals(2.0, meterRegistry.get("ai.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testKeyDependsOnEveryPart() {
+        assertEquals(AIResponseCache.key("v1", AIResponseCache.normalize(" Java\n streams")),
+                AIResponseCache.key("v1", AIResponseCache.normalize("java streams")));
+        assertNotEquals(AIResponseCache.key("v1", "java streams"), AIResponseCache.key("v2", "java streams"));
+        assertNotEquals(AIResponseCache.key("ab", "c"), AIResponseCache.key("a", "bc"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
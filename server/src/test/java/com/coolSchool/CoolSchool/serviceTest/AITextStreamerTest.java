@@ -0,0 +1,158 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.ai.AITextStreamer;
+import com.coolSchool.coolSchool.config.AIClientConfig;
+import com.coolSchool.coolSchool.controllers.BlogController;
+import com.coolSchool.coolSchool.exceptions.AI.AIStreamingBusyException;
+import com.coolSchool.coolSchool.services.AIAssistanceService;
+import com.coolSchool.coolSchool.services.BlogService;
+import com.coolSchool.coolSchool.services.CategoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.quality.Strictness;
+import org.springframework.context.MessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class AITextStreamerTest {
+
+    private HttpServer completionServer;
+    private final CountDownLatch finishCompletion = new CountDownLatch(1);
+    private volatile int status = 200;
+    private SimpleMeterRegistry meterRegistry;
+    private CloseableHttpClient httpClient;
+    private AITextStreamer aiTextStreamer;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        completionServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        completionServer.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            writeEvent(body, chunk("Hello"));
+            try {
+                // The rest of the completion is generated once the test allows it
+                finishCompletion.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writeEvent(body, chunk(" world"));
+            writeEvent(body, "[DONE]");
+            exchange.close();
+        });
+        completionServer.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        httpClient = new AIClientConfig().aiHttpClient(meterRegistry, 2, Duration.ofSeconds(1), Duration.ofSeconds(5),
+                Duration.ofMillis(200), Duration.ofSeconds(30));
+        // Lenient, every test reads only one of the messages
+        MessageSource messageSource = mock(MessageSource.class, withSettings().strictness(Strictness.LENIENT));
+        when(messageSource.getMessage(eq("error.processing.AI.response.exception"), any(), any(Locale.class)))
+                .thenReturn("Error processing AI response!");
+        when(messageSource.getMessage(eq("ai.streaming.busy"), isNull(), any(Locale.class)))
+                .thenReturn("Too many AI texts are being generated!");
+        aiTextStreamer = new AITextStreamer(httpClient, new ObjectMapper(), messageSource, meterRegistry, "test-key", 1, Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(aiTextStreamer, "openAIEndpoint",
+                "http://localhost:" + completionServer.getAddress().getPort() + "/v1/chat/completions");
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new BlogController(mock(BlogService.class), mock(CategoryService.class),
+                mock(AIAssistanceService.class), messageSource, aiTextStreamer)).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        finishCompletion.countDown();
+        aiTextStreamer.destroy();
+        httpClient.close();
+        completionServer.stop(0);
+    }
+
+    @Test
+    void testTokensAreSentAsTheyArrive() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/blogs/generate/AI/text/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"Write about Java\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The first token arrives while the completion is still being generated, wait for its whole event
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!result.getResponse().getContentAsString().endsWith("data:Hello\n\n") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("data:Hello\n\n", result.getResponse().getContentAsString());
+
+        finishCompletion.countDown();
+        result.getAsyncResult(2000);
+
+        assertEquals("data:Hello\n\ndata: world\n\n", result.getResponse().getContentAsString());
+        assertEquals(1, meterRegistry.get("ai.stream.first-token").timer().count());
+    }
+
+    @Test
+    void testUpstreamErrorIsSentAsErrorEvent() throws Exception {
+        status = 500;
+
+        MvcResult result = mockMvc.perform(post("/api/v1/blogs/generate/AI/text/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"Write about Java\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(2000);
+
+        assertEquals("event:error\ndata:Error processing AI response!\n\n", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testRejectsStreamsAboveMaxConcurrent() {
+        aiTextStreamer.stream("Write about Java");
+
+        AIStreamingBusyException exception = assertThrows(AIStreamingBusyException.class, () -> aiTextStreamer.stream("Write about Java again"));
+        assertEquals("Too many AI texts are being generated!", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get("ai.stream.rejected").counter().count());
+    }
+
+    private static String chunk(String token) {
+        return "{\"choices\": [{\"delta\": {\"content\": \"" + token + "\"}}]}";
+    }
+
+    private static void writeEvent(OutputStream body, String data) throws IOException {
+        body.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+}
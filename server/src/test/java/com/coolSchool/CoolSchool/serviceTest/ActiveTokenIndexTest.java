@@ -0,0 +1,188 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.enums.TokenRevocationMode;
+import com.coolSchool.coolSchool.models.entity.Token;
+import com.coolSchool.coolSchool.models.entity.TokenRevocation;
+import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.repositories.TokenRevocationRepository;
+import com.coolSchool.coolSchool.security.ActiveTokenIndex;
+import com.coolSchool.coolSchool.utils.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ActiveTokenIndexTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ActiveTokenIndex activeTokenIndex;
+    private LocalDateTime expiresAt;
+    private Date expiration;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(tokenRepository.findNextActiveBatch(anyLong(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(Collections.emptyList());
+        activeTokenIndex = new ActiveTokenIndex(tokenRepository, tokenRevocationRepository, meterRegistry, true, TokenRevocationMode.TABLE, 60000);
+        activeTokenIndex.load();
+        expiresAt = LocalDateTime.now().plusDays(1);
+        expiration = Date.from(expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Test
+    void testSavedTokenIsActiveWithoutDatabaseLookup() {
+        String jwt = "teacher.access.jwt";
+
+        activeTokenIndex.tokenSaved(createToken(jwt));
+
+        assertTrue(activeTokenIndex.isActive(jwt, expiration));
+        verify(tokenRepository, never()).findByTokenHash(anyString());
+    }
+
+    @Test
+    void testUnknownTokenIsLookedUpOnce() {
+        String jwt = "student.access.jwt";
+        when(tokenRepository.findByTokenHash(TokenDigest.sha256(jwt))).thenReturn(Optional.of(new Token()));
+
+        assertTrue(activeTokenIndex.isActive(jwt, expiration));
+        assertTrue(activeTokenIndex.isActive(jwt, expiration));
+
+        verify(tokenRepository, times(1)).findByTokenHash(TokenDigest.sha256(jwt));
+        assertEquals(1, meterRegistry.get("tokens.lookup").timer().count());
+    }
+
+    @Test
+    void testTokenMissingInDatabaseIsRejected() {
+        String jwt = "student.access.jwt";
+        when(tokenRepository.findByTokenHash(TokenDigest.sha256(jwt))).thenReturn(Optional.empty());
+
+        assertFalse(activeTokenIndex.isActive(jwt, expiration));
+        assertFalse(activeTokenIndex.isActive(jwt, expiration));
+
+        verify(tokenRepository, times(1)).findByTokenHash(TokenDigest.sha256(jwt));
+    }
+
+    @Test
+    void testRevokedTokenIsRejectedAndPublished() {
+        String jwt = "teacher.access.jwt";
+        Token token = createToken(jwt);
+        activeTokenIndex.tokenSaved(token);
+
+        activeTokenIndex.tokensRevoked(List.of(token));
+
+        assertFalse(activeTokenIndex.isActive(jwt, expiration));
+        verify(tokenRevocationRepository).saveAll(argThat(revocations -> revocations.iterator().next().getTokenDigest().equals(TokenDigest.sha256(jwt))));
+    }
+
+    @Test
+    void testExpiredTokenIsNotPublished() {
+        Token token = createToken("teacher.access.jwt");
+        token.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+
+        activeTokenIndex.tokensRevoked(List.of(token));
+
+        verify(tokenRevocationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testTokenRevokedLocallyIsRejectedWithoutPublishing() {
+        String jwt = "teacher.access.jwt";
+        activeTokenIndex.tokenSaved(createToken(jwt));
+        TokenRepository.TokenView view = mock(TokenRepository.TokenView.class);
+        when(view.getTokenHash()).thenReturn(TokenDigest.sha256(jwt));
+        when(view.getExpiresAt()).thenReturn(expiresAt);
+
+        activeTokenIndex.tokensRevokedLocally(List.of(view));
+
+        assertFalse(activeTokenIndex.isActive(jwt, expiration));
+        verify(tokenRepository, never()).findByTokenHash(anyString());
+        verify(tokenRevocationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testRevocationFromAnotherInstanceIsApplied() {
+        String jwt = "teacher.access.jwt";
+        activeTokenIndex.tokenSaved(createToken(jwt));
+        TokenRevocation revocation = new TokenRevocation(1L, TokenDigest.sha256(jwt), expiresAt, LocalDateTime.now());
+        when(tokenRevocationRepository.findNextBatch(any(LocalDateTime.class), eq(0L), any(Pageable.class))).thenReturn(List.of(revocation));
+
+        activeTokenIndex.pollRevocations();
+
+        assertFalse(activeTokenIndex.isActive(jwt, expiration));
+        verify(tokenRepository, never()).findByTokenHash(anyString());
+    }
+
+    @Test
+    void testRevocationCommittedAfterHigherIdIsApplied() {
+        String lateJwt = "teacher.access.jwt";
+        String jwt = "student.access.jwt";
+        activeTokenIndex.tokenSaved(createToken(lateJwt));
+        activeTokenIndex.tokenSaved(createToken(jwt));
+        LocalDateTime now = LocalDateTime.now();
+        TokenRevocation late = new TokenRevocation(1L, TokenDigest.sha256(lateJwt), expiresAt, now.minusSeconds(2));
+        TokenRevocation revocation = new TokenRevocation(2L, TokenDigest.sha256(jwt), expiresAt, now);
+        // The transaction which wrote the first row commits after the second one was polled
+        when(tokenRevocationRepository.findNextBatch(any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(revocation), List.of(late, revocation));
+
+        activeTokenIndex.pollRevocations();
+        assertTrue(activeTokenIndex.isActive(lateJwt, expiration));
+        activeTokenIndex.pollRevocations();
+
+        assertFalse(activeTokenIndex.isActive(lateJwt, expiration));
+        assertFalse(activeTokenIndex.isActive(jwt, expiration));
+        verify(tokenRevocationRepository).findNextBatch(eq(now.minusSeconds(60)), eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void testLoadReadsActiveTokens() {
+        String jwt = "teacher.access.jwt";
+        TokenRepository.TokenView view = mock(TokenRepository.TokenView.class);
+        when(view.getId()).thenReturn(1L);
+        when(view.getTokenHash()).thenReturn(TokenDigest.sha256(jwt));
+        when(view.getExpiresAt()).thenReturn(expiresAt);
+        when(tokenRepository.findNextActiveBatch(eq(0L), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(view));
+
+        activeTokenIndex.load();
+
+        assertEquals(1, activeTokenIndex.size());
+        assertTrue(activeTokenIndex.isActive(jwt, expiration));
+        verify(tokenRepository, never()).findByTokenHash(anyString());
+    }
+
+    @Test
+    void testVersionModeDoesNotReadTokens() {
+        ActiveTokenIndex versionIndex = new ActiveTokenIndex(tokenRepository, tokenRevocationRepository, meterRegistry, true, TokenRevocationMode.VERSION, 60000);
+
+        versionIndex.load();
+        versionIndex.pollRevocations();
+
+        verify(tokenRevocationRepository, never()).findNextBatch(any(LocalDateTime.class), anyLong(), any(Pageable.class));
+        verify(tokenRepository, times(1)).findNextActiveBatch(anyLong(), any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    private Token createToken(String jwt) {
+        return Token.builder()
+                .tokenHash(TokenDigest.sha256(jwt))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.coolSchool.CoolSchool.serviceTest;
 
+import com.coolSchool.coolSchool.enums.Role;
 import com.coolSchool.coolSchool.enums.TokenType;
 import com.coolSchool.coolSchool.exceptions.token.InvalidTokenException;
+import com.coolSchool.coolSchool.mappers.UserMapper;
 import com.coolSchool.coolSchool.models.dto.auth.AuthenticationRequest;
 import com.coolSchool.coolSchool.models.dto.auth.AuthenticationResponse;
 import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
@@ -11,6 +13,7 @@ import com.coolSchool.coolSchool.models.entity.Token;
 import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.repositories.UserRepository;
 import com.coolSchool.coolSchool.repositories.VerificationTokenRepository;
+import com.coolSchool.coolSchool.security.PrincipalCache;
 import com.coolSchool.coolSchool.services.AuthenticationService;
 import com.coolSchool.coolSchool.services.JwtService;
 import com.coolSchool.coolSchool.services.TokenService;
@@ -22,7 +25,6 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,6 +32,7 @@ import org.springframework.security.oauth2.jwt.JwtException;
 import org.testng.Assert;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.anyString;
@@ -48,7 +51,7 @@ class AuthenticationServiceImplTest {
     @Mock
     private JwtService jwtService;
     @Mock
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
 
     @Mock
     private AuthenticationManager authenticationManager;
@@ -71,11 +74,12 @@ class AuthenticationServiceImplTest {
                 tokenService,
                 jwtService,
                 authenticationManager,
-                modelMapper,
+                userMapper,
                 messageSource,
                 verificationTokenRepository,
                 userRepository,
-                passwordEncoder
+                passwordEncoder,
+                new PrincipalCache(Duration.ofMinutes(1), 100)
         );
     }
 
@@ -119,10 +123,10 @@ class AuthenticationServiceImplTest {
         User user = new User();
         Token token = new Token();
         token.setTokenType(TokenType.REFRESH);
+        token.setUser(user);
 
         when(jwtService.extractUsername(refreshToken)).thenReturn("user@example.com");
-        when(userService.findByEmail("user@example.com")).thenReturn(user);
-        when(tokenService.findByToken(refreshToken)).thenReturn(token);
+        when(tokenService.findTokenPair(null, refreshToken)).thenReturn(new TokenService.TokenPair(null, token));
         when(jwtService.isTokenValid(refreshToken, user)).thenReturn(true);
         when(jwtService.generateToken(user)).thenReturn("newAccessToken");
         when(jwtService.generateRefreshToken(user)).thenReturn("newRefreshToken");
@@ -130,8 +134,19 @@ class AuthenticationServiceImplTest {
         AuthenticationResponse actualResponse = authenticationService.refreshToken(refreshToken);
 
         Assertions.assertNotNull(actualResponse);
-        verify(tokenService, times(1)).revokeAllUserTokens(user);
-        verify(tokenService, times(1)).saveToken(user, "newAccessToken", TokenType.ACCESS);
+        assertEquals(actualResponse.getRefreshToken(), refreshToken);
+        verify(tokenService, times(1)).rotateAccessToken(user, token, "newAccessToken");
+        verify(userService, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void refreshTokenTestUnknownToken() {
+        when(jwtService.extractUsername("revokedRefreshToken")).thenReturn("user@example.com");
+        when(tokenService.findTokenPair(null, "revokedRefreshToken")).thenReturn(new TokenService.TokenPair(null, null));
+
+        Assert.assertThrows(InvalidTokenException.class, () -> authenticationService.refreshToken("revokedRefreshToken"));
+
+        verify(tokenService, never()).rotateAccessToken(any(), any(), anyString());
     }
 
     @Test
@@ -154,31 +169,51 @@ class AuthenticationServiceImplTest {
 
     @Test
     void meTestInvalidJwtToken() {
-        Assert.assertThrows(InvalidTokenException.class, () -> authenticationService.me(null));
-        Assert.assertThrows(InvalidTokenException.class, () -> authenticationService.me(""));
+        Assert.assertThrows(InvalidTokenException.class, () -> authenticationService.me(null, null));
+        Assert.assertThrows(InvalidTokenException.class, () -> authenticationService.me("", null));
     }
 
     @Test
     void meTestInvalidAccessToken() {
-        when(tokenService.findByToken(any())).thenReturn(null);
-        Assert.assertThrows(InvalidTokenException.class, () -> authenticationService.me("validJwtToken"));
+        when(tokenService.findTokenPair(any(), any())).thenReturn(new TokenService.TokenPair(null, null));
+        Assert.assertThrows(InvalidTokenException.class, () -> authenticationService.me("validJwtToken", null));
 
-        verify(tokenService, Mockito.times(1)).findByToken("validJwtToken");
+        verify(tokenService, Mockito.times(1)).findTokenPair("validJwtToken", null);
     }
 
     @Test
     void meTestInvalidTokenValidity() {
         Token accessToken = new Token();
-        accessToken.setToken("validJwtToken");
-        when(tokenService.findByToken("validJwtToken")).thenReturn(accessToken);
+        when(tokenService.findTokenPair("validJwtToken", null)).thenReturn(new TokenService.TokenPair(accessToken, null));
         when(jwtService.isTokenValid("validJwtToken", accessToken.getUser())).thenThrow(JwtException.class);
 
-        Assert.assertThrows(JwtException.class, () -> authenticationService.me("validJwtToken"));
+        Assert.assertThrows(JwtException.class, () -> authenticationService.me("validJwtToken", null));
 
-        verify(tokenService, Mockito.times(1)).findByToken("validJwtToken");
+        verify(tokenService, Mockito.times(1)).findTokenPair("validJwtToken", null);
         verify(jwtService, Mockito.times(1)).isTokenValid("validJwtToken", accessToken.getUser());
     }
 
+    @Test
+    void meTestKeepsValidRefreshToken() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("student@coolschool.com");
+        user.setRole(Role.USER);
+        Token accessToken = Token.builder().user(user).tokenType(TokenType.ACCESS).build();
+        Token refreshToken = Token.builder().user(user).tokenType(TokenType.REFRESH).build();
+        when(tokenService.findTokenPair("validJwtToken", "validRefreshToken"))
+                .thenReturn(new TokenService.TokenPair(accessToken, refreshToken));
+        when(jwtService.isTokenValid(anyString(), eq(user))).thenReturn(true);
+        when(userMapper.toPublicUserDTO(user)).thenReturn(PublicUserDTO.builder().build());
+
+        AuthenticationResponse response = authenticationService.me("validJwtToken", "validRefreshToken");
+
+        assertEquals(response.getAccessToken(), "validJwtToken");
+        assertEquals(response.getRefreshToken(), "validRefreshToken");
+        verify(tokenService, never()).saveToken(any(), anyString(), any());
+        verify(tokenService, never()).findByToken(anyString());
+    }
+
     @Test
     void attachAuthCookiesTest() {
         AuthenticationResponse authenticationResponse = AuthenticationResponse.builder()
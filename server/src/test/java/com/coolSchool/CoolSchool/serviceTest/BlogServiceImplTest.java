@@ -1,5 +1,6 @@
 package com.coolSchool.CoolSchool.serviceTest;
 
+import com.coolSchool.coolSchool.ai.CategoryClassifier;
 import com.coolSchool.coolSchool.config.FrontendConfig;
 import com.coolSchool.coolSchool.enums.Role;
 import com.coolSchool.coolSchool.exceptions.blog.BlogNotEnabledException;
@@ -16,9 +17,9 @@ import com.coolSchool.coolSchool.repositories.BlogRepository;
 import com.coolSchool.coolSchool.repositories.CategoryRepository;
 import com.coolSchool.coolSchool.repositories.FileRepository;
 import com.coolSchool.coolSchool.repositories.UserRepository;
+import com.coolSchool.coolSchool.services.EmailService;
 import com.coolSchool.coolSchool.services.impl.BlogServiceImpl;
 import com.coolSchool.coolSchool.slack.SlackNotifier;
-import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,12 +27,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessagePreparator;
 
-import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -57,11 +53,13 @@ public class BlogServiceImplTest {
     @Mock
     private MessageSource messageSource;
     @Mock
-    private JavaMailSender emailSender;
+    private EmailService emailService;
     @Mock
     private SlackNotifier slackNotifier;
     @Mock
     private FrontendConfig frontendConfig;
+    @Mock
+    private CategoryClassifier categoryClassifier;
 
     @BeforeEach
     void setUp() {
@@ -75,49 +73,10 @@ public class BlogServiceImplTest {
         userRepository = mock(UserRepository.class);
         categoryRepository = mock(CategoryRepository.class);
         messageSource = mock(MessageSource.class);
-        emailSender = new JavaMailSender() {
-            @Override
-            public MimeMessage createMimeMessage() {
-                return null;
-            }
-
-            @Override
-            public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
-                return null;
-            }
-
-            @Override
-            public void send(MimeMessage mimeMessage) throws MailException {
-
-            }
-
-            @Override
-            public void send(MimeMessage... mimeMessages) throws MailException {
-
-            }
-
-            @Override
-            public void send(MimeMessagePreparator mimeMessagePreparator) throws MailException {
-
-            }
-
-            @Override
-            public void send(MimeMessagePreparator... mimeMessagePreparators) throws MailException {
-
-            }
-
-            @Override
-            public void send(SimpleMailMessage simpleMessage) throws MailException {
-
-            }
-
-            @Override
-            public void send(SimpleMailMessage... simpleMessages) throws MailException {
-
-            }
-        };
+        emailService = mock(EmailService.class);
+        categoryClassifier = mock(CategoryClassifier.class);
         FrontendConfig frontendConfig = mock(FrontendConfig.class);
-        blogService = new BlogServiceImpl(blogRepository, modelMapper, fileRepository, userRepository, categoryRepository, messageSource, emailSender, slackNotifier, frontendConfig);
+        blogService = new BlogServiceImpl(blogRepository, modelMapper, fileRepository, userRepository, categoryRepository, messageSource, emailService, slackNotifier, frontendConfig, categoryClassifier, TestMappers.blogMapper());
     }
 
     @Test
@@ -182,7 +141,7 @@ public class BlogServiceImplTest {
 
     @Test
     void testGetBlogByIdNotFound() {
-        when(blogRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(blogRepository.findByIdAndDeletedFalse(anyLong())).thenReturn(Optional.empty());
         when(blogRepository.findByIdAndDeletedFalseIsEnabledTrue(anyLong())).thenReturn(Optional.empty());
         assertThrows(BlogNotFoundException.class, () -> blogService.getBlogById(1L, null));
     }
@@ -284,7 +243,7 @@ public class BlogServiceImplTest {
         blog.setOwnerId(user);
 
         Optional<Blog> blogOptional = Optional.of(blog);
-        when(blogRepository.findById(blogId)).thenReturn(blogOptional);
+        when(blogRepository.findByIdAndDeletedFalse(blogId)).thenReturn(blogOptional);
         when(blogRepository.save(any(Blog.class))).thenReturn(blog);
 
         assertDoesNotThrow(() -> blogService.deleteBlog(blogId, publicUserDTO));
@@ -296,7 +255,7 @@ public class BlogServiceImplTest {
     void testGetBlogById_BlogNotFound() {
         Long blogId = 1L;
 
-        when(blogRepository.findById(blogId)).thenReturn(Optional.empty());
+        when(blogRepository.findByIdAndDeletedFalse(blogId)).thenReturn(Optional.empty());
 
         assertThrows(BlogNotFoundException.class, () -> blogService.getBlogById(blogId, null));
     }
@@ -310,7 +269,7 @@ public class BlogServiceImplTest {
         mockBlog.setEnabled(false);
 
         // Mock repository behavior
-        when(blogRepository.findById(blogId)).thenReturn(Optional.of(mockBlog));
+        when(blogRepository.findByIdAndDeletedFalse(blogId)).thenReturn(Optional.of(mockBlog));
 
         // Assert that BlogNotEnabledException is thrown
         assertThrows(BlogNotEnabledException.class, () -> blogService.getBlogById(blogId, null));
@@ -322,7 +281,7 @@ public class BlogServiceImplTest {
         Long blogId = 1L;
 
         // Mock repository behavior
-        when(blogRepository.findById(blogId)).thenReturn(Optional.empty());
+        when(blogRepository.findByIdAndDeletedFalse(blogId)).thenReturn(Optional.empty());
 
         // Assert that BlogNotFoundException is thrown
         assertThrows(BlogNotFoundException.class, () -> blogService.getBlogById(blogId, null));
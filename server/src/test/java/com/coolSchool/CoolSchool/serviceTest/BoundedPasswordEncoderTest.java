@@ -0,0 +1,86 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.exceptions.rateLimiting.PasswordHashingBusyException;
+import com.coolSchool.coolSchool.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MessageSource messageSource;
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        messageSource = mock(MessageSource.class);
+        passwordEncoder = new BoundedPasswordEncoder(4, 2, 4, Duration.ofSeconds(5), meterRegistry, messageSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.close();
+    }
+
+    @Test
+    void testEncodeAndMatches() {
+        String hash = passwordEncoder.encode("password123");
+
+        assertTrue(passwordEncoder.matches("password123", hash));
+        assertFalse(passwordEncoder.matches("wrongPassword", hash));
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testWeakerHashNeedsUpgrade() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        BoundedPasswordEncoder strongerEncoder = new BoundedPasswordEncoder(5, 1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry(), messageSource);
+
+        assertTrue(strongerEncoder.upgradeEncoding(weakHash));
+        assertFalse(passwordEncoder.upgradeEncoding(weakHash));
+        strongerEncoder.close();
+    }
+
+    @Test
+    void testFullQueueIsRejectedAtOnce() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = mock(PasswordEncoder.class);
+        when(blockingEncoder.encode(any())).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        SimpleMeterRegistry boundedRegistry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder boundedEncoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, Duration.ofSeconds(5), boundedRegistry, messageSource);
+
+        // One hash running and one in the queue
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> boundedEncoder.encode("first"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> boundedEncoder.encode("second"));
+        while (boundedRegistry.get("password.hashing.queue").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> boundedEncoder.encode("third"));
+        assertEquals(1.0, boundedRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hash", running.join());
+        assertEquals("hash", queued.join());
+        boundedEncoder.close();
+    }
+}
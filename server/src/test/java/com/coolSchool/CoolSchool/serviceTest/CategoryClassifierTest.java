@@ -0,0 +1,135 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.ai.CategoryClassifier;
+import com.coolSchool.coolSchool.repositories.BlogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryClassifierTest {
+
+    private static final long PROGRAMMING = 1L;
+    private static final long BIOLOGY = 2L;
+
+    private BlogRepository blogRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CategoryClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        blogRepository = mock(BlogRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        classifier = new CategoryClassifier(blogRepository, meterRegistry, 0.8, 4);
+    }
+
+    @Test
+    void testClassifiesByLearnedBlogs() {
+        learnExamples();
+
+        Optional<CategoryClassifier.Prediction> prediction = classifier.classify("Java streams and lambdas in a class", List.of(PROGRAMMING, BIOLOGY));
+
+        assertTrue(prediction.isPresent());
+        assertEquals(PROGRAMMING, prediction.get().categoryId());
+        assertTrue(prediction.get().confidence() >= 0.8);
+        assertEquals(1.0, meterRegistry.get("ai.classifier.predictions").tag("result", "confident").counter().count());
+    }
+
+    @Test
+    void testClassifiesCyrillicContent() {
+        learnExamples();
+        classifier.learn(BIOLOGY, "Клетката и растенията. Фотосинтеза в клетката.");
+        classifier.learn(PROGRAMMING, "Програмиране на Java. Класове и методи.");
+
+        Optional<CategoryClassifier.Prediction> prediction = classifier.classify("Фотосинтеза и клетката на растенията", List.of(PROGRAMMING, BIOLOGY));
+
+        assertEquals(BIOLOGY, prediction.orElseThrow().categoryId());
+    }
+
+    @Test
+    void testUnsureWithoutKnownWords() {
+        learnExamples();
+
+        assertTrue(classifier.classify("Lorem ipsum dolor", List.of(PROGRAMMING, BIOLOGY)).isEmpty());
+        assertEquals(1.0, meterRegistry.get("ai.classifier.predictions").tag("result", "unsure").counter().count());
+    }
+
+    @Test
+    void testUnsureBeforeMinDocuments() {
+        classifier.learn(PROGRAMMING, "Java classes and methods");
+        classifier.learn(BIOLOGY, "Cells and photosynthesis");
+
+        assertTrue(classifier.classify("Java classes", List.of(PROGRAMMING, BIOLOGY)).isEmpty());
+    }
+
+    @Test
+    void testOnlyOfferedCategoriesArePredicted() {
+        learnExamples();
+
+        // Biology is not offered, e.g. it was deleted, and a single category is no choice
+        assertTrue(classifier.classify("Java streams", List.of(PROGRAMMING)).isEmpty());
+        assertTrue(classifier.classify("Java streams", List.of(BIOLOGY, 3L)).isEmpty());
+    }
+
+    @Test
+    void testTrainReadsEnabledBlogsInBatches() {
+        List<BlogRepository.BlogText> firstBatch = LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> blogText(id, id % 2 == 0 ? PROGRAMMING : BIOLOGY, id % 2 == 0 ? "Java classes" : "Cells and plants"))
+                .toList();
+        when(blogRepository.findNextEnabledTextBatch(eq(0L), any(Pageable.class))).thenReturn(firstBatch);
+        when(blogRepository.findNextEnabledTextBatch(eq(500L), any(Pageable.class))).thenReturn(List.of(blogText(501, PROGRAMMING, "Java")));
+
+        classifier.train();
+
+        assertEquals(501, classifier.size());
+        assertEquals(PROGRAMMING, classifier.classify("Java classes", List.of(PROGRAMMING, BIOLOGY)).orElseThrow().categoryId());
+    }
+
+    @Test
+    void testTrainFailureKeepsTheModelUsable() {
+        when(blogRepository.findNextEnabledTextBatch(eq(0L), any(Pageable.class))).thenThrow(new IllegalStateException("Database is down"));
+
+        classifier.train();
+        learnExamples();
+
+        assertEquals(6, classifier.size());
+    }
+
+    private void learnExamples() {
+        classifier.learn(PROGRAMMING, "Java streams make collections easy to filter");
+        classifier.learn(PROGRAMMING, "Lambdas and streams in Java");
+        classifier.learn(PROGRAMMING, "How a Java class implements an interface");
+        classifier.learn(BIOLOGY, "Photosynthesis happens in the cells of plants");
+        classifier.learn(BIOLOGY, "The cell membrane and the nucleus");
+        classifier.learn(BIOLOGY, "Plants, cells and the energy of the sun");
+    }
+
+    private static BlogRepository.BlogText blogText(long id, long categoryId, String content) {
+        return new BlogRepository.BlogText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+        };
+    }
+}
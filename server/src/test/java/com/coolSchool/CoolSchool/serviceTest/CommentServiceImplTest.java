@@ -53,7 +53,7 @@ class CommentServiceImplTest {
     void setUp() {
         publicUserDTO = new PublicUserDTO(1L, "user", "user", "user@gmail.com", Role.USER, "description", false);
         modelMapper = new ModelMapper();
-        commentService = new CommentServiceImpl(commentRepository, modelMapper, userRepository, blogRepository, messageSource);
+        commentService = new CommentServiceImpl(commentRepository, modelMapper, userRepository, blogRepository, messageSource, TestMappers.commentMapper());
     }
 
     @Test
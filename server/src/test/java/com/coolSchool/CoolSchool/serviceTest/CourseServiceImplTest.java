@@ -71,7 +71,7 @@ class CourseServiceImplTest {
         MockitoAnnotations.openMocks(this);
         modelMapper = new ModelMapper();
         publicUserDTO = new PublicUserDTO(1L, "user", "user", "user@gmail.com", Role.USER, "description", false);
-        courseService = new CourseServiceImpl(courseRepository, modelMapper, userRepository, categoryRepository, userCourseService, messageSource, slackNotifier, fileRepository, frontendConfig);
+        courseService = new CourseServiceImpl(courseRepository, modelMapper, userRepository, categoryRepository, userCourseService, messageSource, slackNotifier, fileRepository, frontendConfig, TestMappers.courseMapper());
     }
 
     @Test
@@ -0,0 +1,128 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.enums.EmailStatus;
+import com.coolSchool.coolSchool.mail.EmailOutboxWorker;
+import com.coolSchool.coolSchool.models.entity.OutboxEmail;
+import com.coolSchool.coolSchool.repositories.OutboxEmailRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxWorkerTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(outboxEmailRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testBatchIsDeliveredAndMarkedSent() throws Exception {
+        OutboxEmail confirmation = createEmail(1L, "student@coolschool.com", "Cool School Registration Confirmation");
+        OutboxEmail reset = createEmail(2L, "teacher@coolschool.com", "Password Reset Request");
+        when(outboxEmailRepository.findDueForUpdate(any(LocalDateTime.class), eq(50))).thenReturn(new ArrayList<>(List.of(confirmation, reset)));
+
+        int claimed = createWorker(ServerSetupTest.SMTP.getPort(), 8).deliverNextBatch();
+
+        assertEquals(2, claimed);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals("Cool School Registration Confirmation", received[0].getSubject());
+        assertEquals("Dear, Student", GreenMailUtil.getBody(received[0]).trim());
+        verify(outboxEmailRepository).markSent(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        assertEquals(2.0, meterRegistry.get("email.outbox.sent").counter().count());
+    }
+
+    @Test
+    void testUnreachableServerSchedulesRetryWithBackoff() {
+        OutboxEmail email = createEmail(1L, "student@coolschool.com", "Your Blog is Enabled");
+        when(outboxEmailRepository.findDueForUpdate(any(LocalDateTime.class), anyInt())).thenReturn(new ArrayList<>(List.of(email)));
+        LocalDateTime before = LocalDateTime.now();
+
+        // Nothing listens on this port
+        createWorker(ServerSetupTest.SMTP.getPort() + 1000, 8).deliverNextBatch();
+
+        assertEquals(EmailStatus.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getLastError());
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        verify(outboxEmailRepository, never()).markSent(anyCollection(), any());
+        assertEquals(1.0, meterRegistry.get("email.outbox.retried").counter().count());
+    }
+
+    @Test
+    void testEmailIsGivenUpAfterMaxAttempts() {
+        OutboxEmail email = createEmail(1L, "student@coolschool.com", "Your Blog is Enabled");
+        email.setAttempts(2);
+        when(outboxEmailRepository.findDueForUpdate(any(LocalDateTime.class), anyInt())).thenReturn(new ArrayList<>(List.of(email)));
+
+        createWorker(ServerSetupTest.SMTP.getPort() + 1000, 3).deliverNextBatch();
+
+        assertEquals(EmailStatus.FAILED, email.getStatus());
+        assertEquals(3, email.getAttempts());
+        assertEquals(1.0, meterRegistry.get("email.outbox.failed").counter().count());
+    }
+
+    @Test
+    void testEmptyOutboxDoesNotConnect() {
+        when(outboxEmailRepository.findDueForUpdate(any(LocalDateTime.class), anyInt())).thenReturn(new ArrayList<>());
+        JavaMailSenderImpl mailSender = spy(createMailSender(ServerSetupTest.SMTP.getPort()));
+
+        new EmailOutboxWorker(outboxEmailRepository, mailSender, transactionManager, meterRegistry, 1, 50, 8,
+                Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(7)).deliverNextBatch();
+
+        verifyNoInteractions(mailSender);
+    }
+
+    private EmailOutboxWorker createWorker(int port, int maxAttempts) {
+        return new EmailOutboxWorker(outboxEmailRepository, createMailSender(port), transactionManager, meterRegistry,
+                1, 50, maxAttempts, Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(7));
+    }
+
+    private JavaMailSenderImpl createMailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return mailSender;
+    }
+
+    private OutboxEmail createEmail(Long id, String recipient, String subject) {
+        return OutboxEmail.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject(subject)
+                .body("Dear, Student")
+                .status(EmailStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
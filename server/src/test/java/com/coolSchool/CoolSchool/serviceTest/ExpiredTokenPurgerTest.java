@@ -0,0 +1,87 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.security.ExpiredTokenPurger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpiredTokenPurgerTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ExpiredTokenPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        purger = new ExpiredTokenPurger(tokenRepository, meterRegistry, 2, 10);
+    }
+
+    @Test
+    void testPurgeDeletesExpiredTokensInBatches() {
+        LocalDateTime expiredAt = LocalDateTime.now().minusDays(1);
+        TokenRepository.TokenView first = createView(1L, expiredAt);
+        TokenRepository.TokenView second = createView(5L, expiredAt);
+        TokenRepository.TokenView third = createView(3L, expiredAt.plusHours(1));
+        when(tokenRepository.findNextExpiredBatch(any(LocalDateTime.class), any(LocalDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(tokenRepository.findNextExpiredBatch(any(LocalDateTime.class), eq(expiredAt), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(third));
+        when(tokenRepository.deleteAllByIds(List.of(1L, 5L))).thenReturn(2);
+        when(tokenRepository.deleteAllByIds(List.of(3L))).thenReturn(1);
+
+        purger.purgeExpired();
+
+        verify(tokenRepository).deleteAllByIds(List.of(1L, 5L));
+        verify(tokenRepository).deleteAllByIds(List.of(3L));
+        verify(tokenRepository, times(2)).findNextExpiredBatch(any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class));
+        assertEquals(3.0, meterRegistry.get("tokens.purged").counter().count());
+    }
+
+    @Test
+    void testPurgeStopsAfterMaxBatches() {
+        ExpiredTokenPurger limitedPurger = new ExpiredTokenPurger(tokenRepository, meterRegistry, 1, 2);
+        LocalDateTime expiredAt = LocalDateTime.now().minusDays(1);
+        List<TokenRepository.TokenView> first = List.of(createView(1L, expiredAt));
+        List<TokenRepository.TokenView> second = List.of(createView(2L, expiredAt));
+        List<TokenRepository.TokenView> third = List.of(createView(3L, expiredAt));
+        when(tokenRepository.findNextExpiredBatch(any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(first, second, third);
+        when(tokenRepository.deleteAllByIds(anyCollection())).thenReturn(1);
+
+        limitedPurger.purgeExpired();
+
+        verify(tokenRepository, times(2)).deleteAllByIds(anyCollection());
+    }
+
+    @Test
+    void testPurgeWithoutExpiredTokensDeletesNothing() {
+        when(tokenRepository.findNextExpiredBatch(any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        purger.purgeExpired();
+
+        verify(tokenRepository, never()).deleteAllByIds(anyCollection());
+    }
+
+    private TokenRepository.TokenView createView(Long id, LocalDateTime expiresAt) {
+        TokenRepository.TokenView view = mock(TokenRepository.TokenView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getExpiresAt()).thenReturn(expiresAt);
+        return view;
+    }
+}
@@ -0,0 +1,131 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for an S3-compatible object store, keeps the objects in memory.
+ * Implements only the operations used by S3BlobStore.
+ */
+class FakeS3Client implements S3Client {
+
+    final Map<String, byte[]> objects = new ConcurrentSkipListMap<>();
+    final Map<String, Map<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+    final AtomicInteger uploadedParts = new AtomicInteger();
+    final AtomicInteger abortedUploads = new AtomicInteger();
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest request, RequestBody requestBody) {
+        objects.put(request.key(), read(requestBody));
+        return PutObjectResponse.builder().build();
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+        byte[] content = objects.get(request.key());
+        if (content == null) {
+            throw NoSuchKeyException.builder().statusCode(404).message("The specified key does not exist.").build();
+        }
+        GetObjectResponse response = GetObjectResponse.builder().contentLength((long) content.length).build();
+        return new ResponseInputStream<>(response, AbortableInputStream.create(new ByteArrayInputStream(content)));
+    }
+
+    @Override
+    public HeadObjectResponse headObject(HeadObjectRequest request) {
+        byte[] content = objects.get(request.key());
+        if (content == null) {
+            throw NoSuchKeyException.builder().statusCode(404).build();
+        }
+        return HeadObjectResponse.builder().contentLength((long) content.length).build();
+    }
+
+    @Override
+    public DeleteObjectResponse deleteObject(DeleteObjectRequest request) {
+        objects.remove(request.key());
+        return DeleteObjectResponse.builder().build();
+    }
+
+    @Override
+    public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+        // The continuation token is the last key of the previous page
+        List<String> keys = objects.keySet().stream()
+                .filter(key -> request.continuationToken() == null || key.compareTo(request.continuationToken()) > 0)
+                .limit(request.maxKeys() + 1)
+                .toList();
+        boolean truncated = keys.size() > request.maxKeys();
+        List<S3Object> contents = keys.stream()
+                .limit(request.maxKeys())
+                .map(key -> S3Object.builder().key(key).size((long) objects.get(key).length).lastModified(Instant.EPOCH).build())
+                .toList();
+        return ListObjectsV2Response.builder()
+                .contents(contents)
+                .isTruncated(truncated)
+                .nextContinuationToken(truncated ? contents.get(contents.size() - 1).key() : null)
+                .build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+        String uploadId = UUID.randomUUID().toString();
+        multipartUploads.put(uploadId, new ConcurrentHashMap<>());
+        return CreateMultipartUploadResponse.builder().uploadId(uploadId).build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody requestBody) {
+        multipartUploads.get(request.uploadId()).put(request.partNumber(), read(requestBody));
+        uploadedParts.incrementAndGet();
+        return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+        Map<Integer, byte[]> parts = multipartUploads.remove(request.uploadId());
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        request.multipartUpload().parts().stream()
+                .sorted(Comparator.comparing(CompletedPart::partNumber))
+                .forEach(part -> content.writeBytes(parts.get(part.partNumber())));
+        objects.put(request.key(), content.toByteArray());
+        return CompleteMultipartUploadResponse.builder().build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+        multipartUploads.remove(request.uploadId());
+        abortedUploads.incrementAndGet();
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    @Override
+    public String serviceName() {
+        return "s3";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private byte[] read(RequestBody requestBody) {
+        try {
+            return requestBody.contentStreamProvider().newStream().readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
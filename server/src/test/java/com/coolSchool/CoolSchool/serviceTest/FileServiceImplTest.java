@@ -6,11 +6,13 @@ import com.coolSchool.coolSchool.exceptions.files.UnsupportedFileTypeException;
 import com.coolSchool.coolSchool.models.entity.File;
 import com.coolSchool.coolSchool.repositories.FileRepository;
 import com.coolSchool.coolSchool.services.impl.FileServiceImpl;
+import com.coolSchool.coolSchool.storage.HotFileCache;
+import com.coolSchool.coolSchool.storage.LocalBlobStore;
+import com.coolSchool.coolSchool.storage.UploadShardLayout;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,8 +22,11 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -32,7 +37,6 @@ import static org.testng.AssertJUnit.assertNotNull;
 @ExtendWith(MockitoExtension.class)
 class FileServiceImplTest {
 
-    @InjectMocks
     private FileServiceImpl fileService;
     @Mock
     private FileRepository fileRepository;
@@ -43,7 +47,7 @@ class FileServiceImplTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         String imageDirectory = "server/src/main/resources/static/uploads/";
-        fileService = new FileServiceImpl(fileRepository, messageSource, imageDirectory);
+        fileService = new FileServiceImpl(fileRepository, messageSource, new LocalBlobStore(imageDirectory), new HotFileCache(true, 1024 * 1024, 64 * 1024), Duration.ofMinutes(10));
     }
 
     @Test
@@ -102,22 +106,85 @@ class FileServiceImplTest {
     }
 
     @Test
-    void testGetFileBytes() throws IOException {
+    void testGetFileContent() throws IOException {
         String imageName = "test-image.jpg";
         String imageDirectory = "server/src/main/resources/static/uploads/";
         Path imagePath = Path.of(imageDirectory, imageName);
         Files.createDirectories(imagePath.getParent());
         Files.write(imagePath, "Test image content".getBytes());
 
-        byte[] imageBytes = fileService.getFileBytes(imageName);
+        byte[] imageBytes = bytesOf(fileService.getFileContent(imageName));
 
         Assertions.assertArrayEquals("Test image content".getBytes(), imageBytes);
     }
 
+    @Test
+    void testGetFileContentServedFromCache() throws IOException {
+        String imageName = "cached-test-image.jpg";
+        String imageDirectory = "server/src/main/resources/static/uploads/";
+        Path imagePath = Path.of(imageDirectory, imageName);
+        Files.createDirectories(imagePath.getParent());
+        Files.write(imagePath, "Cached image content".getBytes());
+
+        fileService.getFileContent(imageName);
+        Files.delete(imagePath);
+        byte[] imageBytes = bytesOf(fileService.getFileContent(imageName));
+
+        Assertions.assertArrayEquals("Cached image content".getBytes(), imageBytes);
+    }
+
+    @Test
+    void testGetFileContentDoesNotCacheLargeFiles() throws IOException {
+        fileService = new FileServiceImpl(fileRepository, messageSource, new LocalBlobStore("server/src/main/resources/static/uploads/"), new HotFileCache(true, 1024, 8), Duration.ofMinutes(10));
+        String imageName = "large-test-image.jpg";
+        Path imagePath = Path.of("server/src/main/resources/static/uploads/", imageName);
+        Files.createDirectories(imagePath.getParent());
+        Files.write(imagePath, "Large image content".getBytes());
+
+        fileService.getFileContent(imageName);
+        Files.delete(imagePath);
+
+        org.testng.Assert.assertThrows(FileNotFoundException.class, () -> fileService.getFileContent(imageName));
+    }
+
+    @Test
+    void testGetFileContentFromShardDirectory() throws IOException {
+        String imageName = "sharded-test-image.jpg";
+        Path imagePath = UploadShardLayout.resolve(Path.of("server/src/main/resources/static/uploads/"), imageName);
+        Files.createDirectories(imagePath.getParent());
+        Files.write(imagePath, "Sharded image content".getBytes());
+
+        byte[] imageBytes = bytesOf(fileService.getFileContent(imageName));
+
+        Assertions.assertArrayEquals("Sharded image content".getBytes(), imageBytes);
+    }
+
+    @Test
+    void testOpenFileStream() throws IOException {
+        String fileName = "streamed-test-file.pdf";
+        Path filePath = Path.of("server/src/main/resources/static/uploads/", fileName);
+        Files.createDirectories(filePath.getParent());
+        Files.write(filePath, "Streamed file content".getBytes());
+
+        try (InputStream content = fileService.openFileStream(fileName)) {
+            Assertions.assertArrayEquals("Streamed file content".getBytes(), content.readAllBytes());
+        }
+    }
+
+    @Test
+    void testOpenFileStreamNonExistentFile() {
+        org.testng.Assert.assertThrows(FileNotFoundException.class, () -> fileService.openFileStream("non-existent-file.pdf"));
+    }
+
+    @Test
+    void testGetPresignedUrlIsEmptyForLocalStorage() {
+        Assertions.assertTrue(fileService.getPresignedUrl("test-image.jpg").isEmpty());
+    }
+
     @Test
     void testGetImageBytesNonExistentImage() throws IOException {
         String nonExistentImageName = "non-existent-image.jpg";
-        org.testng.Assert.assertThrows(FileNotFoundException.class, () -> fileService.getFileBytes(nonExistentImageName));
+        org.testng.Assert.assertThrows(FileNotFoundException.class, () -> fileService.getFileContent(nonExistentImageName));
     }
 
     @Test
@@ -205,4 +272,10 @@ class FileServiceImplTest {
             fail("Failed to delete temporary directory");
         }
     }
+
+    private static byte[] bytesOf(ByteBuffer content) {
+        byte[] bytes = new byte[content.remaining()];
+        content.duplicate().get(bytes);
+        return bytes;
+    }
 }
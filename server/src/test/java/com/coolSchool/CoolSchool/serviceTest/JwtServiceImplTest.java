@@ -2,10 +2,11 @@ package com.coolSchool.CoolSchool.serviceTest;
 
 import com.coolSchool.coolSchool.services.impl.security.JwtServiceImpl;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.User;
@@ -18,13 +19,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 public class JwtServiceImplTest {
-    @InjectMocks
     private JwtServiceImpl jwtService;
+    private String secretKey;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        String secretKey = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+        secretKey = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
         long jwtExpiration = 86400000;
         long refreshExpiration = 604800000;
         jwtService = new JwtServiceImpl(secretKey, jwtExpiration, refreshExpiration);
@@ -78,4 +79,57 @@ public class JwtServiceImplTest {
                 .build();
     }
 
-}
\ No newline at end of file
+    @Test
+    void testVerifyTokenReturnsCachedClaimsForRepeatedToken() {
+        String token = jwtService.generateToken(createUserDetails());
+
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(token);
+
+        assertEquals("testuser", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void testVerifyTokenRejectsTamperedToken() {
+        String token = jwtService.generateToken(createUserDetails());
+        String otherToken = new JwtServiceImpl("Y2U4N2RhNTQ3ZmY1ZjQ0ZTg4ZmQ0MTJiNGM2M2Q0ZTg1MDRhNTM1NGVmNDliNDVj", 86400000, 604800000)
+                .generateToken(createUserDetails());
+        String tamperedToken = token.substring(0, token.lastIndexOf('.')) + otherToken.substring(otherToken.lastIndexOf('.'));
+
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(tamperedToken));
+    }
+
+    @Test
+    void testVerifyTokenRejectsExpiredToken() {
+        JwtServiceImpl expiringJwtService = new JwtServiceImpl(secretKey, -1000, -1000);
+        String token = expiringJwtService.generateToken(createUserDetails());
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verifyToken(token));
+    }
+
+    @Test
+    void testIsTokenValidWithClaimsOfAnotherUser() {
+        Claims claims = jwtService.verifyToken(jwtService.generateToken(createUserDetails()));
+        UserDetails otherUser = User.withUsername("otheruser").password("password").roles("USER").build();
+
+        assertTrue(jwtService.isTokenValid(claims, createUserDetails()));
+        assertFalse(jwtService.isTokenValid(claims, otherUser));
+    }
+
+    @Test
+    void testTokensCarryTypeAndVersionOfUser() {
+        com.coolSchool.coolSchool.models.entity.User user = com.coolSchool.coolSchool.models.entity.User.builder()
+                .email("teacher@coolschool.com")
+                .tokenVersion(3)
+                .build();
+
+        Claims accessClaims = jwtService.verifyToken(jwtService.generateToken(user));
+        Claims refreshClaims = jwtService.verifyToken(jwtService.generateRefreshToken(user));
+
+        assertEquals("ACCESS", accessClaims.get(JwtServiceImpl.TOKEN_TYPE_CLAIM, String.class));
+        assertEquals("REFRESH", refreshClaims.get(JwtServiceImpl.TOKEN_TYPE_CLAIM, String.class));
+        assertEquals(3, accessClaims.get(JwtServiceImpl.TOKEN_VERSION_CLAIM, Integer.class));
+        assertEquals(3, refreshClaims.get(JwtServiceImpl.TOKEN_VERSION_CLAIM, Integer.class));
+    }
+}
@@ -0,0 +1,86 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.storage.BlobStore;
+import com.coolSchool.coolSchool.storage.LocalBlobStore;
+import com.coolSchool.coolSchool.storage.UploadShardLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path uploadDirectory;
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(uploadDirectory.toString() + "/");
+    }
+
+    @Test
+    void testPutStoresBlobInShardDirectory() throws IOException {
+        byte[] content = "File content".getBytes();
+
+        blobStore.put("example.jpg", new ByteArrayInputStream(content), content.length, "image/jpeg");
+
+        Path shardedPath = uploadDirectory.resolve(UploadShardLayout.shardOf("example.jpg")).resolve("example.jpg");
+        assertArrayEquals(content, Files.readAllBytes(shardedPath));
+        assertArrayEquals(content, blobStore.readAllBytes("example.jpg"));
+    }
+
+    @Test
+    void testReadsLegacyBlobFromUploadDirectory() throws IOException {
+        Files.write(uploadDirectory.resolve("legacy.png"), "Legacy content".getBytes());
+
+        assertTrue(blobStore.exists("legacy.png"));
+        assertArrayEquals("Legacy content".getBytes(), blobStore.readAllBytes("legacy.png"));
+    }
+
+    @Test
+    void testMissingBlobThrowsNoSuchFileException() {
+        assertThrows(NoSuchFileException.class, () -> blobStore.open("missing.pdf"));
+        assertFalse(blobStore.exists("missing.pdf"));
+    }
+
+    @Test
+    void testLocationOfContainsShardDirectory() {
+        assertEquals(uploadDirectory + "/" + UploadShardLayout.relativePathOf("example.jpg"), blobStore.locationOf("example.jpg"));
+    }
+
+    @Test
+    void testListReturnsEveryBlobOnce() throws IOException {
+        Set<String> expectedKeys = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            String key = "file-" + i + ".pdf";
+            blobStore.put(key, new ByteArrayInputStream(new byte[i]), i, "application/pdf");
+            expectedKeys.add(key);
+        }
+        Files.write(uploadDirectory.resolve("legacy.png"), "Legacy content".getBytes());
+        expectedKeys.add("legacy.png");
+
+        Set<String> listedKeys = new HashSet<>();
+        String cursor = null;
+        do {
+            BlobStore.BlobPage page = blobStore.list(cursor, 3);
+            assertTrue(page.blobs().size() <= 3);
+            for (BlobStore.BlobInfo blob : page.blobs()) {
+                assertTrue(listedKeys.add(blob.key()));
+                assertEquals(blobStore.size(blob.key()), blob.size());
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expectedKeys, listedKeys);
+    }
+}
@@ -0,0 +1,198 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.models.dto.auth.AdminUserDTO;
+import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
+import com.coolSchool.coolSchool.models.dto.common.QuizAttemptDTO;
+import com.coolSchool.coolSchool.models.dto.common.QuizDTO;
+import com.coolSchool.coolSchool.models.dto.response.BlogResponseDTO;
+import com.coolSchool.coolSchool.models.dto.response.CommentResponseDTO;
+import com.coolSchool.coolSchool.models.dto.response.CourseResponseDTO;
+import com.coolSchool.coolSchool.models.entity.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MapperParityTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testBlogResponseDTO() {
+        Blog blog = blog();
+
+        assertSameJson(modelMapper.map(blog, BlogResponseDTO.class), TestMappers.blogMapper().toResponseDTO(blog));
+    }
+
+    @Test
+    void testBlogResponseDTOWithoutAssociations() {
+        Blog blog = new Blog();
+        blog.setId(2L);
+        blog.setTitle("Draft");
+
+        assertSameJson(modelMapper.map(blog, BlogResponseDTO.class), TestMappers.blogMapper().toResponseDTO(blog));
+    }
+
+    @Test
+    void testCourseResponseDTO() {
+        Course course = course();
+
+        assertSameJson(modelMapper.map(course, CourseResponseDTO.class), TestMappers.courseMapper().toResponseDTO(course));
+    }
+
+    @Test
+    void testCommentResponseDTO() {
+        Comment comment = new Comment();
+        comment.setId(3L);
+        comment.setComment("Great blog");
+        comment.setCreated_at(LocalDateTime.of(2024, 3, 2, 9, 15));
+        comment.setOwnerId(user(2L));
+        comment.setBlogId(blog());
+        comment.setLiked_users(Set.of(user(3L)));
+
+        assertSameJson(modelMapper.map(comment, CommentResponseDTO.class), TestMappers.commentMapper().toResponseDTO(comment));
+    }
+
+    @Test
+    void testQuizDTO() {
+        Quiz quiz = quiz();
+
+        assertSameJson(modelMapper.map(quiz, QuizDTO.class), TestMappers.quizMapper().toQuizDTO(quiz));
+    }
+
+    @Test
+    void testQuizAttemptDTO() {
+        QuizAttempt quizAttempt = new QuizAttempt();
+        quizAttempt.setId(5L);
+        quizAttempt.setQuiz(quiz());
+        quizAttempt.setUser(user(1L));
+        quizAttempt.setTotalMarks(new BigDecimal("7.50"));
+        quizAttempt.setAttemptNumber(2);
+        quizAttempt.setStartTime(LocalDateTime.of(2024, 3, 3, 10, 0));
+        quizAttempt.setTimeLeft(120);
+        quizAttempt.setRemainingTimeInSeconds(120L);
+        quizAttempt.setCompleted(true);
+        Question question = new Question();
+        question.setId(8L);
+        Answer answer = new Answer();
+        answer.setId(9L);
+        UserAnswer userAnswer = new UserAnswer();
+        userAnswer.setId(10L);
+        userAnswer.setQuestion(question);
+        userAnswer.setAnswer(answer);
+        userAnswer.setQuizAttempt(quizAttempt);
+        quizAttempt.setUserAnswers(List.of(userAnswer));
+
+        assertSameJson(modelMapper.map(quizAttempt, QuizAttemptDTO.class), TestMappers.quizMapper().toQuizAttemptDTO(quizAttempt));
+    }
+
+    @Test
+    void testUserDTOs() {
+        User user = user(1L);
+
+        assertSameJson(modelMapper.map(user, PublicUserDTO.class), TestMappers.userMapper().toPublicUserDTO(user));
+        assertSameJson(modelMapper.map(user, AdminUserDTO.class), TestMappers.userMapper().toAdminUserDTO(user));
+    }
+
+    private void assertSameJson(Object expected, Object actual) {
+        JsonNode expectedJson = objectMapper.valueToTree(expected);
+        JsonNode actualJson = objectMapper.valueToTree(actual);
+        assertEquals(expectedJson, actualJson);
+    }
+
+    private static User user(Long id) {
+        return User.builder()
+                .id(id)
+                .firstname("Ivan" + id)
+                .lastname("Ivanov")
+                .email("ivan" + id + "@example.com")
+                .password("secret")
+                .address("Sofia")
+                .usernameField("ivan" + id)
+                .description("Teacher")
+                .role(Role.USER)
+                .profilePic(file(20L + id))
+                .additionalInfoRequired(true)
+                .enabled(true)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 8, 0))
+                .build();
+    }
+
+    private static File file(Long id) {
+        File file = new File();
+        file.setId(id);
+        file.setName("picture.png");
+        file.setUrl("https://example.com/picture.png");
+        file.setType("image/png");
+        file.setCreatedAt(LocalDateTime.of(2024, 1, 1, 8, 0));
+        return file;
+    }
+
+    private static Category category() {
+        Category category = new Category();
+        category.setId(4L);
+        category.setName("Programming");
+        return category;
+    }
+
+    private static Blog blog() {
+        Blog blog = new Blog();
+        blog.setId(1L);
+        blog.setTitle("Java streams");
+        blog.setContent("Streams make collections easy to filter");
+        blog.setSummary("Streams");
+        blog.setCreated_at(LocalDateTime.of(2024, 3, 1, 12, 30));
+        blog.setLiked_users(Set.of(user(2L)));
+        blog.setPicture(file(11L));
+        blog.setOwnerId(user(1L));
+        blog.setCategoryId(category());
+        blog.setEnabled(true);
+        blog.setCommentCount(3);
+        return blog;
+    }
+
+    private static Course course() {
+        Course course = new Course();
+        course.setId(6L);
+        course.setName("Java for beginners");
+        course.setObjectives("Objects and classes");
+        course.setEligibility("Everyone");
+        course.setUser(user(1L));
+        course.setPicture(file(12L));
+        course.setCategory(category());
+        course.setStars(4.5);
+        course.setCreatedDate(LocalDateTime.of(2024, 2, 1, 10, 0));
+        return course;
+    }
+
+    private static Quiz quiz() {
+        CourseSubsection subsection = new CourseSubsection();
+        subsection.setId(7L);
+        subsection.setTitle("Classes");
+        subsection.setCourse(course());
+        Quiz quiz = new Quiz();
+        quiz.setId(5L);
+        quiz.setTitle("Classes quiz");
+        quiz.setDescription("Ten questions");
+        quiz.setStartTime(LocalDateTime.of(2024, 3, 1, 10, 0));
+        quiz.setEndTime(LocalDateTime.of(2024, 3, 8, 10, 0));
+        quiz.setSubsection(subsection);
+        quiz.setAttemptLimit(3);
+        quiz.setQuizDurationInMinutes(20);
+        quiz.setTotalMarks(new BigDecimal("10.00"));
+        return quiz;
+    }
+}
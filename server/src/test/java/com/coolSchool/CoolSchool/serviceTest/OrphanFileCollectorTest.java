@@ -0,0 +1,146 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.models.entity.File;
+import com.coolSchool.coolSchool.repositories.FileRepository;
+import com.coolSchool.coolSchool.storage.HotFileCache;
+import com.coolSchool.coolSchool.storage.LocalBlobStore;
+import com.coolSchool.coolSchool.storage.OrphanFileCollector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrphanFileCollectorTest {
+
+    @TempDir
+    Path uploadDirectory;
+    @Mock
+    private FileRepository fileRepository;
+    private LocalBlobStore blobStore;
+    private SimpleMeterRegistry meterRegistry;
+    private OrphanFileCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        blobStore = new LocalBlobStore(uploadDirectory.toString() + "/");
+        meterRegistry = new SimpleMeterRegistry();
+        collector = new OrphanFileCollector(fileRepository, blobStore, new HotFileCache(false, 0, 0), meterRegistry,
+                Duration.ofHours(1), Duration.ofHours(24), 10);
+    }
+
+    @Test
+    void testCollectDeletesUnusedFilesAndStrayBlobs() throws IOException {
+        File unused = createFile(1L, "unused.jpg", LocalDateTime.now().minusDays(2));
+        File used = createFile(2L, "used.jpg", LocalDateTime.now().minusDays(2));
+        File recent = createFile(3L, "recent.jpg", LocalDateTime.now());
+        storeOldBlob("stray.pdf", 7);
+        storeBlob("uploading.pdf", 3);
+
+        when(fileRepository.findNextBatch(eq(0L), any(Pageable.class))).thenReturn(List.of(unused, used, recent));
+        when(fileRepository.findNextBatch(eq(3L), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(fileRepository.findUnusedIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(fileRepository.findExistingIds(List.of(1L))).thenReturn(Collections.emptyList());
+        when(fileRepository.findExistingUrls(anyCollection())).thenReturn(List.of(used.getUrl(), recent.getUrl()));
+
+        collector.collectNextBatch();
+
+        verify(fileRepository).deleteUnused(List.of(1L));
+        assertFalse(blobStore.exists("unused.jpg"));
+        assertTrue(blobStore.exists("used.jpg"));
+        assertTrue(blobStore.exists("recent.jpg"));
+
+        collector.collectNextBatch(); // end of the files table
+        collector.collectNextBatch(); // the storage fits in one page
+
+        assertFalse(blobStore.exists("stray.pdf"));
+        assertTrue(blobStore.exists("uploading.pdf"));
+        OrphanFileCollector.Report report = collector.getLastReport();
+        assertNotNull(report);
+        assertEquals(1, report.deletedFiles());
+        assertEquals(1, report.deletedBlobs());
+        assertEquals(10 + 7, report.reclaimedBytes());
+        assertEquals(17.0, meterRegistry.get("files.gc.reclaimed").counter().count());
+    }
+
+    @Test
+    void testCollectKeepsBlobWhenFileGotUsedInTheMeantime() throws IOException {
+        File file = createFile(1L, "picture.jpg", LocalDateTime.now().minusDays(2));
+        when(fileRepository.findNextBatch(eq(0L), any(Pageable.class))).thenReturn(List.of(file));
+        when(fileRepository.findUnusedIds(List.of(1L))).thenReturn(List.of(1L));
+        // deleteUnused found a reference and kept the row
+        when(fileRepository.findExistingIds(List.of(1L))).thenReturn(List.of(1L));
+
+        collector.collectNextBatch();
+
+        assertTrue(blobStore.exists("picture.jpg"));
+    }
+
+    @Test
+    void testCollectKeepsMovedBlobWhoseRowHoldsLegacyUrl() throws IOException {
+        // UploadShardMigrator moved the blob, but did not get to update its row
+        storeOldBlob("migrated.jpg", 5);
+        String legacyUrl = uploadDirectory + "/migrated.jpg";
+        when(fileRepository.findNextBatch(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(fileRepository.findExistingUrls(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).contains(legacyUrl) ? List.of(legacyUrl) : List.of());
+
+        collector.collectNextBatch(); // end of the files table
+        collector.collectNextBatch(); // the storage fits in one page
+
+        assertTrue(blobStore.exists("migrated.jpg"));
+        assertEquals(0, collector.getLastReport().deletedBlobs());
+    }
+
+    @Test
+    void testCollectDoesNotStartNextRunBeforeRunInterval() throws IOException {
+        when(fileRepository.findNextBatch(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        collector.collectNextBatch();
+        collector.collectNextBatch();
+        assertNotNull(collector.getLastReport());
+
+        collector.collectNextBatch();
+
+        verify(fileRepository, times(1)).findNextBatch(anyLong(), any(Pageable.class));
+    }
+
+    private File createFile(Long id, String filename, LocalDateTime createdAt) throws IOException {
+        storeOldBlob(filename, 10);
+        File file = new File();
+        file.setId(id);
+        file.setName(filename);
+        file.setUrl(blobStore.locationOf(filename));
+        file.setType("image/jpeg");
+        file.setCreatedAt(createdAt);
+        return file;
+    }
+
+    private void storeOldBlob(String key, int size) throws IOException {
+        storeBlob(key, size);
+        Files.setLastModifiedTime(blobStore.createFilePath(key), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+    }
+
+    private void storeBlob(String key, int size) throws IOException {
+        blobStore.put(key, new ByteArrayInputStream(new byte[size]), size, "application/octet-stream");
+    }
+}
@@ -0,0 +1,78 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.exceptions.user.UserNotFoundException;
+import com.coolSchool.coolSchool.models.dto.auth.PublicUserDTO;
+import com.coolSchool.coolSchool.models.entity.User;
+import com.coolSchool.coolSchool.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "teacher@coolschool.com";
+
+    private PrincipalCache principalCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(Duration.ofMinutes(1), 100);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testPrincipalIsLoadedOnce() {
+        PrincipalCache.AuthenticatedPrincipal first = principalCache.get(EMAIL, this::load);
+        PrincipalCache.AuthenticatedPrincipal second = principalCache.get(EMAIL, this::load);
+
+        assertSame(first, second);
+        assertEquals(EMAIL, second.publicUser().getEmail());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testPrincipalIsDetachedFromUser() {
+        PrincipalCache.CachedUser user = principalCache.get(EMAIL, this::load).user();
+
+        assertEquals(EMAIL, user.getUsername());
+        assertEquals(3, user.tokenVersion());
+        assertEquals(Role.USER.getAuthorities().size(), user.getAuthorities().size());
+        assertThrows(UnsupportedOperationException.class, () -> user.authorities().clear());
+    }
+
+    @Test
+    void testEvictedPrincipalIsLoadedAgain() {
+        principalCache.get(EMAIL, this::load);
+
+        principalCache.evict(EMAIL);
+        principalCache.get(EMAIL, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        MessageSource messageSource = mock(MessageSource.class);
+
+        assertThrows(UserNotFoundException.class, () -> principalCache.get(EMAIL, email -> {
+            throw new UserNotFoundException("email", messageSource);
+        }));
+        principalCache.get(EMAIL, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    private PrincipalCache.AuthenticatedPrincipal load(String email) {
+        loads.incrementAndGet();
+        User user = User.builder().email(email).role(Role.USER).tokenVersion(3).build();
+        return PrincipalCache.AuthenticatedPrincipal.of(user, PublicUserDTO.builder().email(email).build());
+    }
+}
@@ -73,7 +73,7 @@ class QuizServiceImplTest {
     void setUp() {
         modelMapper = new ModelMapper();
         MockitoAnnotations.openMocks(this);
-        quizService = new QuizServiceImpl(quizRepository, modelMapper, questionService, answerService, userService, userAnswerRepository, quizAttemptRepository, courseSubsectionRepository, courseRepository, userQuizProgressRepository, messageSource, quizAttemptTimer, userCourseRepository);
+        quizService = new QuizServiceImpl(quizRepository, modelMapper, questionService, answerService, userService, userAnswerRepository, quizAttemptRepository, courseSubsectionRepository, courseRepository, userQuizProgressRepository, messageSource, quizAttemptTimer, userCourseRepository, TestMappers.quizMapper(), TestMappers.courseMapper());
     }
 
     @Test
@@ -304,7 +304,7 @@ class QuizServiceImplTest {
         existingQuiz.setSubsection(new CourseSubsection());
         existingQuiz.setAttemptLimit(1);
 
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(existingQuiz));
+        when(quizRepository.findByIdAndDeletedFalse(quizId)).thenReturn(Optional.of(existingQuiz));
         when(courseSubsectionRepository.findByIdAndDeletedFalse(updatedQuizDTO.getSubsectionId())).thenReturn(Optional.of(new CourseSubsection()));
         when(quizRepository.save(any(Quiz.class))).thenReturn(existingQuiz);
 
@@ -353,7 +353,7 @@ class QuizServiceImplTest {
         quiz.setEndTime(LocalDateTime.now().plusMinutes(5));
         quiz.setQuizDurationInMinutes(100);
 
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.findByIdAndDeletedFalse(quizId)).thenReturn(Optional.of(quiz));
         when(userService.findById(userId)).thenReturn(new User());
         when(quizAttemptRepository.countByUserAndQuiz(any(), any())).thenReturn(0);
 
@@ -377,7 +377,7 @@ class QuizServiceImplTest {
         quiz.setEndTime(LocalDateTime.now().plusMinutes(5));
         quiz.setQuizDurationInMinutes(100);
 
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.findByIdAndDeletedFalse(quizId)).thenReturn(Optional.of(quiz));
         when(userService.findById(userId)).thenReturn(new User());
         when(quizAttemptRepository.countByUserAndQuiz(any(), any())).thenReturn(2);
 
@@ -414,7 +414,7 @@ class QuizServiceImplTest {
         quizAttempt.setUser(new User());
         quizAttempt.setTotalMarks(BigDecimal.TEN);
 
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.findByIdAndDeletedFalse(quizId)).thenReturn(Optional.of(quiz));
         when(userService.findById(userId)).thenReturn(new User());
         when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(quizAttempt));
         when(questionService.getQuestionById(1L)).thenReturn(questionDTO);
@@ -444,7 +444,7 @@ class QuizServiceImplTest {
         quiz.setEndTime(LocalDateTime.now().minusMinutes(1000));
         quiz.setQuizDurationInMinutes(1);
 
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.findByIdAndDeletedFalse(quizId)).thenReturn(Optional.of(quiz));
 
         assertThrows(QuizTimeNotValidException.class, () -> quizService.submitQuiz(quizId, new ArrayList<>(), userId, attemptId));
 
@@ -494,7 +494,7 @@ class QuizServiceImplTest {
         userQuizProgressDTO.setQuestionId(questionId);
 
         when(quizAttemptRepository.findById(quizAttemptId)).thenReturn(java.util.Optional.of(quizAttempt));
-        when(quizRepository.findById(quizId)).thenReturn(java.util.Optional.of(quiz));
+        when(quizRepository.findByIdAndDeletedFalse(quizId)).thenReturn(java.util.Optional.of(quiz));
 
         List<UserQuizProgressDTO> userQuizProgressDTOs = quizService.autoSaveUserProgress(quizId, questionId, answerId, userId, quizAttemptId);
 
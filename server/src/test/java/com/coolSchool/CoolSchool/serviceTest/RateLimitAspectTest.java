@@ -0,0 +1,99 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.config.RateLimitAspect;
+import com.coolSchool.coolSchool.enums.Role;
+import com.coolSchool.coolSchool.exceptions.rateLimiting.RateLimitExceededException;
+import com.coolSchool.coolSchool.interfaces.RateLimited;
+import com.coolSchool.coolSchool.models.entity.User;
+import com.coolSchool.coolSchool.security.PrincipalCache;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitAspectTest {
+
+    private RateLimitAspect rateLimitAspect;
+    private JoinPoint joinPoint;
+    private RateLimited rateLimited;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        rateLimitAspect = new RateLimitAspect(mock(MessageSource.class), 100);
+        Method method = RateLimitAspectTest.class.getDeclaredMethod("limitedEndpoint");
+        rateLimited = method.getAnnotation(RateLimited.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        joinPoint = mock(JoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testAllowedRequestGetsRateLimitHeaders() {
+        rateLimitAspect.enforceRateLimit(joinPoint, rateLimited);
+
+        assertEquals("2", response.getHeader("RateLimit-Limit"));
+        assertEquals("1", response.getHeader("RateLimit-Remaining"));
+        assertEquals("30", response.getHeader("RateLimit-Reset"));
+        assertNull(response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void testRejectedRequestGetsRetryAfter() {
+        rateLimitAspect.enforceRateLimit(joinPoint, rateLimited);
+        rateLimitAspect.enforceRateLimit(joinPoint, rateLimited);
+
+        assertThrows(RateLimitExceededException.class, () -> rateLimitAspect.enforceRateLimit(joinPoint, rateLimited));
+        assertEquals("0", response.getHeader("RateLimit-Remaining"));
+        assertEquals("30", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void testUsersAreLimitedSeparately() {
+        authenticate(1L);
+        rateLimitAspect.enforceRateLimit(joinPoint, rateLimited);
+        rateLimitAspect.enforceRateLimit(joinPoint, rateLimited);
+        assertThrows(RateLimitExceededException.class, () -> rateLimitAspect.enforceRateLimit(joinPoint, rateLimited));
+
+        // Same IP address, another user
+        authenticate(2L);
+        assertDoesNotThrow(() -> rateLimitAspect.enforceRateLimit(joinPoint, rateLimited));
+    }
+
+    @RateLimited(limit = 2, periodSeconds = 60)
+    private void limitedEndpoint() {
+    }
+
+    private void authenticate(Long userId) {
+        User user = User.builder().id(userId).email("user" + userId + "@coolschool.com").role(Role.USER).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(PrincipalCache.CachedUser.of(user), null, Collections.emptyList()));
+    }
+}
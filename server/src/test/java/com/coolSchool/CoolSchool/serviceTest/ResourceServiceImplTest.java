@@ -1,5 +1,7 @@
 package com.coolSchool.CoolSchool.serviceTest;
 
+import com.coolSchool.coolSchool.exceptions.courseSubsection.CourseSubsectionNotFoundException;
+import com.coolSchool.coolSchool.exceptions.files.FileNotFoundException;
 import com.coolSchool.coolSchool.exceptions.resource.ResourceNotFoundException;
 import com.coolSchool.coolSchool.models.dto.request.ResourceRequestDTO;
 import com.coolSchool.coolSchool.models.dto.response.ResourceResponseDTO;
@@ -9,6 +11,7 @@ import com.coolSchool.coolSchool.models.entity.Resource;
 import com.coolSchool.coolSchool.repositories.CourseSubsectionRepository;
 import com.coolSchool.coolSchool.repositories.FileRepository;
 import com.coolSchool.coolSchool.repositories.ResourceRepository;
+import com.coolSchool.coolSchool.services.FileService;
 import com.coolSchool.coolSchool.services.impl.ResourceServiceImpl;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
@@ -21,8 +24,14 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,11 +53,15 @@ class ResourceServiceImplTest {
     private FileRepository fileRepository;
     @Mock
     private MessageSource messageSource;
+    @Mock
+    private FileService fileService;
+    // Compression method of every entry of the last archive read
+    private final Map<String, Integer> entryMethods = new HashMap<>();
 
     @BeforeEach
     void setUp() {
         modelMapper = new ModelMapper();
-        resourceService = new ResourceServiceImpl(resourceRepository, modelMapper, courseSubsectionRepository, fileRepository, messageSource);
+        resourceService = new ResourceServiceImpl(resourceRepository, modelMapper, courseSubsectionRepository, fileRepository, messageSource, fileService);
     }
 
     @Test
@@ -173,5 +186,75 @@ class ResourceServiceImplTest {
 
         assertThrows(ConstraintViolationException.class, () -> resourceService.updateResource(resourceId, resourceDTO));
     }
-}
 
+    @Test
+    public void testGetSubsectionArchive_StreamsAllResources() throws IOException {
+        Resource presentation = createResource(1L, "Data types", "slides.pdf", "/uploads/3f/a0/1_slides.pdf");
+        Resource notes = createResource(2L, "Notes", "notes.doc", "/uploads/11/22/2_notes.doc");
+        Resource sameName = createResource(3L, "Notes", "notes.doc", "/uploads/33/44/3_notes.doc");
+        when(courseSubsectionRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(new CourseSubsection()));
+        when(resourceRepository.findAllBySubsectionIdAndDeletedFalse(1L)).thenReturn(List.of(presentation, notes, sameName));
+        // The PDF is stored, its file is read twice
+        when(fileService.openFileStream("1_slides.pdf")).thenAnswer(invocation -> new ByteArrayInputStream("pdf content".getBytes()));
+        when(fileService.openFileStream("2_notes.doc")).thenReturn(new ByteArrayInputStream("notes".getBytes()));
+        when(fileService.openFileStream("3_notes.doc")).thenReturn(new ByteArrayInputStream("more notes".getBytes()));
+
+        Map<String, String> entries = readArchive(resourceService.getSubsectionArchive(1L));
+
+        assertEquals(ZipEntry.STORED, entryMethods.get("Data types.pdf"));
+        assertEquals(ZipEntry.DEFLATED, entryMethods.get("Notes.doc"));
+        assertEquals(Map.of(
+                "Data types.pdf", "pdf content",
+                "Notes.doc", "notes",
+                "Notes (2).doc", "more notes"), entries);
+    }
+
+    @Test
+    public void testGetSubsectionArchive_SkipsMissingFiles() throws IOException {
+        Resource missing = createResource(1L, "Missing", "missing.png", "/uploads/3f/a0/1_missing.png");
+        Resource present = createResource(2L, "Present", "present.png", "/uploads/11/22/2_present.png");
+        when(courseSubsectionRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(new CourseSubsection()));
+        when(resourceRepository.findAllBySubsectionIdAndDeletedFalse(1L)).thenReturn(List.of(missing, present));
+        FileNotFoundException fileNotFoundException = new FileNotFoundException(messageSource);
+        when(fileService.openFileStream("1_missing.png")).thenThrow(fileNotFoundException);
+        when(fileService.openFileStream("2_present.png")).thenAnswer(invocation -> new ByteArrayInputStream("image".getBytes()));
+
+        Map<String, String> entries = readArchive(resourceService.getSubsectionArchive(1L));
+
+        assertEquals(Map.of("Present.png", "image"), entries);
+    }
+
+    @Test
+    public void testGetSubsectionArchive_SubsectionNotFound() {
+        when(courseSubsectionRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.empty());
+
+        assertThrows(CourseSubsectionNotFoundException.class, () -> resourceService.getSubsectionArchive(1L));
+        verifyNoInteractions(fileService);
+    }
+
+    private Resource createResource(Long id, String name, String filename, String url) {
+        File file = new File();
+        file.setName(filename);
+        file.setUrl(url);
+        Resource resource = new Resource();
+        resource.setId(id);
+        resource.setName(name);
+        resource.setFile(file);
+        return resource;
+    }
+
+    private Map<String, String> readArchive(StreamingResponseBody archive) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        archive.writeTo(outputStream);
+
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes()));
+                entryMethods.put(entry.getName(), entry.getMethod());
+            }
+        }
+        return entries;
+    }
+}
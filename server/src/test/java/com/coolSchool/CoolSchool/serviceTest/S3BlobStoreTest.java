@@ -0,0 +1,148 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.storage.BlobStore;
+import com.coolSchool.coolSchool.storage.S3BlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3BlobStoreTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private FakeS3Client s3Client;
+    private S3BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = new FakeS3Client();
+        S3Presigner presigner = S3Presigner.builder()
+                .endpointOverride(URI.create("http://localhost:9000"))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access-key", "secret-key")))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+        blobStore = new S3BlobStore(s3Client, presigner, "uploads", 2L * PART_SIZE, PART_SIZE, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blobStore.close();
+    }
+
+    @Test
+    void testPutAndOpenSmallBlob() throws IOException {
+        byte[] content = "Small file content".getBytes();
+
+        blobStore.put("small.txt", new ByteArrayInputStream(content), content.length, "text/plain");
+
+        try (InputStream stored = blobStore.open("small.txt")) {
+            assertArrayEquals(content, stored.readAllBytes());
+        }
+        assertEquals(0, s3Client.uploadedParts.get());
+    }
+
+    @Test
+    void testPutLargeBlobUsesParallelMultipartUpload() throws IOException {
+        byte[] content = new byte[3 * PART_SIZE + 123];
+        new Random(42).nextBytes(content);
+
+        blobStore.put("large.pdf", new ByteArrayInputStream(content), content.length, "application/pdf");
+
+        assertEquals(4, s3Client.uploadedParts.get());
+        assertArrayEquals(content, blobStore.readAllBytes("large.pdf"));
+        assertTrue(s3Client.multipartUploads.isEmpty());
+    }
+
+    @Test
+    void testPutBlobOfUnknownSizeUsesMultipartUpload() throws IOException {
+        byte[] content = "Unknown size".getBytes();
+
+        blobStore.put("unknown.txt", new ByteArrayInputStream(content), -1, "text/plain");
+
+        assertEquals(1, s3Client.uploadedParts.get());
+        assertArrayEquals(content, blobStore.readAllBytes("unknown.txt"));
+    }
+
+    @Test
+    void testFailedMultipartUploadIsAborted() {
+        InputStream failingStream = new InputStream() {
+            private int remaining = PART_SIZE + 10;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining-- <= 0) {
+                    throw new IOException("Connection reset");
+                }
+                return 1;
+            }
+        };
+
+        assertThrows(IOException.class, () -> blobStore.put("broken.pdf", failingStream, -1, "application/pdf"));
+        assertEquals(1, s3Client.abortedUploads.get());
+        assertFalse(s3Client.objects.containsKey("broken.pdf"));
+    }
+
+    @Test
+    void testOpenMissingBlobThrowsNoSuchFileException() {
+        assertThrows(NoSuchFileException.class, () -> blobStore.open("missing.txt"));
+        assertFalse(blobStore.exists("missing.txt"));
+    }
+
+    @Test
+    void testDeleteBlob() throws IOException {
+        byte[] content = "To be deleted".getBytes();
+        blobStore.put("delete-me.txt", new ByteArrayInputStream(content), content.length, "text/plain");
+
+        blobStore.delete("delete-me.txt");
+
+        assertFalse(blobStore.exists("delete-me.txt"));
+    }
+
+    @Test
+    void testPresignedUrlPointsToTheObject() {
+        Optional<String> presignedUrl = blobStore.presignedUrl("picture.jpg", Duration.ofMinutes(5));
+
+        assertTrue(presignedUrl.isPresent());
+        assertTrue(presignedUrl.get().startsWith("http://localhost:9000/uploads/picture.jpg?"));
+        assertTrue(presignedUrl.get().contains("X-Amz-Signature="));
+    }
+
+    @Test
+    void testLocationOf() {
+        assertEquals("s3://uploads/picture.jpg", blobStore.locationOf("picture.jpg"));
+    }
+
+    @Test
+    void testListPagesThroughTheBucket() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            byte[] content = new byte[i];
+            blobStore.put("file-" + i + ".pdf", new ByteArrayInputStream(content), content.length, "application/pdf");
+        }
+
+        BlobStore.BlobPage firstPage = blobStore.list(null, 3);
+        BlobStore.BlobPage secondPage = blobStore.list(firstPage.nextCursor(), 3);
+
+        assertEquals(3, firstPage.blobs().size());
+        assertEquals(2, secondPage.blobs().size());
+        assertNull(secondPage.nextCursor());
+        assertEquals("s3://uploads/file-4.pdf", secondPage.blobs().get(1).location());
+        assertEquals(4, blobStore.size("file-4.pdf"));
+    }
+}
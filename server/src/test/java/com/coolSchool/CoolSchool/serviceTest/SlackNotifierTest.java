@@ -0,0 +1,124 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.slack.SlackNotifier;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlackNotifierTest {
+
+    private HttpServer webhook;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile int responseCode = 200;
+    private volatile CountDownLatch received = new CountDownLatch(1);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private SimpleMeterRegistry meterRegistry;
+    private SlackNotifier slackNotifier;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        // Local stand-in of the Slack webhook
+        webhook = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        webhook.createContext("/webhook", exchange -> {
+            requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            received.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseCode, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        webhook.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        if (slackNotifier != null) {
+            slackNotifier.destroy();
+        }
+        webhook.stop(0);
+    }
+
+    @Test
+    void testBurstIsCoalescedIntoOneDigest() throws InterruptedException {
+        slackNotifier = createNotifier(100, 20, Duration.ofMillis(500), 5);
+
+        slackNotifier.sendNotification("New blog created in Cool School");
+        slackNotifier.sendNotification("New course created in Cool School");
+        slackNotifier.sendNotification("New blog created again");
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        // The counter moves once the response has arrived, wait for the sender to finish
+        slackNotifier.destroy();
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).contains("3 notifications from Cool School"));
+        assertTrue(requests.get(0).contains("New course created in Cool School"));
+        assertEquals(3.0, meterRegistry.get("slack.notifications").tag("result", "sent").counter().count());
+    }
+
+    @Test
+    void testCircuitOpensAfterRepeatedFailures() throws InterruptedException {
+        responseCode = 500;
+        received = new CountDownLatch(2);
+        slackNotifier = createNotifier(100, 1, Duration.ZERO, 2);
+
+        slackNotifier.sendNotification("first");
+        slackNotifier.sendNotification("second");
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        slackNotifier.sendNotification("third");
+        slackNotifier.destroy();
+
+        assertEquals(2, requests.size());
+        assertEquals(3.0, meterRegistry.get("slack.notifications").tag("result", "logged").counter().count());
+    }
+
+    @Test
+    void testFullQueueDropsNotifications() throws InterruptedException {
+        release = new CountDownLatch(1);
+        slackNotifier = createNotifier(1, 1, Duration.ZERO, 5);
+
+        slackNotifier.sendNotification("sending");
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        slackNotifier.sendNotification("queued");
+        slackNotifier.sendNotification("dropped");
+
+        assertEquals(1.0, meterRegistry.get("slack.notifications").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void testQueueIsDrainedOnShutdown() throws InterruptedException {
+        slackNotifier = createNotifier(100, 20, Duration.ofSeconds(30), 5);
+
+        slackNotifier.sendNotification("New blog created in Cool School");
+        slackNotifier.destroy();
+
+        assertEquals(1, requests.size());
+        slackNotifier.sendNotification("after shutdown");
+        assertEquals(1.0, meterRegistry.get("slack.notifications").tag("result", "dropped").counter().count());
+    }
+
+    private SlackNotifier createNotifier(int queueCapacity, int maxBatch, Duration linger, int failureThreshold) {
+        String url = "http://localhost:" + webhook.getAddress().getPort() + "/webhook";
+        return new SlackNotifier(url, queueCapacity, maxBatch, linger, failureThreshold, Duration.ofMinutes(1),
+                Duration.ofSeconds(10), meterRegistry);
+    }
+}
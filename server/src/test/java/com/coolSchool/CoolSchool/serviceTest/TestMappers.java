@@ -0,0 +1,32 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.mappers.*;
+
+/**
+ * The generated mappers wired as in the application context, for the tests which construct the services themselves.
+ */
+final class TestMappers {
+
+    private TestMappers() {
+    }
+
+    static UserMapper userMapper() {
+        return new UserMapperImpl();
+    }
+
+    static BlogMapper blogMapper() {
+        return new BlogMapperImpl(userMapper(), new CategoryMapperImpl());
+    }
+
+    static CourseMapper courseMapper() {
+        return new CourseMapperImpl(userMapper(), new CategoryMapperImpl());
+    }
+
+    static CommentMapper commentMapper() {
+        return new CommentMapperImpl(userMapper(), blogMapper());
+    }
+
+    static QuizMapper quizMapper() {
+        return new QuizMapperImpl();
+    }
+}
@@ -0,0 +1,74 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.security.TokenBucketRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private AtomicLong clock;
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        rateLimiter = new TokenBucketRateLimiter(10, Duration.ofMinutes(1), 100, clock::get);
+    }
+
+    @Test
+    void testBurstUpToCapacityIsAllowed() {
+        for (int i = 0; i < 10; i++) {
+            TokenBucketRateLimiter.Decision decision = rateLimiter.tryAcquire("user:1");
+            assertTrue(decision.allowed());
+            assertEquals(9 - i, decision.remaining());
+        }
+
+        TokenBucketRateLimiter.Decision rejected = rateLimiter.tryAcquire("user:1");
+
+        assertFalse(rejected.allowed());
+        assertEquals(0, rejected.remaining());
+        assertEquals(TimeUnit.SECONDS.toNanos(6), rejected.retryAfterNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(60), rejected.resetNanos());
+    }
+
+    @Test
+    void testTokensAreRefilledOverTime() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("user:1");
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        assertTrue(rateLimiter.tryAcquire("user:1").allowed());
+        assertFalse(rateLimiter.tryAcquire("user:1").allowed());
+    }
+
+    @Test
+    void testKeysHaveSeparateBuckets() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire("user:1");
+        }
+
+        assertFalse(rateLimiter.tryAcquire("user:1").allowed());
+        assertTrue(rateLimiter.tryAcquire("user:2").allowed());
+        assertTrue(rateLimiter.tryAcquire("ip:127.0.0.1").allowed());
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        rateLimiter.tryAcquire("user:1");
+        rateLimiter.tryAcquire("user:2");
+        assertEquals(2, rateLimiter.size());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        assertEquals(0, rateLimiter.size());
+        assertEquals(9, rateLimiter.tryAcquire("user:1").remaining());
+    }
+}
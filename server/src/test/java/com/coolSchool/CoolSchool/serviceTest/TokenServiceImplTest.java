@@ -1,11 +1,21 @@
 package com.coolSchool.CoolSchool.serviceTest;
 
+import com.coolSchool.coolSchool.enums.TokenRevocationMode;
 import com.coolSchool.coolSchool.enums.TokenType;
 import com.coolSchool.coolSchool.models.entity.Token;
 import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.repositories.TokenRevocationRepository;
+import com.coolSchool.coolSchool.repositories.UserRepository;
+import com.coolSchool.coolSchool.security.ActiveTokenIndex;
+import com.coolSchool.coolSchool.security.PrincipalCache;
 import com.coolSchool.coolSchool.services.JwtService;
+import com.coolSchool.coolSchool.services.TokenService;
+import com.coolSchool.coolSchool.services.impl.security.JwtServiceImpl;
 import com.coolSchool.coolSchool.services.impl.security.TokenServiceImpl;
+import com.coolSchool.coolSchool.utils.TokenDigest;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -14,10 +24,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -36,33 +48,87 @@ class TokenServiceImplTest {
     private TokenServiceImpl tokenService;
     @Mock
     private JwtService jwtService;
+    @Mock
+    private ActiveTokenIndex activeTokenIndex;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PrincipalCache principalCache;
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
 
     @Test
     public void testSaveToken() {
         User mockUser = new User();
         String jwtToken = "mockJwtToken";
         TokenType tokenType = TokenType.ACCESS;
+        Claims claims = Jwts.claims().setExpiration(new Date(System.currentTimeMillis() + 86400000));
+        when(jwtService.verifyToken(jwtToken)).thenReturn(claims);
 
         tokenService.saveToken(mockUser, jwtToken, tokenType);
 
         verify(tokenRepository).save(Mockito.argThat(token ->
                 token.getUser() == mockUser &&
-                        token.getToken().equals(jwtToken) &&
+                        token.getTokenHash().equals(TokenDigest.sha256(jwtToken)) &&
+                        token.getExpiresAt() != null &&
                         token.getTokenType() == tokenType &&
                         !token.isExpired() &&
                         !token.isRevoked()
         ));
+        verify(activeTokenIndex).tokenSaved(Mockito.argThat(token -> token.getTokenHash().equals(TokenDigest.sha256(jwtToken))));
     }
 
     @Test
     public void testFindByToken() {
         String jwt = "mockJwt";
         Token mockToken = new Token();
-        when(tokenRepository.findByToken(jwt)).thenReturn(java.util.Optional.of(mockToken));
+        when(tokenRepository.findByTokenHash(TokenDigest.sha256(jwt))).thenReturn(java.util.Optional.of(mockToken));
         Token result = tokenService.findByToken(jwt);
         assertEquals(mockToken, result);
     }
 
+    @Test
+    public void testFindTokenPairUsesOneQuery() {
+        Token accessToken = Token.builder().tokenHash(TokenDigest.sha256("access")).tokenType(TokenType.ACCESS).build();
+        Token refreshToken = Token.builder().tokenHash(TokenDigest.sha256("refresh")).tokenType(TokenType.REFRESH).build();
+        when(tokenRepository.findAllWithUserByTokenHashIn(List.of(TokenDigest.sha256("access"), TokenDigest.sha256("refresh"))))
+                .thenReturn(List.of(refreshToken, accessToken));
+
+        TokenService.TokenPair tokens = tokenService.findTokenPair("access", "refresh");
+
+        assertEquals(accessToken, tokens.accessToken());
+        assertEquals(refreshToken, tokens.refreshToken());
+        verify(tokenRepository, times(1)).findAllWithUserByTokenHashIn(any());
+    }
+
+    @Test
+    public void testFindTokenPairWithoutTokens() {
+        TokenService.TokenPair tokens = tokenService.findTokenPair(null, null);
+
+        Assertions.assertNull(tokens.accessToken());
+        Assertions.assertNull(tokens.refreshToken());
+        verifyNoInteractions(tokenRepository);
+    }
+
+    @Test
+    public void testRotateAccessTokenRevokesOtherTokensInBulk() {
+        User user = User.builder().id(1L).build();
+        Token refreshToken = Token.builder().id(5L).user(user).tokenType(TokenType.REFRESH).build();
+        Claims claims = Jwts.claims().setExpiration(new Date(System.currentTimeMillis() + 86400000));
+        when(jwtService.verifyToken("newAccessToken")).thenReturn(claims);
+
+        TokenRepository.TokenView revokedToken = mock(TokenRepository.TokenView.class);
+        when(tokenRepository.findLiveOfUserExcept(eq(1L), eq(5L), any())).thenReturn(List.of(revokedToken));
+
+        tokenService.rotateAccessToken(user, refreshToken, "newAccessToken");
+
+        verify(activeTokenIndex).tokensRevokedLocally(List.of(revokedToken));
+        verify(tokenRevocationRepository).insertForTokensOfUserExcept(eq(1L), eq(5L), any());
+        verify(tokenRepository).deleteAllOfUserExcept(1L, 5L);
+        verify(tokenRepository, never()).findAllByUser(any());
+        verify(tokenRepository).save(Mockito.argThat(token -> token.getTokenType() == TokenType.ACCESS));
+    }
+
     @Test
     public void testFindByUser() {
         User mockUser = new User();
@@ -82,6 +148,7 @@ class TokenServiceImplTest {
         Token mockToken = new Token();
         tokenService.revokeToken(mockToken);
         verify(tokenRepository).delete(mockToken);
+        verify(activeTokenIndex).tokensRevoked(List.of(mockToken));
     }
 
     @Test
@@ -95,6 +162,7 @@ class TokenServiceImplTest {
         tokenService.revokeAllUserTokens(user);
 
         verify(tokenRepository, times(1)).deleteAll(anyList());
+        verify(activeTokenIndex).tokensRevoked(Arrays.asList(token1, token2));
     }
 
     @Test
@@ -104,11 +172,11 @@ class TokenServiceImplTest {
         Token storedToken = new Token();
         storedToken.setUser(user);
 
-        when(tokenRepository.findByToken(jwtToken)).thenReturn(Optional.of(storedToken));
+        when(tokenRepository.findByTokenHash(TokenDigest.sha256(jwtToken))).thenReturn(Optional.of(storedToken));
 
         tokenService.logoutToken(jwtToken);
 
-        verify(tokenRepository, times(1)).findByToken(jwtToken);
+        verify(tokenRepository, times(1)).findByTokenHash(TokenDigest.sha256(jwtToken));
         verify(tokenRepository, times(1)).findAllByUser(user);
         verify(tokenRepository, times(1)).deleteAll(anyList());
     }
@@ -117,7 +185,7 @@ class TokenServiceImplTest {
     void testLogoutToken_NoTokenFound() {
         String jwtToken = "nonExistentJwtToken";
 
-        when(tokenRepository.findByToken(jwtToken)).thenReturn(Optional.empty());
+        when(tokenRepository.findByTokenHash(TokenDigest.sha256(jwtToken))).thenReturn(Optional.empty());
 
         tokenService.logoutToken(jwtToken);
 
@@ -125,6 +193,43 @@ class TokenServiceImplTest {
         verify(tokenRepository, never()).deleteAll(anyList());
     }
 
+    @Test
+    void testSaveTokenWithVersionModeStoresNothing() {
+        ReflectionTestUtils.setField(tokenService, "revocationMode", TokenRevocationMode.VERSION);
+
+        tokenService.saveToken(new User(), "mockJwtToken", TokenType.ACCESS);
+
+        verifyNoInteractions(tokenRepository, activeTokenIndex);
+    }
+
+    @Test
+    void testRevokeAllUserTokensWithVersionModeIncrementsVersion() {
+        ReflectionTestUtils.setField(tokenService, "revocationMode", TokenRevocationMode.VERSION);
+        User user = User.builder().id(1L).email("user@coolschool.com").tokenVersion(2).build();
+
+        tokenService.revokeAllUserTokens(user);
+
+        verify(userRepository).incrementTokenVersion(1L);
+        verify(principalCache).evict("user@coolschool.com");
+        verifyNoInteractions(tokenRepository, activeTokenIndex);
+        assertEquals(3, user.getTokenVersion());
+    }
+
+    @Test
+    void testIsTokenActiveWithVersionModeComparesVersion() {
+        ReflectionTestUtils.setField(tokenService, "revocationMode", TokenRevocationMode.VERSION);
+        Claims current = Jwts.claims().setSubject("user@coolschool.com");
+        current.put(JwtServiceImpl.TOKEN_VERSION_CLAIM, 2);
+        Claims revoked = Jwts.claims().setSubject("user@coolschool.com");
+        revoked.put(JwtServiceImpl.TOKEN_VERSION_CLAIM, 1);
+        Claims withoutVersion = Jwts.claims().setSubject("user@coolschool.com");
+
+        Assertions.assertTrue(tokenService.isTokenActive("jwt", current, 2));
+        Assertions.assertFalse(tokenService.isTokenActive("jwt", revoked, 2));
+        Assertions.assertFalse(tokenService.isTokenActive("jwt", withoutVersion, 2));
+        verifyNoInteractions(activeTokenIndex);
+    }
+
     @Test
     void createJwtCookieTest() {
         String jwtToken = "sampleJwtToken";
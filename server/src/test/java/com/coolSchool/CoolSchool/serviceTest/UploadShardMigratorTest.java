@@ -0,0 +1,86 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.models.entity.File;
+import com.coolSchool.coolSchool.repositories.FileRepository;
+import com.coolSchool.coolSchool.storage.UploadShardLayout;
+import com.coolSchool.coolSchool.storage.UploadShardMigrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadShardMigratorTest {
+
+    @TempDir
+    Path uploadDirectory;
+    @Mock
+    private FileRepository fileRepository;
+    private UploadShardMigrator migrator;
+    private String urlPrefix;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        urlPrefix = uploadDirectory.toString() + "/";
+        migrator = new UploadShardMigrator(fileRepository, urlPrefix, 10);
+    }
+
+    @Test
+    void testMigrateNextBatchMovesLegacyFiles() throws IOException {
+        String filename = "0beab526-c625-4ca1-8b89-c480c6d0adcf_picture.jpg";
+        Files.write(uploadDirectory.resolve(filename), "content".getBytes());
+        File file = createFile(1L, urlPrefix + filename);
+        when(fileRepository.findNextBatch(eq(0L), any(Pageable.class))).thenReturn(List.of(file));
+
+        migrator.migrateNextBatch();
+
+        Path shardedPath = UploadShardLayout.resolve(uploadDirectory, filename);
+        assertTrue(Files.exists(shardedPath));
+        assertFalse(Files.exists(uploadDirectory.resolve(filename)));
+        assertEquals(urlPrefix + UploadShardLayout.relativePathOf(filename), file.getUrl());
+        verify(fileRepository).saveAll(List.of(file));
+    }
+
+    @Test
+    void testMigrateNextBatchSkipsAlreadyShardedFiles() {
+        String filename = "already-sharded.png";
+        File file = createFile(2L, urlPrefix + UploadShardLayout.relativePathOf(filename));
+        when(fileRepository.findNextBatch(eq(0L), any(Pageable.class))).thenReturn(List.of(file));
+
+        migrator.migrateNextBatch();
+
+        verify(fileRepository).saveAll(Collections.emptyList());
+    }
+
+    @Test
+    void testMigrateNextBatchFinishesWhenNoFilesAreLeft() {
+        when(fileRepository.findNextBatch(eq(0L), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        migrator.migrateNextBatch();
+
+        assertTrue(migrator.isFinished());
+    }
+
+    private File createFile(Long id, String url) {
+        File file = new File();
+        file.setId(id);
+        file.setName("picture.jpg");
+        file.setUrl(url);
+        file.setType("image/jpeg");
+        return file;
+    }
+}
@@ -0,0 +1,86 @@
+package com.coolSchool.CoolSchool.serviceTest;
+
+import com.coolSchool.coolSchool.config.schedulers.UserCleanupScheduler;
+import com.coolSchool.coolSchool.repositories.TokenRepository;
+import com.coolSchool.coolSchool.repositories.TokenRevocationRepository;
+import com.coolSchool.coolSchool.repositories.UserRepository;
+import com.coolSchool.coolSchool.repositories.VerificationTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserCleanupSchedulerTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TokenRepository tokenRepository;
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+    @Mock
+    private VerificationTokenRepository verificationTokenRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private UserCleanupScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new UserCleanupScheduler(userRepository, tokenRepository, tokenRevocationRepository, verificationTokenRepository,
+                transactionManager, meterRegistry, 2, Duration.ZERO);
+    }
+
+    @Test
+    void testDeleteUnconfirmedUsersInBatches() {
+        when(userRepository.findUnconfirmedIds(any(LocalDateTime.class), eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 4L));
+        when(userRepository.findUnconfirmedIds(any(LocalDateTime.class), eq(4L), any(Pageable.class))).thenReturn(List.of(7L));
+        when(verificationTokenRepository.deleteAllByUserIds(anyCollection())).thenReturn(1);
+        when(tokenRepository.deleteAllByUserIds(List.of(1L, 4L))).thenReturn(4);
+        when(tokenRepository.deleteAllByUserIds(List.of(7L))).thenReturn(2);
+        when(userRepository.deleteUnconfirmedByIds(List.of(1L, 4L))).thenReturn(2);
+        when(userRepository.deleteUnconfirmedByIds(List.of(7L))).thenReturn(1);
+
+        scheduler.deleteUnconfirmedUsers();
+
+        InOrder inOrder = inOrder(tokenRevocationRepository, verificationTokenRepository, tokenRepository, userRepository);
+        inOrder.verify(tokenRevocationRepository).insertForTokensOfUsers(eq(List.of(1L, 4L)), any(LocalDateTime.class));
+        inOrder.verify(verificationTokenRepository).deleteAllByUserIds(List.of(1L, 4L));
+        inOrder.verify(tokenRepository).deleteAllByUserIds(List.of(1L, 4L));
+        inOrder.verify(userRepository).deleteUnconfirmedByIds(List.of(1L, 4L));
+        inOrder.verify(tokenRevocationRepository).insertForTokensOfUsers(eq(List.of(7L)), any(LocalDateTime.class));
+        inOrder.verify(verificationTokenRepository).deleteAllByUserIds(List.of(7L));
+        inOrder.verify(tokenRepository).deleteAllByUserIds(List.of(7L));
+        inOrder.verify(userRepository).deleteUnconfirmedByIds(List.of(7L));
+
+        assertEquals(3.0, meterRegistry.get("users.cleanup.deleted").tag("table", "_users").counter().count());
+        assertEquals(6.0, meterRegistry.get("users.cleanup.deleted").tag("table", "tokens").counter().count());
+        assertEquals(2.0, meterRegistry.get("users.cleanup.deleted").tag("table", "verification_tokens").counter().count());
+        assertEquals(1, meterRegistry.get("users.cleanup.duration").timer().count());
+    }
+
+    @Test
+    void testDeleteUnconfirmedUsersWithoutUnconfirmedUsers() {
+        when(userRepository.findUnconfirmedIds(any(LocalDateTime.class), anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        scheduler.deleteUnconfirmedUsers();
+
+        verify(userRepository, never()).deleteUnconfirmedByIds(anyCollection());
+        verifyNoInteractions(tokenRepository, tokenRevocationRepository, verificationTokenRepository);
+    }
+}
@@ -9,6 +9,7 @@ import com.coolSchool.coolSchool.models.dto.auth.RegisterRequest;
 import com.coolSchool.coolSchool.models.dto.request.CompleteOAuthRequest;
 import com.coolSchool.coolSchool.models.entity.User;
 import com.coolSchool.coolSchool.repositories.UserRepository;
+import com.coolSchool.coolSchool.security.PrincipalCache;
 import com.coolSchool.coolSchool.services.impl.UserServiceImpl;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
@@ -39,6 +40,8 @@ class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private MessageSource messageSource;
+    @Mock
+    private PrincipalCache principalCache;
 
     @Test
     void testCreateUser() {
@@ -133,6 +136,7 @@ class UserServiceImplTest {
 
         User mockUser = new User();
         mockUser.setId(userId);
+        mockUser.setEmail("user@coolschool.com");
         mockUser.setDeleted(false);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
@@ -142,6 +146,7 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(mockUser);
+        verify(principalCache).evict("user@coolschool.com");
     }
 
     @Test
@@ -163,6 +168,7 @@ class UserServiceImplTest {
 
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(principalCache).evict(existingUser.getEmail());
 
         Assertions.assertEquals("John", updatedUser.getFirstname());
         Assertions.assertEquals("Doe", updatedUser.getLastname());